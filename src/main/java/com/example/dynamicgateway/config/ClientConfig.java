@@ -1,23 +1,69 @@
 package com.example.dynamicgateway.config;
 
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.applicationDocClient.ApplicationDocClient;
 import com.example.dynamicgateway.service.applicationDocClient.SwaggerClient;
+import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
+import com.example.dynamicgateway.service.swaggerDocParser.StreamingOpenApiParser;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 public class ClientConfig {
+    /**
+     * Returns a load-balanced {@code WebClient.Builder} whose clients ask for gzip-compressed responses
+     * and decompress them as they are read
+     */
     @Bean
     @LoadBalanced
     public WebClient.Builder balancedWebClientBuilder() {
-        return WebClient.builder();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().compress(true)));
     }
 
     @Bean
-    public ApplicationDocClient<SwaggerParseResult> applicationDocClient() {
-        return SwaggerClient.builder(balancedWebClientBuilder().build()).build();
+    public ApplicationDocClient<SwaggerParseResult> applicationDocClient(GatewayMeta gatewayMeta,
+                                                                         MeterRegistry meterRegistry) {
+        return SwaggerClient.builder(balancedWebClientBuilder().build())
+                .setMaxConcurrentFetches(gatewayMeta.getDocFetchConcurrency())
+                .setFetchTimeout(gatewayMeta.getDocFetchTimeout())
+                .setMaxFetchRetries(gatewayMeta.getDocFetchRetries())
+                .setMinRetryBackoff(gatewayMeta.getDocFetchBackoff())
+                .setMaxDocSize(gatewayMeta.getDocMaxSize())
+                .setMaxDocSizeOverrides(gatewayMeta.getDocMaxSizeOverrides())
+                .setParser(openApiParser())
+                .setParseScheduler(docParseScheduler(gatewayMeta))
+                .setMeterRegistry(meterRegistry)
+                .build();
+    }
+
+    /**
+     * Returns the parser of API documentation shared by the doc client and the discovery snapshot store
+     */
+    @Bean
+    public OpenApiParser<SwaggerParseResult> openApiParser() {
+        return new StreamingOpenApiParser();
+    }
+
+    /**
+     * Returns a {@code Scheduler} dedicated to parsing API documentation, so that parsing never runs
+     * on I/O threads. It's bounded both in threads and in queued tasks
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler docParseScheduler(GatewayMeta gatewayMeta) {
+        return Schedulers.newBoundedElastic(
+                gatewayMeta.getDocParseConcurrency(),
+                gatewayMeta.getDocParseQueueCapacity(),
+                "doc-parser",
+                60,
+                true);
     }
 }
@@ -6,13 +6,17 @@ import com.example.dynamicgateway.model.endpointParameter.EndpointParameter;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.paramInitializer.ParamInitializer;
 import com.example.dynamicgateway.service.paramInitializer.ParamInitializers;
+import com.example.dynamicgateway.service.routeLocator.ApplicationRouteAggregator;
+import com.example.dynamicgateway.service.routeLocator.DynamicRouteLocator;
+import com.example.dynamicgateway.service.routeMatcher.TrieRouteMatcher;
 import com.example.dynamicgateway.service.routeProcessor.EndpointRouteAssembler;
+import com.example.dynamicgateway.service.routeProcessor.RequestRewritingGatewayFilter;
 import com.example.dynamicgateway.util.EndpointUtil;
 import com.example.dynamicgateway.util.GatewayFilterUtil;
+import com.example.dynamicgateway.util.Interner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
-import org.springframework.cloud.gateway.filter.factory.PrefixPathGatewayFilterFactory;
-import org.springframework.cloud.gateway.filter.factory.RewritePathGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory;
 import org.springframework.cloud.gateway.handler.AsyncPredicate;
 import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
@@ -23,12 +27,20 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.server.ServerWebExchange;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
 
+/**
+ * A configuration of {@link EndpointRouteAssembler}s
+ * <p>
+ * Predicates and filters that don't depend on a particular route are {@link Interner interned}, so routes
+ * with equal predicates or filters share the same instances instead of holding their own copies
+ */
 @Configuration
 public class RouteAssemblerConfig {
+    private final Interner<String, AsyncPredicate<ServerWebExchange>> pathPredicates = new Interner<>();
+    private final Interner<HttpMethod, AsyncPredicate<ServerWebExchange>> methodPredicates = new Interner<>();
+    private final Interner<GatewayFilter, GatewayFilter> requestRewritingFilters = new Interner<>();
     private final GatewayMeta gatewayMeta;
 
     public RouteAssemblerConfig(GatewayMeta gatewayMeta) {
@@ -36,6 +48,7 @@ public class RouteAssemblerConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "gateway", name = "route-lookup", havingValue = "predicate", matchIfMissing = true)
     public EndpointRouteAssembler pathPredicateRouteAssembler() {
         return (routeInConstruction, endpoint) -> {
             addPathPredicate(routeInConstruction, endpoint);
@@ -53,34 +66,45 @@ public class RouteAssemblerConfig {
      * is {@code /api/v1}, this method will add a predicate matching {@code /api/v1/example}
      */
     private void addPathPredicate(Route.AsyncBuilder routeInConstruction, DocumentedEndpoint<?> endpoint) {
-        String nonPrefixedPath = EndpointUtil.pathWithRemovedPrefix(endpoint, gatewayMeta);
-        String matchingPath = gatewayMeta.getVersionPrefix() + nonPrefixedPath;
-        AsyncPredicate<ServerWebExchange> pathPredicate = new PathRoutePredicateFactory()
-                .applyAsync(config -> config.setPatterns(List.of(matchingPath)));
+        AsyncPredicate<ServerWebExchange> pathPredicate = pathPredicates.intern(matchingPath(endpoint),
+                matchingPath -> new PathRoutePredicateFactory()
+                        .applyAsync(config -> config.setPatterns(List.of(matchingPath))));
         addPredicate(routeInConstruction, pathPredicate);
     }
 
+    private String matchingPath(DocumentedEndpoint<?> endpoint) {
+        return EndpointUtil.matchingPath(endpoint, gatewayMeta);
+    }
+
     private static void addPredicate(Route.AsyncBuilder routeInConstruction, AsyncPredicate<ServerWebExchange> predicate) {
         if (routeInConstruction.getPredicate() == null)
             routeInConstruction.asyncPredicate(predicate);
         else routeInConstruction.and(predicate);
     }
 
+    /**
+     * Returns an {@code EndpointRouteAssembler} that adds a single {@link RequestRewritingGatewayFilter}
+     * to each route. The filter removes this Gateway's {@link GatewayMeta#getVersionPrefix() version prefix},
+     * prepends the endpoint's {@link GatewayMeta#getIgnoredPrefixes() ignored prefix} (if any), and applies
+     * {@link ParamInitializer}s found for the endpoint's parameters, all in one mutation of the request
+     */
     @Bean
-    public EndpointRouteAssembler versionPrefixRemovingRouteAssembler() {
+    public EndpointRouteAssembler requestRewritingRouteAssembler(ParamInitializers paramInitializers) {
         return (routeInConstruction, endpoint) -> {
-            addVersionPrefixRemovingFilter(routeInConstruction);
-            return routeInConstruction;
+            List<ParamInitializer> endpointParamInitializers = new ArrayList<>();
+            for (EndpointParameter param : endpoint.getDetails().getParameters()) {
+                paramInitializers.findInitializerForParam(param).ifPresent(endpointParamInitializers::add);
+            }
+            GatewayFilter requestRewritingFilter = new RequestRewritingGatewayFilter(
+                    gatewayMeta.getVersionPrefix(),
+                    EndpointUtil.pathPrefix(endpoint, gatewayMeta),
+                    endpointParamInitializers);
+            GatewayFilter sharedFilter = requestRewritingFilters.intern(requestRewritingFilter,
+                    GatewayFilterUtil::wrapInOrderedGatewayFilter);
+            return routeInConstruction.filter(sharedFilter);
         };
     }
 
-    private void addVersionPrefixRemovingFilter(Route.AsyncBuilder routeInConstruction) {
-        GatewayFilter versionPrefixRemovingFilter = new RewritePathGatewayFilterFactory().apply(config -> config
-                .setRegexp(gatewayMeta.getVersionPrefix())
-                .setReplacement(""));
-        wrapAndAddFilter(routeInConstruction, versionPrefixRemovingFilter);
-    }
-
     /**
      * Wraps the filter in an {@link OrderedGatewayFilter} with the order of zero and adds the
      * resulting wrapper to the {@code Route} builder
@@ -100,27 +124,20 @@ public class RouteAssemblerConfig {
     }
 
     @Bean
-    public EndpointRouteAssembler ignoredPrefixAppendingRouteAssembler() {
+    public EndpointRouteAssembler appNameMetadataRouteAssembler() {
         return (routeInConstruction, endpoint) -> {
-            String endpointPrefix = EndpointUtil.pathPrefix(endpoint, gatewayMeta);
-            if (!endpointPrefix.isEmpty())
-                addIgnoredPrefixFilter(routeInConstruction, endpointPrefix);
-            return routeInConstruction;
+            String appName = endpoint.getDeclaringApp().getDiscoverableApp().getName();
+            return routeInConstruction.metadata(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName);
         };
     }
 
-    private static void addIgnoredPrefixFilter(Route.AsyncBuilder routeInConstruction, String endpointPrefix) {
-        GatewayFilter prefixPathFilter = new PrefixPathGatewayFilterFactory()
-                .apply(config -> config.setPrefix(endpointPrefix));
-        wrapAndAddFilter(routeInConstruction, prefixPathFilter);
-    }
-
     @Bean
     public EndpointRouteAssembler idRouteAssembler() {
-        return (routeInConstruction, endpoint) -> routeInConstruction.id(UUID.randomUUID().toString());
+        return (routeInConstruction, endpoint) -> routeInConstruction.id(EndpointUtil.routeId(endpoint));
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "gateway", name = "route-lookup", havingValue = "predicate", matchIfMissing = true)
     public EndpointRouteAssembler methodRouteAssembler() {
         return (routeInConstruction, endpoint) -> {
             addMethodPredicate(routeInConstruction, endpoint);
@@ -128,22 +145,52 @@ public class RouteAssemblerConfig {
         };
     }
 
-    private static void addMethodPredicate(Route.AsyncBuilder routeInConstruction, DocumentedEndpoint<?> endpoint) {
-        HttpMethod endpointMethod = endpoint.getDetails().getMethod();
-        AsyncPredicate<ServerWebExchange> methodPredicate = new MethodRoutePredicateFactory()
-                .applyAsync(c -> c.setMethods(endpointMethod));
+    private void addMethodPredicate(Route.AsyncBuilder routeInConstruction, DocumentedEndpoint<?> endpoint) {
+        AsyncPredicate<ServerWebExchange> methodPredicate = methodPredicates.intern(endpoint.getDetails().getMethod(),
+                endpointMethod -> new MethodRoutePredicateFactory()
+                        .applyAsync(c -> c.setMethods(endpointMethod)));
         addPredicate(routeInConstruction, methodPredicate);
     }
 
+    /**
+     * Returns an {@code EndpointRouteAssembler} that replaces both path and method predicates
+     * with a single predicate backed by the {@link TrieRouteMatcher}. The matched path is
+     * computed the same way as the one matched by a path predicate
+     *
+     * @see RouteAssemblerConfig#addPathPredicate(Route.AsyncBuilder, DocumentedEndpoint)
+     */
     @Bean
-    public EndpointRouteAssembler paramInitializingRouteAssembler(ParamInitializers paramInitializers) {
+    @ConditionalOnProperty(prefix = "gateway", name = "route-lookup", havingValue = "trie")
+    public EndpointRouteAssembler trieRoutePredicateRouteAssembler(TrieRouteMatcher trieRouteMatcher) {
         return (routeInConstruction, endpoint) -> {
-            for (EndpointParameter param : endpoint.getDetails().getParameters()) {
-                Optional<ParamInitializer> optionalParamInitializer = paramInitializers.findInitializerForParam(param);
-                optionalParamInitializer.ifPresent(
-                        paramInitializer -> paramInitializer.addInitializingFilter(routeInConstruction)
-                );
-            }
+            AsyncPredicate<ServerWebExchange> triePredicate = trieRouteMatcher.register(
+                    endpoint.getDeclaringApp().getName(),
+                    endpoint.getDetails().getMethod(),
+                    matchingPath(endpoint));
+            addPredicate(routeInConstruction, triePredicate);
+            return routeInConstruction;
+        };
+    }
+
+    /**
+     * Returns an {@code EndpointRouteAssembler} that marks each route as an entry of its application's
+     * dispatch table. The endpoint's method and matched path are stored as route metadata, and the route's
+     * predicate merely checks whether the exchange was dispatched to it. The matched path is computed
+     * the same way as the one matched by a path predicate
+     *
+     * @see ApplicationRouteAggregator
+     * @see RouteAssemblerConfig#addPathPredicate(Route.AsyncBuilder, DocumentedEndpoint)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway", name = "route-lookup", havingValue = "application")
+    public EndpointRouteAssembler dispatchEntryRouteAssembler() {
+        return (routeInConstruction, endpoint) -> {
+            routeInConstruction
+                    .metadata(ApplicationRouteAggregator.DISPATCH_METHOD_METADATA_KEY,
+                            endpoint.getDetails().getMethod().name())
+                    .metadata(ApplicationRouteAggregator.DISPATCH_PATH_METADATA_KEY, matchingPath(endpoint));
+            addPredicate(routeInConstruction,
+                    ApplicationRouteAggregator.dispatchedRoutePredicate(EndpointUtil.routeId(endpoint)));
             return routeInConstruction;
         };
     }
@@ -0,0 +1,69 @@
+package com.example.dynamicgateway.controller;
+
+import com.example.dynamicgateway.service.swaggerUiSupport.EncodedContent;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Utility class for serving {@link EncodedContent} as JSON
+ * <p>
+ * The gzip-compressed form is served to clients that accept it according to their {@code Accept-Encoding}
+ * header, the uncompressed form is served to everyone else. Either form is served with its own strong
+ * {@code ETag}, so clients revalidating with a matching {@code If-None-Match} header get
+ * {@code 304 Not Modified}
+ */
+final class EncodedContentResponses {
+    private static final String GZIP = "gzip";
+
+    private EncodedContentResponses() {
+    }
+
+    static ResponseEntity<byte[]> toResponseEntity(EncodedContent content, HttpHeaders requestHeaders) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(requestHeaders.get(HttpHeaders.ACCEPT_ENCODING))) {
+            return responseBuilder
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .eTag(content.getGzippedETag())
+                    .body(content.getGzippedBytes());
+        }
+        return responseBuilder
+                .eTag(content.getETag())
+                .body(content.getBytes());
+    }
+
+    /**
+     * Tests if gzip is explicitly listed in {@code Accept-Encoding} header values with a non-zero quality value
+     */
+    static boolean acceptsGzip(List<String> acceptEncodingValues) {
+        if (acceptEncodingValues == null) return false;
+        for (String acceptEncodingValue : acceptEncodingValues) {
+            for (String coding : acceptEncodingValue.split(",")) {
+                String[] codingParts = coding.split(";");
+                if (codingParts[0].trim().equalsIgnoreCase(GZIP)) return hasNonZeroQuality(codingParts);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNonZeroQuality(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String parameter = codingParts[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -1,22 +1,27 @@
 package com.example.dynamicgateway.controller;
 
-import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiSupport;
-import io.swagger.v3.oas.models.OpenAPI;
+import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerAppDocCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
 @RestController
 public class SwaggerDocController {
-    private final SwaggerUiSupport uiSupport;
+    private final SwaggerAppDocCache docCache;
 
-    public SwaggerDocController(SwaggerUiSupport uiSupport) {
-        this.uiSupport = uiSupport;
+    public SwaggerDocController(SwaggerAppDocCache docCache) {
+        this.docCache = docCache;
     }
 
-    @GetMapping("/doc/{application-name}")
-    public Mono<OpenAPI> getSwaggerAppDoc(@PathVariable("application-name") String applicationName) {
-        return uiSupport.getSwaggerAppDoc(applicationName);
+    @GetMapping(value = "/doc/{application-name}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getSwaggerAppDoc(@PathVariable("application-name") String applicationName,
+                                                         @RequestHeader HttpHeaders requestHeaders) {
+        return docCache.getEncodedSwaggerAppDoc(applicationName)
+                .map(encodedDoc -> EncodedContentResponses.toResponseEntity(encodedDoc, requestHeaders));
     }
 }
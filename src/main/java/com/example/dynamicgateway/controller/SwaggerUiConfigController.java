@@ -1,21 +1,27 @@
 package com.example.dynamicgateway.controller;
 
-import com.example.dynamicgateway.model.uiConfig.SwaggerUiConfig;
-import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiSupport;
+import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiConfigCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Mono;
 
 @RestController
 public class SwaggerUiConfigController {
-    private final SwaggerUiSupport uiSupport;
+    private final SwaggerUiConfigCache configCache;
 
-    public SwaggerUiConfigController(SwaggerUiSupport uiSupport) {
-        this.uiSupport = uiSupport;
+    public SwaggerUiConfigController(SwaggerUiConfigCache configCache) {
+        this.configCache = configCache;
     }
 
-    @GetMapping("/swagger-ui/config")
-    public Mono<SwaggerUiConfig> getConfig() {
-        return uiSupport.getSwaggerUiConfig();
+    /**
+     * Returns the current Swagger UI config, gzip-compressed if the client accepts it, with a strong
+     * {@code ETag}. Clients revalidating with a matching {@code If-None-Match} header get {@code 304 Not Modified}
+     */
+    @GetMapping(value = "/swagger-ui/config", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getConfig(@RequestHeader HttpHeaders requestHeaders) {
+        return EncodedContentResponses.toResponseEntity(configCache.getEncodedSwaggerUiConfig(), requestHeaders);
     }
 }
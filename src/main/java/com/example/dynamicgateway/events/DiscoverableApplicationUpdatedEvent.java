@@ -0,0 +1,17 @@
+package com.example.dynamicgateway.events;
+
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+
+/**
+ * A {@link DiscoverableApplicationEvent} indicating that a previously discovered application
+ * has changed, for example, because it was redeployed
+ */
+public class DiscoverableApplicationUpdatedEvent extends DiscoverableApplicationEvent {
+    public DiscoverableApplicationUpdatedEvent(DiscoverableApplication<?> updatedApp, Object source) {
+        super(updatedApp, source);
+    }
+
+    public DiscoverableApplication<?> getUpdatedApp() {
+        return app;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.dynamicgateway.events;
+
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * An {@link ApplicationEvent} concerning a {@link DocumentedApplication}
+ */
+public abstract class DocumentedApplicationEvent extends ApplicationEvent {
+    protected final DocumentedApplication<?> app;
+    public DocumentedApplicationEvent(DocumentedApplication<?> app, Object source) {
+        super(source);
+        this.app = app;
+    }
+}
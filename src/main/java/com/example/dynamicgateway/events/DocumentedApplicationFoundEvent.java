@@ -0,0 +1,33 @@
+package com.example.dynamicgateway.events;
+
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+
+import java.util.List;
+
+/**
+ * A {@link DocumentedApplicationEvent} indicating a collection of new {@link DocumentedEndpoint}s
+ * declared by a {@link DocumentedApplication}. It carries all such endpoints at once so that
+ * they can be processed as a single batch
+ */
+public class DocumentedApplicationFoundEvent extends DocumentedApplicationEvent {
+    private final List<? extends DocumentedEndpoint<?>> foundEndpoints;
+
+    public DocumentedApplicationFoundEvent(DocumentedApplication<?> foundApp,
+                                           List<? extends DocumentedEndpoint<?>> foundEndpoints,
+                                           Object source) {
+        super(foundApp, source);
+        this.foundEndpoints = List.copyOf(foundEndpoints);
+    }
+
+    public DocumentedApplication<?> getFoundApp() {
+        return app;
+    }
+
+    /**
+     * Returns an unmodifiable {@code List} of newly collected endpoints of the found application
+     */
+    public List<? extends DocumentedEndpoint<?>> getFoundEndpoints() {
+        return foundEndpoints;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dynamicgateway.events;
+
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+
+import java.util.List;
+
+/**
+ * A {@link DocumentedApplicationEvent} indicating that the collection of {@link DocumentedEndpoint}s
+ * declared by a {@link DocumentedApplication} has changed. It carries all endpoints of the application
+ * that are collected after the change, so that the receiver could diff them against its own state
+ */
+public class DocumentedApplicationUpdatedEvent extends DocumentedApplicationEvent {
+    private final List<? extends DocumentedEndpoint<?>> endpoints;
+
+    public DocumentedApplicationUpdatedEvent(DocumentedApplication<?> updatedApp,
+                                             List<? extends DocumentedEndpoint<?>> endpoints,
+                                             Object source) {
+        super(updatedApp, source);
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    public DocumentedApplication<?> getUpdatedApp() {
+        return app;
+    }
+
+    /**
+     * Returns an unmodifiable {@code List} of all currently collected endpoints of the updated application
+     */
+    public List<? extends DocumentedEndpoint<?>> getEndpoints() {
+        return endpoints;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dynamicgateway.events;
+
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * An {@link ApplicationEvent} indicating that all {@link DocumentedEndpoint}s of a
+ * {@link DiscoverableApplicationLostEvent lost} application were evicted
+ * <p>
+ * Unlike {@link DiscoverableApplicationLostEvent}, this event is published only after all work
+ * previously started for the same application is complete, so nothing built after the application's
+ * endpoints may be added once it's received. The event is published even if no endpoints were evicted
+ */
+public class DocumentedEndpointsEvictedEvent extends ApplicationEvent {
+    private final String appName;
+    private final List<? extends DocumentedEndpoint<?>> evictedEndpoints;
+
+    public DocumentedEndpointsEvictedEvent(String appName,
+                                           List<? extends DocumentedEndpoint<?>> evictedEndpoints,
+                                           Object source) {
+        super(source);
+        this.appName = appName;
+        this.evictedEndpoints = List.copyOf(evictedEndpoints);
+    }
+
+    /**
+     * Returns the {@link DiscoverableApplication#getName() name} of the lost application
+     */
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * Returns an unmodifiable {@code List} of evicted endpoints
+     */
+    public List<? extends DocumentedEndpoint<?>> getEvictedEndpoints() {
+        return evictedEndpoints;
+    }
+}
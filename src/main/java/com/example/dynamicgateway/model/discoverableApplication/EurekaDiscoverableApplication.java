@@ -1,16 +1,26 @@
 package com.example.dynamicgateway.model.discoverableApplication;
 
 import com.example.dynamicgateway.config.annotation.ExcludeFromJacocoGeneratedReport;
+import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.shared.Application;
 import org.springframework.lang.NonNull;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * A {@link DiscoverableApplication} that wraps a Eureka-registered {@link Application}
+ * <p>
+ * Two {@code EurekaDiscoverableApplication}s are equal if they have the same name. Changes of
+ * the wrapped application's instances are tracked separately by its {@link #getRevision() revision}
  */
 public class EurekaDiscoverableApplication implements DiscoverableApplication<Application> {
     public static final String LB_SCHEME = "lb://";
+    /**
+     * Key of the instance metadata entry that may hold a hash of the API documentation served by the instance
+     */
+    public static final String DOC_HASH_METADATA_KEY = "doc-hash";
     private final Application eurekaApplication;
 
     public EurekaDiscoverableApplication(@NonNull Application eurekaApplication) {
@@ -33,6 +43,24 @@ public class EurekaDiscoverableApplication implements DiscoverableApplication<Ap
         return eurekaApplication;
     }
 
+    /**
+     * Returns a fingerprint of the wrapped application's instances. It changes whenever an instance
+     * is registered or deregistered, an instance's {@link InstanceInfo#getLastUpdatedTimestamp() last updated
+     * timestamp} changes, or an instance publishes a new {@link #DOC_HASH_METADATA_KEY doc hash}
+     */
+    public String getRevision() {
+        return eurekaApplication.getInstances().stream()
+                .map(EurekaDiscoverableApplication::toInstanceRevision)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static String toInstanceRevision(InstanceInfo instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        String docHash = (metadata == null) ? "" : metadata.getOrDefault(DOC_HASH_METADATA_KEY, "");
+        return instance.getId() + "@" + instance.getLastUpdatedTimestamp() + "#" + docHash;
+    }
+
     public static EurekaDiscoverableApplication from(Application application) {
         return new EurekaDiscoverableApplication(application);
     }
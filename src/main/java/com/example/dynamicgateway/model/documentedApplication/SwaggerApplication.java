@@ -3,6 +3,8 @@ package com.example.dynamicgateway.model.documentedApplication;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
 import com.example.dynamicgateway.model.endpointDetails.SwaggerEndpointDetails;
+import com.example.dynamicgateway.service.swaggerDocParser.DeferredSwaggerParseResult;
+import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
@@ -17,6 +19,9 @@ import java.util.stream.Stream;
 
 /**
  * A {@link DocumentedApplication} that exposes its API by means of Swagger (Open API)
+ * <p>
+ * If the parse result is a {@link DeferredSwaggerParseResult}, the description and endpoints are extracted
+ * from its endpoint skeleton, so the full {@code OpenAPI} isn't parsed
  */
 public class SwaggerApplication implements DocumentedApplication<SwaggerParseResult> {
     public static final String V3_DOC_PATH = "/v3/api-docs";
@@ -35,12 +40,18 @@ public class SwaggerApplication implements DocumentedApplication<SwaggerParseRes
         this.endpoints = extractEndpoints(parseResult);
     }
 
+    private static OpenAPI routingViewOf(SwaggerParseResult parseResult) {
+        return (parseResult instanceof DeferredSwaggerParseResult deferredParseResult) ?
+                deferredParseResult.getEndpointSkeleton() :
+                parseResult.getOpenAPI();
+    }
+
     private String extractDescription(SwaggerParseResult parseResult) {
-        return parseResult.getOpenAPI().getInfo().getDescription();
+        return routingViewOf(parseResult).getInfo().getDescription();
     }
 
     private List<SwaggerEndpoint> extractEndpoints(SwaggerParseResult parseResult) {
-        return parseResult.getOpenAPI()
+        return routingViewOf(parseResult)
                 .getPaths()
                 .entrySet()
                 .stream()
@@ -7,10 +7,13 @@ import lombok.Setter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -39,6 +42,60 @@ public class GatewayMeta {
     @Setter
     @Getter
     private Duration timeout = Duration.ofSeconds(5);
+    @Setter
+    @Getter
+    private RouteLookup routeLookup = RouteLookup.PREDICATE;
+    @Setter
+    @Getter
+    private Duration refreshDelay = Duration.ofMillis(50);
+    @Setter
+    @Getter
+    private Duration discoveryQuietWindow = Duration.ofSeconds(1);
+    @Setter
+    @Getter
+    private Duration discoveryMaxDelay = Duration.ofSeconds(5);
+    @Setter
+    @Getter
+    private int discoveryConcurrency = 8;
+    @Setter
+    @Getter
+    private int discoveryQueueCapacity = 1024;
+    @Setter
+    @Getter
+    private int docFetchConcurrency = 4;
+    @Setter
+    @Getter
+    private Duration docFetchTimeout = Duration.ofSeconds(10);
+    @Setter
+    @Getter
+    private int docFetchRetries = 3;
+    @Setter
+    @Getter
+    private Duration docFetchBackoff = Duration.ofMillis(500);
+    @Setter
+    @Getter
+    private DataSize docMaxSize = DataSize.ofMegabytes(10);
+    @Setter
+    @Getter
+    private Map<String, DataSize> docMaxSizeOverrides = Map.of();
+    @Setter
+    @Getter
+    private int docParseConcurrency = 2;
+    @Setter
+    @Getter
+    private int docParseQueueCapacity = 64;
+    @Setter
+    @Getter
+    private Duration docRevalidationInterval = Duration.ofMinutes(5);
+    @Setter
+    @Getter
+    private int docRevalidationConcurrency = 2;
+    @Setter
+    @Getter
+    private Path snapshotPath;
+    @Setter
+    @Getter
+    private Duration snapshotReconcileTimeout = Duration.ofMinutes(1);
 
     @PostConstruct
     private void init() {
@@ -49,4 +106,23 @@ public class GatewayMeta {
             servers = List.of(defaultServer);
         }
     }
+
+    /**
+     * A strategy of matching requests against routes
+     */
+    public enum RouteLookup {
+        /**
+         * Each route matches requests with its own path and method predicates
+         */
+        PREDICATE,
+        /**
+         * Routes match requests by looking them up in a shared segment trie
+         */
+        TRIE,
+        /**
+         * Each application is served by a single route that dispatches requests to its endpoints
+         * with a per-application table of method-path template pairs
+         */
+        APPLICATION
+    }
 }
@@ -2,45 +2,89 @@ package com.example.dynamicgateway.service.applicationCollector;
 
 import com.example.dynamicgateway.events.DiscoverableApplicationFoundEvent;
 import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
+import com.example.dynamicgateway.events.DiscoverableApplicationUpdatedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.sieve.DiscoverableApplicationSieve;
+import com.example.dynamicgateway.util.Debouncer;
 import com.netflix.discovery.CacheRefreshedEvent;
 import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * {@link ApplicationCollector} that relies on Netflix Eureka as its discovery service
+ * <p>
+ * Each refresh of Eureka's local cache is compared with the previous one by the
+ * {@link Applications#getAppsHashCode() applications hash code} and the names of registered applications.
+ * If neither has changed, the membership diff is skipped. Otherwise, registered applications are diffed against
+ * the collected ones using hash sets. The names are compared since the hash code stays the same when
+ * an application is replaced with another one that has as many instances of each status
+ * <p>
+ * Since the hash code only reflects counts of instances by status, a redeployment may leave it intact.
+ * That's why each refresh also compares {@link EurekaDiscoverableApplication#getRevision() revisions}
+ * of collected applications and publishes a {@link DiscoverableApplicationUpdatedEvent} for each changed one
+ * <p>
+ * Eureka's {@link CacheRefreshedEvent}s are {@link Debouncer debounced} with the {@link GatewayMeta#getDiscoveryQuietWindow()
+ * quiet window} and the {@link GatewayMeta#getDiscoveryMaxDelay() maximum delay} before they are relayed via Spring's
+ * {@link ApplicationEventPublisher}. As a result, bursts of refreshes collapse into a single pass, and the pass,
+ * along with every listener of the events it publishes, runs on this collector's own thread rather than on
+ * Eureka's cache refresh thread
  */
 @Slf4j
 @Component
 public class EurekaApplicationCollector implements ApplicationCollector {
     private final EurekaClient eurekaClient;
     private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler refreshScheduler = Schedulers.newSingle("eureka-app-collector", true);
     private final Set<EurekaDiscoverableApplication> discoveredApplications = ConcurrentHashMap.newKeySet();
     private final List<DiscoverableApplicationSieve> applicationSieves;
+    private final Map<String, String> revisionsByAppName = new HashMap<>();
+    private String lastAppsHashCode;
+    private Set<String> lastRegisteredAppNames = Collections.emptySet();
 
     public EurekaApplicationCollector(EurekaClient eurekaClient,
                                       List<DiscoverableApplicationSieve> applicationSieves,
-                                      ApplicationEventPublisher publisher) {
+                                      ApplicationEventPublisher publisher,
+                                      GatewayMeta gatewayMeta) {
         this.applicationSieves = applicationSieves;
         this.eventPublisher = publisher;
         this.eurekaClient = eurekaClient;
+        Debouncer<CacheRefreshedEvent> cacheRefreshDebouncer = new Debouncer<>(
+                publisher::publishEvent,
+                gatewayMeta.getDiscoveryQuietWindow(),
+                gatewayMeta.getDiscoveryMaxDelay(),
+                refreshScheduler);
         this.eurekaClient.registerEventListener(event -> {
             if (event instanceof CacheRefreshedEvent cacheRefreshedEvent) {
-                publisher.publishEvent(cacheRefreshedEvent);
+                cacheRefreshDebouncer.signal(cacheRefreshedEvent);
             }
         });
     }
 
+    @PreDestroy
+    private void disposeRefreshScheduler() {
+        refreshScheduler.dispose();
+    }
+
     @Override
     public Set<EurekaDiscoverableApplication> getCollectedApplications() {
         return Set.copyOf(discoveredApplications);
@@ -56,14 +100,31 @@ public class EurekaApplicationCollector implements ApplicationCollector {
         refreshAppCache();
     }
 
-    private void refreshAppCache() {
-        List<EurekaDiscoverableApplication> retainedCachedApps = eurekaClient
-                .getApplications()
+    private synchronized void refreshAppCache() {
+        Applications applications = eurekaClient.getApplications();
+        String appsHashCode = applications.getAppsHashCode();
+        Set<String> registeredAppNames = applications.getRegisteredApplications()
+                .stream()
+                .map(Application::getName)
+                .collect(Collectors.toUnmodifiableSet());
+        if (appsHashCode != null && appsHashCode.equals(lastAppsHashCode)
+                && registeredAppNames.equals(lastRegisteredAppNames)) {
+            log.debug("Eureka applications are unchanged (hash code: {}), skipping membership diff", appsHashCode);
+        } else {
+            diffApplications(applications);
+            lastAppsHashCode = appsHashCode;
+            lastRegisteredAppNames = registeredAppNames;
+        }
+        detectUpdatedApplications(applications);
+    }
+
+    private void diffApplications(Applications applications) {
+        Set<EurekaDiscoverableApplication> retainedCachedApps = applications
                 .getRegisteredApplications()
                 .stream()
                 .map(EurekaDiscoverableApplication::from)
                 .filter(this::passesThroughSieves)
-                .toList();
+                .collect(Collectors.toCollection(HashSet::new));
 
         for (EurekaDiscoverableApplication app : retainedCachedApps) {
             if (!discoveredApplications.contains(app)) {
@@ -78,6 +139,7 @@ public class EurekaApplicationCollector implements ApplicationCollector {
             EurekaDiscoverableApplication app = iterator.next();
             if (!retainedCachedApps.contains(app)) {
                 iterator.remove();
+                revisionsByAppName.remove(app.getName());
                 log.warn("Service lost: {}", app.getName());
                 DiscoverableApplicationLostEvent event = new DiscoverableApplicationLostEvent(app, this);
                 eventPublisher.publishEvent(event);
@@ -85,6 +147,27 @@ public class EurekaApplicationCollector implements ApplicationCollector {
         }
     }
 
+    /**
+     * Compares {@link EurekaDiscoverableApplication#getRevision() revisions} of collected applications
+     * with the ones recorded at the previous refresh and publishes a {@link DiscoverableApplicationUpdatedEvent}
+     * for each application whose revision changed. A newly collected application merely gets its
+     * revision recorded
+     */
+    private void detectUpdatedApplications(Applications applications) {
+        for (EurekaDiscoverableApplication app : discoveredApplications) {
+            Application registeredApp = applications.getRegisteredApplications(app.getName());
+            if (registeredApp == null) continue;
+            EurekaDiscoverableApplication currentApp = EurekaDiscoverableApplication.from(registeredApp);
+            String revision = currentApp.getRevision();
+            String previousRevision = revisionsByAppName.put(app.getName(), revision);
+            if (previousRevision != null && !previousRevision.equals(revision)) {
+                log.info("Service updated: {}", app.getName());
+                DiscoverableApplicationUpdatedEvent event = new DiscoverableApplicationUpdatedEvent(currentApp, this);
+                eventPublisher.publishEvent(event);
+            }
+        }
+    }
+
     private boolean passesThroughSieves(EurekaDiscoverableApplication app) {
         return applicationSieves.stream().allMatch(sieve -> sieve.isAllowed(app));
     }
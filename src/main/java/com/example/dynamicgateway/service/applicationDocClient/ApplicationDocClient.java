@@ -14,4 +14,17 @@ public interface ApplicationDocClient<D> {
      * @param application queried application
      */
     Mono<D> findApplicationDoc(DiscoverableApplication<?> application);
+
+    /**
+     * Returns a {@code Mono} of documentation object if the documentation has changed since
+     * it was last found by this client. If it hasn't, an empty {@code Mono} is returned
+     * <p>
+     * The default implementation can't tell whether the documentation has changed and
+     * always delegates to {@link #findApplicationDoc(DiscoverableApplication)}
+     *
+     * @param application queried application
+     */
+    default Mono<D> findChangedApplicationDoc(DiscoverableApplication<?> application) {
+        return findApplicationDoc(application);
+    }
 }
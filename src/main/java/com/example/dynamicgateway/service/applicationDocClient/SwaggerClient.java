@@ -1,40 +1,133 @@
 package com.example.dynamicgateway.service.applicationDocClient;
 
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
 import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
 import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
 import com.example.dynamicgateway.service.swaggerDocParser.SwaggerOpenApiParser;
+import com.example.dynamicgateway.util.ConcurrencyLimiter;
 import com.example.dynamicgateway.util.UriValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * An {@link ApplicationDocClient} implementation for finding Swagger (Open API) documentation
  * potentially exposed by {@link DiscoverableApplication}s
+ * <p>
+ * The client remembers the {@code ETag} and {@code Last-Modified} validators, a content hash, and the parsed
+ * documentation of the last response of each application. Subsequent requests are conditional. If the server
+ * answers with {@code 304 Not Modified}, or the hash of the new response body equals the remembered one,
+ * the remembered documentation is reused, and the body isn't parsed again. What is remembered of an application
+ * is forgotten once its endpoints are {@link DocumentedEndpointsEvictedEvent evicted}
+ * <p>
+ * No more than {@link Builder#setMaxConcurrentFetches(int) max concurrent fetches} requests are in flight
+ * at a time, the rest wait for their turn in a queue, so a burst of found applications doesn't flood the network.
+ * Each request is limited by the {@link Builder#setFetchTimeout(Duration) fetch timeout}. Requests that fail with
+ * a {@code 5xx} status, a connection error, or a timeout are retried up to {@link Builder#setMaxFetchRetries(int)
+ * max fetch retries} times with exponential backoff and jitter, starting from the {@link Builder#setMinRetryBackoff(Duration)
+ * min retry backoff}. A retried request waits for its turn again
+ * <p>
+ * Response bodies are hashed and parsed on the {@link Builder#setParseScheduler(Scheduler) parse scheduler}
+ * rather than on the thread that received the response, which is typically an I/O thread shared with proxied
+ * traffic. If the scheduler rejects the work because its queue is full, only the parsing is retried with the same
+ * backoff and number of retries as requests, and the fetched body isn't requested again. The number of documents
+ * waiting for or undergoing parsing, the parse time, and the number of rejections are reported as the
+ * {@value PENDING_PARSES_METRIC}, {@value PARSE_TIME_METRIC}, and {@value REJECTED_PARSES_METRIC} metrics
+ * <p>
+ * A response body is read up to the {@link Builder#setMaxDocSize(DataSize) max doc size}, which may be
+ * {@link Builder#setMaxDocSizeOverrides(Map) overridden} for specific applications, whose names are matched
+ * ignoring case. Once the limit is exceeded, the request is aborted. Bytes read are counted per application
+ * in the {@value FETCHED_BYTES_METRIC} metric
  */
 @Getter
 @Slf4j
 public class SwaggerClient implements ApplicationDocClient<SwaggerParseResult> {
+    public static final String PENDING_PARSES_METRIC = "gateway.doc.parse.pending";
+    public static final String PARSE_TIME_METRIC = "gateway.doc.parse";
+    public static final String REJECTED_PARSES_METRIC = "gateway.doc.parse.rejected";
+    public static final String FETCHED_BYTES_METRIC = "gateway.doc.fetch.bytes";
     private final String scheme;
     private final String docPath;
     private final WebClient webClient;
     private final OpenApiParser<SwaggerParseResult> parser;
+    private final Duration fetchTimeout;
+    private final int maxFetchRetries;
+    private final Duration minRetryBackoff;
+    private final Scheduler parseScheduler;
+    private final DataSize maxDocSize;
+    private final Map<String, DataSize> maxDocSizeOverrides;
+    @Getter(AccessLevel.NONE)
+    private final MeterRegistry meterRegistry;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger pendingParseCount = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final Timer parseTimer;
+    @Getter(AccessLevel.NONE)
+    private final Counter rejectedParseCounter;
+    @Getter(AccessLevel.NONE)
+    private final ConcurrencyLimiter fetchLimiter;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, CachedDoc> cachedDocsByAppName = new ConcurrentHashMap<>();
 
     SwaggerClient(Builder builder) {
         this.scheme = builder.getScheme();
         this.docPath = builder.getDocPath();
         this.webClient = builder.getWebClient();
         this.parser = builder.getParser();
+        this.fetchTimeout = builder.getFetchTimeout();
+        this.maxFetchRetries = builder.getMaxFetchRetries();
+        this.minRetryBackoff = builder.getMinRetryBackoff();
+        this.fetchLimiter = new ConcurrencyLimiter(builder.getMaxConcurrentFetches());
+        this.parseScheduler = builder.getParseScheduler();
+        this.maxDocSize = builder.getMaxDocSize();
+        this.maxDocSizeOverrides = builder.getMaxDocSizeOverrides();
+        this.meterRegistry = builder.getMeterRegistry();
+        meterRegistry.gauge(PENDING_PARSES_METRIC, pendingParseCount);
+        this.parseTimer = Timer.builder(PARSE_TIME_METRIC).register(meterRegistry);
+        this.rejectedParseCounter = Counter.builder(REJECTED_PARSES_METRIC).register(meterRegistry);
     }
 
     /**
@@ -50,17 +143,136 @@ public class SwaggerClient implements ApplicationDocClient<SwaggerParseResult> {
 
     @Override
     public Mono<SwaggerParseResult> findApplicationDoc(DiscoverableApplication<?> application) {
-        return webClient
-                .get()
-                .uri(scheme + application.getName() + docPath)
-                .retrieve()
-                .bodyToMono(String.class)
+        return fetchDoc(application)
+                .map(FetchedDoc::getDoc);
+    }
+
+    /**
+     * Returns a {@code Mono} of parsed documentation unless the server answered with {@code 304 Not Modified},
+     * or the response body has the same content hash as the last one. In the latter cases, an empty
+     * {@code Mono} is returned
+     */
+    @Override
+    public Mono<SwaggerParseResult> findChangedApplicationDoc(DiscoverableApplication<?> application) {
+        return fetchDoc(application)
+                .filter(FetchedDoc::isChanged)
+                .map(FetchedDoc::getDoc);
+    }
+
+    @EventListener
+    public void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        cachedDocsByAppName.remove(event.getAppName());
+    }
+
+    private Mono<FetchedDoc> fetchDoc(DiscoverableApplication<?> application) {
+        String appName = application.getName();
+        return Mono.defer(() -> {
+                    CachedDoc cachedDoc = cachedDocsByAppName.get(appName);
+                    Mono<ResponseEntity<String>> response = webClient
+                            .get()
+                            .uri(scheme + appName + docPath)
+                            .headers(headers -> addValidators(headers, cachedDoc))
+                            .retrieve()
+                            .toEntityFlux(DataBuffer.class)
+                            .flatMap(entity -> readBody(appName, entity))
+                            .timeout(fetchTimeout);
+                    return fetchLimiter.limit(response)
+                            .flatMap(entity -> parseOnParseScheduler(appName, cachedDoc, entity));
+                })
+                .retryWhen(Retry.backoff(maxFetchRetries, minRetryBackoff)
+                        .filter(SwaggerClient::isTransientFailure)
+                        .doBeforeRetry(signal -> log.warn("Retrying doc fetch of {} after failure #{}: {}",
+                                appName, signal.totalRetries() + 1, signal.failure().toString()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
                 .onErrorResume(WebClientResponseException.NotFound.class,
-                        handle404NotFound(application))
-                .map(parser::parse);
+                        handle404NotFound(application));
+    }
+
+    private Mono<ResponseEntity<String>> readBody(String appName, ResponseEntity<Flux<DataBuffer>> response) {
+        DataSize maxSize = maxDocSizeOverrides.getOrDefault(appName, maxDocSize);
+        Counter fetchedBytesCounter = Counter.builder(FETCHED_BYTES_METRIC)
+                .tag("app", appName)
+                .register(meterRegistry);
+        Flux<DataBuffer> body = (response.getBody() == null) ? Flux.empty() : response.getBody();
+        Charset charset = Optional.ofNullable(response.getHeaders().getContentType())
+                .map(MediaType::getCharset)
+                .orElse(StandardCharsets.UTF_8);
+        return DataBufferUtils.join(
+                        body.doOnNext(buffer -> fetchedBytesCounter.increment(buffer.readableByteCount())),
+                        (int) Math.min(maxSize.toBytes(), Integer.MAX_VALUE))
+                .map(buffer -> {
+                    try {
+                        return buffer.toString(charset);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .map(serializedDoc -> new ResponseEntity<>(serializedDoc, response.getHeaders(), response.getStatusCode()))
+                .defaultIfEmpty(new ResponseEntity<>(response.getHeaders(), response.getStatusCode()))
+                .doOnError(DataBufferLimitException.class, e ->
+                        log.warn("Doc of {} exceeds the limit of {} and was discarded", appName, maxSize));
+    }
+
+    private Mono<FetchedDoc> parseOnParseScheduler(String appName, CachedDoc cachedDoc, ResponseEntity<String> response) {
+        pendingParseCount.incrementAndGet();
+        return Mono.fromCallable(() -> toFetchedDoc(appName, cachedDoc, response))
+                .subscribeOn(parseScheduler)
+                .doOnError(RejectedExecutionException.class, e -> {
+                    log.warn("Parse queue is full, doc of {} was rejected", appName);
+                    rejectedParseCounter.increment();
+                })
+                .retryWhen(Retry.backoff(maxFetchRetries, minRetryBackoff)
+                        .filter(RejectedExecutionException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doFinally(signalType -> pendingParseCount.decrementAndGet());
+    }
+
+    private static boolean isTransientFailure(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return throwable instanceof WebClientRequestException ||
+                throwable instanceof TimeoutException;
+    }
+
+    private static void addValidators(HttpHeaders headers, CachedDoc cachedDoc) {
+        if (cachedDoc == null) return;
+        if (cachedDoc.eTag != null) headers.setIfNoneMatch(cachedDoc.eTag);
+        if (cachedDoc.lastModified != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, cachedDoc.lastModified);
+    }
+
+    private FetchedDoc toFetchedDoc(String appName, CachedDoc cachedDoc, ResponseEntity<String> response) {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            if (cachedDoc == null) return null;
+            log.debug("Doc of {} is not modified", appName);
+            return new FetchedDoc(cachedDoc.doc, false);
+        }
+        String serializedDoc = response.getBody();
+        if (serializedDoc == null) return null;
+        String contentHash = hash(serializedDoc);
+        String eTag = response.getHeaders().getETag();
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (cachedDoc != null && cachedDoc.contentHash.equals(contentHash)) {
+            log.debug("Doc of {} has the same content hash, skipping parsing", appName);
+            cachedDocsByAppName.put(appName, new CachedDoc(eTag, lastModified, contentHash, cachedDoc.doc));
+            return new FetchedDoc(cachedDoc.doc, false);
+        }
+        SwaggerParseResult doc = parseTimer.record(() -> parser.parse(serializedDoc));
+        cachedDocsByAppName.put(appName, new CachedDoc(eTag, lastModified, contentHash, doc));
+        return new FetchedDoc(doc, true);
+    }
+
+    private static String hash(String serializedDoc) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(serializedDoc.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private Function<WebClientResponseException.NotFound, Mono<? extends String>> handle404NotFound(DiscoverableApplication<?> application) {
+    private <T> Function<WebClientResponseException.NotFound, Mono<T>> handle404NotFound(DiscoverableApplication<?> application) {
         return ex -> {
             log.warn(MessageFormat.format("""
                     Could not find doc for {0}. If it''s not expected, make sure \
@@ -71,6 +283,31 @@ public class SwaggerClient implements ApplicationDocClient<SwaggerParseResult> {
         };
     }
 
+    private static final class CachedDoc {
+        private final String eTag;
+        private final String lastModified;
+        private final String contentHash;
+        private final SwaggerParseResult doc;
+
+        private CachedDoc(String eTag, String lastModified, String contentHash, SwaggerParseResult doc) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.doc = doc;
+        }
+    }
+
+    @Getter
+    private static final class FetchedDoc {
+        private final SwaggerParseResult doc;
+        private final boolean isChanged;
+
+        private FetchedDoc(SwaggerParseResult doc, boolean isChanged) {
+            this.doc = doc;
+            this.isChanged = isChanged;
+        }
+    }
+
     public static class Builder {
         @Getter
         private String scheme = EurekaDiscoverableApplication.LB_SCHEME;
@@ -78,6 +315,22 @@ public class SwaggerClient implements ApplicationDocClient<SwaggerParseResult> {
         private String docPath = SwaggerApplication.V3_DOC_PATH;
         @Getter
         private OpenApiParser<SwaggerParseResult> parser = new SwaggerOpenApiParser();
+        @Getter
+        private int maxConcurrentFetches = 4;
+        @Getter
+        private Duration fetchTimeout = Duration.ofSeconds(10);
+        @Getter
+        private int maxFetchRetries = 3;
+        @Getter
+        private Duration minRetryBackoff = Duration.ofMillis(500);
+        @Getter
+        private Scheduler parseScheduler = Schedulers.boundedElastic();
+        @Getter
+        private MeterRegistry meterRegistry = Metrics.globalRegistry;
+        @Getter
+        private DataSize maxDocSize = DataSize.ofMegabytes(10);
+        @Getter
+        private Map<String, DataSize> maxDocSizeOverrides = Map.of();
         private final WebClient resolvingWebClient;
 
         private Builder(@NonNull WebClient resolvingWebClient) {
@@ -127,6 +380,141 @@ public class SwaggerClient implements ApplicationDocClient<SwaggerParseResult> {
             return this;
         }
 
+        /**
+         * Sets the maximum number of doc requests that may be in flight at the same time.
+         * If the method is not invoked, the number defaults to 4
+         *
+         * @return this {@code Builder}
+         * @throws IllegalArgumentException if the passed number is not positive
+         */
+        public Builder setMaxConcurrentFetches(int maxConcurrentFetches) {
+            if (maxConcurrentFetches < 1) {
+                throw new IllegalArgumentException("Max concurrent fetches should be positive");
+            }
+            this.maxConcurrentFetches = maxConcurrentFetches;
+            return this;
+        }
+
+        /**
+         * Sets the timeout of a single doc request.
+         * If the method is not invoked, the timeout defaults to ten seconds
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException     if the passed timeout is {@code null}
+         * @throws IllegalArgumentException if the passed timeout is not positive
+         */
+        public Builder setFetchTimeout(@NonNull Duration fetchTimeout) {
+            Objects.requireNonNull(fetchTimeout, "Fetch timeout cannot be null");
+            if (fetchTimeout.isNegative() || fetchTimeout.isZero()) {
+                throw new IllegalArgumentException("Fetch timeout should be positive");
+            }
+            this.fetchTimeout = fetchTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of retries of a doc request that failed with a transient error.
+         * If the method is not invoked, the number defaults to 3
+         *
+         * @return this {@code Builder}
+         * @throws IllegalArgumentException if the passed number is negative
+         */
+        public Builder setMaxFetchRetries(int maxFetchRetries) {
+            if (maxFetchRetries < 0) {
+                throw new IllegalArgumentException("Max fetch retries cannot be negative");
+            }
+            this.maxFetchRetries = maxFetchRetries;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry of a doc request. Each subsequent backoff is twice as long,
+         * give or take the jitter. If the method is not invoked, the backoff defaults to 500 milliseconds
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException     if the passed backoff is {@code null}
+         * @throws IllegalArgumentException if the passed backoff is negative
+         */
+        public Builder setMinRetryBackoff(@NonNull Duration minRetryBackoff) {
+            Objects.requireNonNull(minRetryBackoff, "Min retry backoff cannot be null");
+            if (minRetryBackoff.isNegative()) {
+                throw new IllegalArgumentException("Min retry backoff cannot be negative");
+            }
+            this.minRetryBackoff = minRetryBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Scheduler} that hashes and parses response bodies. The scheduler should be bounded
+         * both in threads and in queued tasks. If the method is not invoked, the scheduler defaults to
+         * {@link Schedulers#boundedElastic()}
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException if the provided scheduler is {@code null}
+         */
+        public Builder setParseScheduler(@NonNull Scheduler parseScheduler) {
+            Objects.requireNonNull(parseScheduler, "Parse scheduler cannot be null");
+            this.parseScheduler = parseScheduler;
+            return this;
+        }
+
+        /**
+         * Sets the {@link MeterRegistry} parse metrics are registered in.
+         * If the method is not invoked, the registry defaults to {@link Metrics#globalRegistry}
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException if the provided registry is {@code null}
+         */
+        public Builder setMeterRegistry(@NonNull MeterRegistry meterRegistry) {
+            Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of an application's documentation. A response body is read no further than the
+         * limit, after which the request fails with a {@link DataBufferLimitException} and isn't retried. If the
+         * method is not invoked, the maximum size defaults to 10 megabytes
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException     if the provided size is {@code null}
+         * @throws IllegalArgumentException if the provided size is not positive
+         */
+        public Builder setMaxDocSize(@NonNull DataSize maxDocSize) {
+            this.maxDocSize = requirePositive(maxDocSize);
+            return this;
+        }
+
+        /**
+         * Sets maximum documentation sizes for specific applications, keyed by application names. Names are
+         * matched ignoring case, since discovery services such as Eureka may report them in upper case. Applications
+         * not present in the map are subject to the {@link #setMaxDocSize(DataSize) common maximum size}.
+         * If the method is not invoked, there are no overrides
+         *
+         * @return this {@code Builder}
+         * @throws NullPointerException     if the provided map or any of its keys or values is {@code null}
+         * @throws IllegalArgumentException if any of the provided sizes is not positive, or the map has
+         *                                  keys that differ only in case
+         */
+        public Builder setMaxDocSizeOverrides(@NonNull Map<String, DataSize> maxDocSizeOverrides) {
+            maxDocSizeOverrides.values().forEach(Builder::requirePositive);
+            Map<String, DataSize> caseInsensitiveOverrides = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            caseInsensitiveOverrides.putAll(maxDocSizeOverrides);
+            if (caseInsensitiveOverrides.size() != maxDocSizeOverrides.size()) {
+                throw new IllegalArgumentException("Max doc size overrides have application names that differ only in case");
+            }
+            this.maxDocSizeOverrides = Collections.unmodifiableMap(caseInsensitiveOverrides);
+            return this;
+        }
+
+        private static DataSize requirePositive(DataSize size) {
+            Objects.requireNonNull(size, "Max doc size cannot be null");
+            if (size.isNegative() || size.toBytes() == 0) {
+                throw new IllegalArgumentException("Max doc size should be positive, was " + size);
+            }
+            return size;
+        }
+
         public WebClient getWebClient() {
             return resolvingWebClient;
         }
@@ -0,0 +1,164 @@
+package com.example.dynamicgateway.service.discoveryPipeline;
+
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A reactive pipeline of discovery work keyed by application name
+ * <p>
+ * Every submitted task is assigned to one of {@link GatewayMeta#getDiscoveryConcurrency() concurrency} lanes
+ * by its application's name. Each lane has its own queue and runs its tasks one after another, so work concerning
+ * one application is always done in submission order: an eviction of a lost application can't overtake a doc fetch
+ * started before it. Different lanes run in parallel, and a lane stuck on a slow task doesn't hold back the others
+ * <p>
+ * At most {@link GatewayMeta#getDiscoveryQueueCapacity() queue capacity} tasks may be pending at a time.
+ * If there are that many, {@link DiscoveryPipeline#submit(String, String, Supplier)} blocks the submitting thread
+ * until one of them completes, which slows down discovery rather than losing its results. A task that has waited
+ * for longer than {@value MAX_SUBMISSION_WAIT_SECONDS} seconds is admitted over the capacity, so no task,
+ * be it a doc fetch or an eviction, is ever dropped
+ * <p>
+ * The pipeline reports the number of pending tasks as the {@value PENDING_TASKS_METRIC} gauge and the time
+ * from submission to completion of each task as the {@value TASK_LATENCY_METRIC} timer tagged by task type
+ */
+@Component
+@Slf4j
+public class DiscoveryPipeline {
+    public static final String PENDING_TASKS_METRIC = "gateway.discovery.pending";
+    public static final String TASK_LATENCY_METRIC = "gateway.discovery.latency";
+    private static final long MAX_SUBMISSION_WAIT_SECONDS = 30;
+    private final AtomicInteger pendingTaskCount = new AtomicInteger();
+    private final Semaphore admissionPermits;
+    private final List<Sinks.Many<Task>> lanes;
+    private final MeterRegistry meterRegistry;
+    private final Disposable subscription;
+
+    public DiscoveryPipeline(GatewayMeta gatewayMeta, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.admissionPermits = new Semaphore(gatewayMeta.getDiscoveryQueueCapacity(), true);
+        meterRegistry.gauge(PENDING_TASKS_METRIC, pendingTaskCount);
+        int laneCount = gatewayMeta.getDiscoveryConcurrency();
+        this.lanes = Stream.generate(() -> Sinks.many().unicast().onBackpressureBuffer(Queues.<Task>unbounded().get()))
+                .limit(laneCount)
+                .toList();
+        this.subscription = Flux.fromIterable(lanes)
+                .flatMap(lane -> lane.asFlux().concatMap(this::execute, 1), laneCount)
+                .subscribe();
+    }
+
+    /**
+     * Submits work concerning the application. The work starts once all work previously submitted
+     * for the same application is complete. A failure of the work is logged and doesn't affect other tasks
+     * <p>
+     * If the pipeline is at capacity, this method blocks until another task completes or the maximum wait elapses
+     * <p>
+     * The work must not submit other tasks synchronously
+     *
+     * @param appName  name of the application the work concerns
+     * @param taskType short description of the work used as a metric tag, for example {@code found}
+     * @param work     supplier of a {@code Publisher} whose completion marks the end of the work
+     * @return a {@code Mono} that completes once the work is complete or fails. The work is submitted
+     * whether the {@code Mono} is subscribed to or not
+     * @throws NullPointerException if any of the arguments is {@code null}
+     */
+    public Mono<Void> submit(@NonNull String appName, @NonNull String taskType, @NonNull Supplier<? extends Publisher<?>> work) {
+        Stream.of(appName, taskType, work).forEach(Objects::requireNonNull);
+        Task task = new Task(appName, taskType, work, System.nanoTime(), acquireAdmissionPermit(appName, taskType));
+        pendingTaskCount.incrementAndGet();
+        try {
+            laneOf(appName).emitNext(task,
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(MAX_SUBMISSION_WAIT_SECONDS)));
+        } catch (Sinks.EmissionException e) {
+            log.error("Couldn't submit {} task for {}", taskType, appName, e);
+            complete(task);
+        }
+        return task.completion.asMono();
+    }
+
+    private Sinks.Many<Task> laneOf(String appName) {
+        return lanes.get(Math.floorMod(appName.hashCode(), lanes.size()));
+    }
+
+    private boolean acquireAdmissionPermit(String appName, String taskType) {
+        try {
+            if (admissionPermits.tryAcquire(MAX_SUBMISSION_WAIT_SECONDS, TimeUnit.SECONDS)) return true;
+            log.warn("Discovery pipeline is still at capacity after {} seconds. {} task for {} is admitted over it",
+                    MAX_SUBMISSION_WAIT_SECONDS, taskType, appName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for room in discovery pipeline. {} task for {} is admitted over it",
+                    taskType, appName);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of submitted tasks that haven't completed yet
+     */
+    public int getPendingTaskCount() {
+        return pendingTaskCount.get();
+    }
+
+    private Mono<Void> execute(Task task) {
+        return Mono.defer(() -> Flux.from(task.work.get()).then())
+                .onErrorResume(throwable -> {
+                    log.warn("{} task for {} failed", task.type, task.appName, throwable);
+                    return Mono.empty();
+                })
+                .doFinally(signalType -> {
+                    complete(task);
+                    Timer.builder(TASK_LATENCY_METRIC)
+                            .tag("type", task.type)
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - task.submittedAtNanos, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    private void complete(Task task) {
+        pendingTaskCount.decrementAndGet();
+        if (task.holdsAdmissionPermit) admissionPermits.release();
+        task.completion.tryEmitEmpty();
+    }
+
+    @PreDestroy
+    private void dispose() {
+        subscription.dispose();
+    }
+
+    private static final class Task {
+        private final String appName;
+        private final String type;
+        private final Supplier<? extends Publisher<?>> work;
+        private final long submittedAtNanos;
+        private final boolean holdsAdmissionPermit;
+        private final Sinks.Empty<Void> completion = Sinks.empty();
+
+        private Task(String appName, String type, Supplier<? extends Publisher<?>> work,
+                     long submittedAtNanos, boolean holdsAdmissionPermit) {
+            this.appName = appName;
+            this.type = type;
+            this.work = work;
+            this.submittedAtNanos = submittedAtNanos;
+            this.holdsAdmissionPermit = holdsAdmissionPermit;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.dynamicgateway.service.discoverySnapshot;
+
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
+import com.example.dynamicgateway.service.swaggerDocParser.DeferredSwaggerParseResult;
+import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
+import com.example.dynamicgateway.util.Debouncer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.netflix.discovery.shared.Application;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A store that keeps a snapshot of discovered applications' documentation on local disk, so that a restarted
+ * Gateway could serve their routes before live discovery catches up
+ * <p>
+ * The store tracks documentation of every application whose endpoints are collected, updated, or evicted and
+ * rewrites the {@link GatewayMeta#getSnapshotPath() snapshot file} once such changes settle, as
+ * {@link Debouncer debounced} with the discovery quiet window and maximum delay. The file is written next to
+ * its final location and then atomically moved there, so a crash never leaves a half-written snapshot behind
+ * <p>
+ * On construction, the snapshot is memory-mapped and parsed on the store's own thread. Once the application
+ * is ready, each snapshotted application is {@link SwaggerEndpointCollector#restoreApplication restored} in
+ * the {@link SwaggerEndpointCollector}, which builds its routes right away. Restored applications that aren't
+ * found by live discovery within the {@link GatewayMeta#getSnapshotReconcileTimeout() reconcile timeout}
+ * are evicted
+ * <p>
+ * The store is disabled unless the snapshot path is set
+ */
+@Slf4j
+@Component
+public class DiscoverySnapshotStore {
+    private static final int MAGIC_NUMBER = 0x44475753;
+    private static final int FORMAT_VERSION = 1;
+    private final Path snapshotPath;
+    private final Duration reconcileTimeout;
+    private final SwaggerEndpointCollector endpointCollector;
+    private final OpenApiParser<SwaggerParseResult> parser;
+    private final Scheduler snapshotScheduler = Schedulers.newSingle("discovery-snapshot", true);
+    private final Map<String, String> serializedDocsByAppName = new ConcurrentHashMap<>();
+    private final Map<String, SwaggerParseResult> loadedDocsByAppName = new LinkedHashMap<>();
+    private final Debouncer<Map<String, String>> writeDebouncer;
+
+    public DiscoverySnapshotStore(GatewayMeta gatewayMeta,
+                                  SwaggerEndpointCollector endpointCollector,
+                                  OpenApiParser<SwaggerParseResult> parser) {
+        this.snapshotPath = gatewayMeta.getSnapshotPath();
+        this.reconcileTimeout = gatewayMeta.getSnapshotReconcileTimeout();
+        this.endpointCollector = endpointCollector;
+        this.parser = parser;
+        this.writeDebouncer = new Debouncer<>(
+                this::write,
+                gatewayMeta.getDiscoveryQuietWindow(),
+                gatewayMeta.getDiscoveryMaxDelay(),
+                snapshotScheduler);
+        if (isEnabled()) {
+            snapshotScheduler.schedule(this::load);
+        }
+    }
+
+    @PreDestroy
+    private void disposeSnapshotScheduler() {
+        snapshotScheduler.dispose();
+    }
+
+    private boolean isEnabled() {
+        return snapshotPath != null;
+    }
+
+    private void load() {
+        Map<String, String> serializedDocs;
+        try {
+            serializedDocs = read(snapshotPath);
+        } catch (NoSuchFileException e) {
+            log.info("No discovery snapshot found at {}", snapshotPath);
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Couldn't read discovery snapshot at {}", snapshotPath, e);
+            return;
+        }
+        serializedDocs.forEach((appName, serializedDoc) -> {
+            SwaggerParseResult doc = parser.parse(serializedDoc);
+            if (doc == null || !(doc instanceof DeferredSwaggerParseResult) && doc.getOpenAPI() == null) {
+                log.warn("Snapshotted doc of {} couldn't be parsed and is skipped", appName);
+                return;
+            }
+            serializedDocsByAppName.putIfAbsent(appName, serializedDoc);
+            loadedDocsByAppName.put(appName, doc);
+        });
+        log.info("{} application doc(s) loaded from discovery snapshot at {}", loadedDocsByAppName.size(), snapshotPath);
+    }
+
+    private static Map<String, String> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException(MessageFormat.format(
+                        "{0} is not a discovery snapshot of version {1}", path, FORMAT_VERSION));
+            }
+            int appCount = buffer.getInt();
+            Map<String, String> serializedDocsByAppName = new LinkedHashMap<>();
+            for (int i = 0; i < appCount; i++) {
+                serializedDocsByAppName.put(readString(buffer), readString(buffer));
+            }
+            return serializedDocsByAppName;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Restores applications loaded from the snapshot, if any, and schedules eviction of those of them
+     * that won't be found by live discovery within the reconcile timeout
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReadyEvent() {
+        if (isEnabled()) {
+            snapshotScheduler.schedule(this::restore);
+        }
+    }
+
+    private void restore() {
+        if (loadedDocsByAppName.isEmpty()) return;
+        loadedDocsByAppName.forEach((appName, doc) -> endpointCollector.restoreApplication(
+                EurekaDiscoverableApplication.from(new Application(appName)), doc));
+        log.info("{} application(s) restored from discovery snapshot", loadedDocsByAppName.size());
+        loadedDocsByAppName.clear();
+        snapshotScheduler.schedule(endpointCollector::evictUnconfirmedApplications,
+                reconcileTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onDocumentedApplicationFoundEvent(DocumentedApplicationFoundEvent event) {
+        snapshotDocOf(event.getFoundApp());
+    }
+
+    @EventListener
+    public void onDocumentedApplicationUpdatedEvent(DocumentedApplicationUpdatedEvent event) {
+        snapshotDocOf(event.getUpdatedApp());
+    }
+
+    private void snapshotDocOf(DocumentedApplication<?> application) {
+        if (!isEnabled() || !(application.getNativeDoc() instanceof SwaggerParseResult doc)) return;
+        try {
+            serializedDocsByAppName.put(application.getName(), serialize(doc));
+            writeDebouncer.signal(Map.copyOf(serializedDocsByAppName));
+        } catch (JsonProcessingException e) {
+            log.warn("Couldn't serialize doc of {} for discovery snapshot", application.getName(), e);
+        }
+    }
+
+    private static String serialize(SwaggerParseResult doc) throws JsonProcessingException {
+        if (doc instanceof DeferredSwaggerParseResult deferredDoc) {
+            return deferredDoc.getSerializedDoc();
+        }
+        return Json.mapper().writeValueAsString(doc.getOpenAPI());
+    }
+
+    @EventListener
+    public void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        if (isEnabled() && serializedDocsByAppName.remove(event.getAppName()) != null) {
+            writeDebouncer.signal(Map.copyOf(serializedDocsByAppName));
+        }
+    }
+
+    private void write(Map<String, String> serializedDocs) {
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                out.writeInt(MAGIC_NUMBER);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(serializedDocs.size());
+                for (Map.Entry<String, String> appNameDocEntry : serializedDocs.entrySet()) {
+                    writeString(out, appNameDocEntry.getKey());
+                    writeString(out, appNameDocEntry.getValue());
+                }
+            }
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Discovery snapshot of {} application(s) written to {}", serializedDocs.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Couldn't write discovery snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.dynamicgateway.service.docRevalidator;
+
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.applicationCollector.ApplicationCollector;
+import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A background loop that periodically revalidates documentation of all {@link DiscoverableApplication}s
+ * collected by the {@link ApplicationCollector}
+ * <p>
+ * Cycles are {@link GatewayMeta#getDocRevalidationInterval() interval} apart, give or take a random jitter
+ * of up to a fifth of the interval, so gateway replicas started at the same time don't revalidate in lockstep.
+ * Within a cycle, no more than {@link GatewayMeta#getDocRevalidationConcurrency() concurrency} applications are
+ * revalidated at a time. Each revalidation is a conditional request, and only applications whose endpoints have
+ * changed get their routes updated, see {@link SwaggerEndpointCollector#revalidateApplication(DiscoverableApplication)}.
+ * Every revalidation is started on the revalidator's own thread rather than on the thread that completed
+ * the previous one, since starting it may block until there's room in the discovery pipeline
+ * <p>
+ * The loop starts once the application is ready. A zero interval disables it
+ */
+@Slf4j
+@Component
+public class DocRevalidator {
+    private static final double JITTER_FACTOR = 0.2;
+    private final ApplicationCollector applicationCollector;
+    private final SwaggerEndpointCollector endpointCollector;
+    private final Duration interval;
+    private final int concurrency;
+    private final Scheduler revalidationScheduler = Schedulers.newSingle("doc-revalidator", true);
+    private Disposable revalidationLoop;
+
+    public DocRevalidator(ApplicationCollector applicationCollector,
+                          SwaggerEndpointCollector endpointCollector,
+                          GatewayMeta gatewayMeta) {
+        this.applicationCollector = applicationCollector;
+        this.endpointCollector = endpointCollector;
+        this.interval = gatewayMeta.getDocRevalidationInterval();
+        this.concurrency = gatewayMeta.getDocRevalidationConcurrency();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReadyEvent() {
+        if (interval.isZero() || interval.isNegative() || revalidationLoop != null) return;
+        revalidationLoop = Mono.defer(() -> Mono.delay(nextDelay(), revalidationScheduler))
+                .then(Mono.defer(this::revalidateAll))
+                .repeat()
+                .subscribe();
+    }
+
+    private Duration nextDelay() {
+        double jitter = ThreadLocalRandom.current().nextDouble(-JITTER_FACTOR, JITTER_FACTOR);
+        return Duration.ofNanos((long) (interval.toNanos() * (1 + jitter)));
+    }
+
+    private Mono<Void> revalidateAll() {
+        log.debug("Revalidating docs of collected applications");
+        return Flux.fromIterable(applicationCollector.getCollectedApplications())
+                .flatMap(app -> Mono.defer(() -> endpointCollector.revalidateApplication(app))
+                        .subscribeOn(revalidationScheduler), concurrency)
+                .then();
+    }
+
+    @PreDestroy
+    private synchronized void dispose() {
+        if (revalidationLoop != null) revalidationLoop.dispose();
+        revalidationScheduler.dispose();
+    }
+}
@@ -2,24 +2,42 @@ package com.example.dynamicgateway.service.endpointCollector;
 
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.service.sieve.EndpointSieve;
+import com.example.dynamicgateway.util.EndpointUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * An {@link EndpointCollector} that applies its injected {@link EndpointSieve}s on any endpoint
  * suggested for collection
+ * <p>
+ * Collected endpoints are partitioned by the names of their declaring applications. Each partition
+ * is a collection obtained from the endpoint collection supplier passed on construction. As a result,
+ * all endpoints of one application can be evicted in a single operation that doesn't touch
+ * partitions of other applications
+ * <p>
+ * Readers are served from an immutable {@link EndpointSnapshot} that is rebuilt lazily, on the first read
+ * after the collected endpoints change. Until then, reads neither copy nor iterate over the endpoints
  */
 @Slf4j
 public abstract class AbstractFilteringEndpointCollector<E extends DocumentedEndpoint<?>> implements EndpointCollector<E> {
-    protected final Collection<E> documentedEndpoints;
+    protected final Map<String, Collection<E>> endpointsByAppName = new ConcurrentHashMap<>();
+    private final Supplier<Collection<E>> endpointCollectionSupplier;
     private final Collection<? extends EndpointSieve> endpointSieves;
+    private final AtomicLong version = new AtomicLong();
+    private volatile EndpointSnapshot<E> snapshot;
 
     protected AbstractFilteringEndpointCollector(Supplier<Collection<E>> endpointCollectionSupplier,
                                                  Collection<? extends EndpointSieve> endpointSieves) {
-        this.documentedEndpoints = endpointCollectionSupplier.get();
+        this.endpointCollectionSupplier = endpointCollectionSupplier;
         this.endpointSieves = endpointSieves;
     }
 
@@ -29,12 +47,37 @@ public abstract class AbstractFilteringEndpointCollector<E extends DocumentedEnd
      */
     @Override
     public Set<E> getCollectedEndpoints() {
-        return Set.copyOf(documentedEndpoints);
+        return getSnapshot().getEndpoints();
+    }
+
+    @Override
+    public Set<E> getCollectedEndpointsOf(String appName) {
+        return getSnapshot().getEndpointsOf(appName);
+    }
+
+    @Override
+    public boolean hasEndpoint(HttpMethod method, String path) {
+        return getSnapshot().hasEndpoint(method, path);
+    }
+
+    /**
+     * Returns an {@link EndpointSnapshot} that reflects all changes to the collected endpoints made
+     * before this method is invoked
+     */
+    public EndpointSnapshot<E> getSnapshot() {
+        EndpointSnapshot<E> currentSnapshot = snapshot;
+        long currentVersion = version.get();
+        if (currentSnapshot == null || currentSnapshot.getVersion() != currentVersion) {
+            currentSnapshot = new EndpointSnapshot<>(currentVersion, endpointsByAppName);
+            snapshot = currentSnapshot;
+        }
+        return currentSnapshot;
     }
 
     /**
      * Passes a given endpoint through this {@code EndpointCollector}'s {@code EndpointSieve}s
      * and then, if the element was retained, tries to add the argument to the endpoint collection
+     * of its declaring application
      *
      * @param endpoint endpoint that should be considered for addition
      * @return {@code true} if both of these conditions are met: 1) all the sieves returned
@@ -44,8 +87,10 @@ public abstract class AbstractFilteringEndpointCollector<E extends DocumentedEnd
      */
     protected boolean addEndpoint(E endpoint) {
         boolean isEndpointAdded = passesThroughSieves(endpoint) &&
-                documentedEndpoints.add(endpoint);
+                endpointsByAppName.computeIfAbsent(endpoint.getDeclaringApp().getName(),
+                        appName -> endpointCollectionSupplier.get()).add(endpoint);
         if (isEndpointAdded) {
+            version.incrementAndGet();
             log.info("New endpoint collected: {}", endpoint);
         }
         return isEndpointAdded;
@@ -54,4 +99,50 @@ public abstract class AbstractFilteringEndpointCollector<E extends DocumentedEnd
     private boolean passesThroughSieves(E endpoint) {
         return endpointSieves.stream().allMatch(sieve -> sieve.isAllowed(endpoint));
     }
+
+    /**
+     * Replaces the partition of endpoints declared by the application with the provided name with
+     * those of the passed endpoints that pass through this {@code EndpointCollector}'s {@code EndpointSieve}s.
+     * If no endpoints pass, the partition is removed
+     *
+     * @param appName   name of the application whose endpoints should be replaced
+     * @param endpoints all endpoints the application currently declares
+     * @return {@code true} if the set of collected endpoints of the application or
+     * {@link EndpointUtil#detailsFingerprint(DocumentedEndpoint) details} of any of them have changed
+     */
+    protected boolean replaceEndpointsOf(String appName, Collection<? extends E> endpoints) {
+        Collection<E> newEndpoints = endpointCollectionSupplier.get();
+        endpoints.stream()
+                .filter(this::passesThroughSieves)
+                .forEach(newEndpoints::add);
+        Collection<E> oldEndpoints = newEndpoints.isEmpty() ?
+                endpointsByAppName.remove(appName) :
+                endpointsByAppName.put(appName, newEndpoints);
+        version.incrementAndGet();
+        Set<String> oldFingerprints = detailsFingerprintsOf(oldEndpoints);
+        boolean isChanged = !oldFingerprints.equals(detailsFingerprintsOf(newEndpoints));
+        if (isChanged) {
+            log.info("Endpoints of {} replaced: {} before, {} after", appName, oldFingerprints.size(), newEndpoints.size());
+        }
+        return isChanged;
+    }
+
+    private static Set<String> detailsFingerprintsOf(Collection<? extends DocumentedEndpoint<?>> endpoints) {
+        if (endpoints == null) return Collections.emptySet();
+        return endpoints.stream()
+                .map(EndpointUtil::detailsFingerprint)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes the whole partition of endpoints declared by the application with the provided name
+     *
+     * @param appName name of the application whose endpoints should be evicted
+     * @return a collection of evicted endpoints, never {@code null}
+     */
+    protected Collection<E> evictEndpointsOf(String appName) {
+        Collection<E> evictedEndpoints = endpointsByAppName.remove(appName);
+        if (evictedEndpoints != null) version.incrementAndGet();
+        return (evictedEndpoints == null) ? Collections.emptySet() : evictedEndpoints;
+    }
 }
@@ -5,6 +5,7 @@ import com.example.dynamicgateway.model.endpointDetails.EndpointDetails;
 import org.springframework.http.HttpMethod;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -21,6 +22,16 @@ public interface EndpointCollector<E extends DocumentedEndpoint<?>> {
      */
     Set<E> getCollectedEndpoints();
 
+    /**
+     * Returns a {@code Set} of all {@link DocumentedEndpoint}s collected by this {@code EndpointCollector}
+     * and declared by the application with the provided name
+     */
+    default Set<E> getCollectedEndpointsOf(String appName) {
+        return stream()
+                .filter(endpoint -> endpoint.getDeclaringApp().getName().equals(appName))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
     /**
      * Tests if the provided method-path pair corresponds to at least one endpoint
      * collected by this {@code EndpointCollector}
@@ -0,0 +1,86 @@
+package com.example.dynamicgateway.service.endpointCollector;
+
+import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+import com.example.dynamicgateway.model.endpointDetails.EndpointDetails;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of endpoints collected by an {@link AbstractFilteringEndpointCollector} at some point in time
+ * <p>
+ * Besides the endpoints themselves, a snapshot holds indexes of the endpoints by their declaring applications'
+ * names and by their methods and paths, so neither lookup iterates over all endpoints. Snapshots are
+ * {@link #getVersion() versioned}: a snapshot with a greater version reflects later changes
+ *
+ * @param <E> type of {@link DocumentedEndpoint}s in this snapshot
+ */
+public final class EndpointSnapshot<E extends DocumentedEndpoint<?>> {
+    @Getter
+    private final long version;
+    private final Set<E> endpoints;
+    private final Map<String, Set<E>> endpointsByAppName;
+    private final Map<HttpMethod, Map<String, List<E>>> endpointsByMethodAndPath;
+
+    EndpointSnapshot(long version, Map<String, ? extends Collection<E>> endpointsByAppName) {
+        this.version = version;
+        Set<E> endpoints = new HashSet<>();
+        Map<String, Set<E>> endpointsByAppNameCopy = new HashMap<>();
+        Map<HttpMethod, Map<String, List<E>>> endpointsByMethodAndPath = new HashMap<>();
+        endpointsByAppName.forEach((appName, appEndpoints) -> {
+            Set<E> appEndpointsCopy = Set.copyOf(appEndpoints);
+            endpointsByAppNameCopy.put(appName, appEndpointsCopy);
+            endpoints.addAll(appEndpointsCopy);
+            for (E endpoint : appEndpointsCopy) {
+                EndpointDetails details = endpoint.getDetails();
+                endpointsByMethodAndPath
+                        .computeIfAbsent(details.getMethod(), method -> new HashMap<>())
+                        .computeIfAbsent(details.getPath(), path -> new ArrayList<>())
+                        .add(endpoint);
+            }
+        });
+        this.endpoints = Collections.unmodifiableSet(endpoints);
+        this.endpointsByAppName = endpointsByAppNameCopy;
+        endpointsByMethodAndPath.values()
+                .forEach(endpointsByPath -> endpointsByPath.replaceAll((path, pathEndpoints) -> List.copyOf(pathEndpoints)));
+        this.endpointsByMethodAndPath = endpointsByMethodAndPath;
+    }
+
+    /**
+     * Returns an unmodifiable {@code Set} of all endpoints in this snapshot
+     */
+    public Set<E> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns an unmodifiable {@code Set} of endpoints declared by the application with the provided name,
+     * possibly empty
+     */
+    public Set<E> getEndpointsOf(String appName) {
+        return endpointsByAppName.getOrDefault(appName, Set.of());
+    }
+
+    /**
+     * Returns an unmodifiable {@code List} of endpoints with the provided method and path, possibly empty.
+     * The list contains more than one endpoint if several applications declare the same endpoint
+     */
+    public List<E> getEndpoints(HttpMethod method, String path) {
+        return endpointsByMethodAndPath.getOrDefault(method, Map.of()).getOrDefault(path, List.of());
+    }
+
+    /**
+     * Tests if this snapshot contains an endpoint with the provided method and path
+     */
+    public boolean hasEndpoint(HttpMethod method, String path) {
+        return !getEndpoints(method, path).isEmpty();
+    }
+}
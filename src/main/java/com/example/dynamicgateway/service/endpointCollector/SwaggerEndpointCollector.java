@@ -2,12 +2,16 @@ package com.example.dynamicgateway.service.endpointCollector;
 
 import com.example.dynamicgateway.events.DiscoverableApplicationFoundEvent;
 import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
-import com.example.dynamicgateway.events.DocumentedEndpointFoundEvent;
+import com.example.dynamicgateway.events.DiscoverableApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
 import com.example.dynamicgateway.service.applicationDocClient.ApplicationDocClient;
+import com.example.dynamicgateway.service.discoveryPipeline.DiscoveryPipeline;
 import com.example.dynamicgateway.service.sieve.EndpointSieve;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import lombok.extern.slf4j.Slf4j;
@@ -16,33 +20,49 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A subtype of {@link AbstractFilteringEndpointCollector} that collects {@link SwaggerEndpoint}s
+ * <p>
+ * All work triggered by discovery events is submitted to the {@link DiscoveryPipeline}, so the work
+ * concerning one application is done in the order the events were received
+ * <p>
+ * Applications may also be {@link #restoreApplication(DiscoverableApplication, SwaggerParseResult) restored}
+ * from previously fetched documentation, for example, on a warm start. Endpoints of a restored application
+ * are collected right away and then reconciled with live discovery: once the application is found,
+ * its documentation is re-fetched as if it was updated
  */
 @Component
 @Slf4j
 public class SwaggerEndpointCollector extends AbstractFilteringEndpointCollector<SwaggerEndpoint> {
     private final ApplicationDocClient<SwaggerParseResult> applicationDocClient;
     private final ApplicationEventPublisher eventPublisher;
+    private final DiscoveryPipeline discoveryPipeline;
+    private final Set<String> restoredAppNames = ConcurrentHashMap.newKeySet();
 
     public SwaggerEndpointCollector(
             ApplicationDocClient<SwaggerParseResult> applicationDocClient,
             List<EndpointSieve> endpointSieves,
-            ApplicationEventPublisher eventPublisher) {
+            ApplicationEventPublisher eventPublisher,
+            DiscoveryPipeline discoveryPipeline) {
         super(ConcurrentHashMap::newKeySet, endpointSieves);
         this.applicationDocClient = applicationDocClient;
         this.eventPublisher = eventPublisher;
+        this.discoveryPipeline = discoveryPipeline;
     }
 
     /**
      * Fetches and collects all allowed endpoints exposed by a found {@link DiscoverableApplication}.
      * <p>
-     * This method internally calls {@link AbstractFilteringEndpointCollector#addEndpoint(DocumentedEndpoint)}.
-     * In case the method returns {@code true}, a {@link DocumentedEndpointFoundEvent} is published
+     * This method internally calls {@link AbstractFilteringEndpointCollector#addEndpoint(DocumentedEndpoint)}
+     * on each of the application's endpoints. All endpoints on which the method returns {@code true}
+     * are published in a single {@link DocumentedApplicationFoundEvent}. If there are no such
+     * endpoints, no event is published
      *
      * @param event event that contains a found {@code DiscoverableApplication}
      */
@@ -50,32 +70,133 @@ public class SwaggerEndpointCollector extends AbstractFilteringEndpointCollector
     public void onDiscoverableApplicationFoundEvent(DiscoverableApplicationFoundEvent event) {
         log.info("onDiscoverableApplicationFoundEvent() triggered");
         DiscoverableApplication<?> foundService = event.getFoundApp();
-        collectAllowedEndpoints(foundService);
+        if (restoredAppNames.remove(foundService.getName())) {
+            discoveryPipeline.submit(foundService.getName(), "updated", () -> recollectAllowedEndpoints(foundService));
+        } else {
+            discoveryPipeline.submit(foundService.getName(), "found", () -> collectAllowedEndpoints(foundService));
+        }
     }
 
-    private void collectAllowedEndpoints(DiscoverableApplication<?> application) {
-        applicationDocClient.findApplicationDoc(application)
+    private Mono<DocumentedApplicationFoundEvent> collectAllowedEndpoints(DiscoverableApplication<?> application) {
+        return applicationDocClient.findApplicationDoc(application)
                 .map(applicationDoc -> new SwaggerApplication(application, applicationDoc))
-                .flatMapIterable(SwaggerApplication::getEndpoints)
+                .filter(swaggerApplication -> !swaggerApplication.getEndpoints().isEmpty())
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("{}'s OpenAPI contains no endpoints", application.getName());
                     return Mono.empty();
                 }))
+                .map(this::toDocumentedApplicationFoundEvent)
+                .filter(event -> !event.getFoundEndpoints().isEmpty())
+                .doOnNext(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Collects all allowed endpoints declared in previously fetched documentation of an application that
+     * hasn't been found by live discovery yet. The endpoints are published in a single
+     * {@link DocumentedApplicationFoundEvent} the same way as those of a found application. If the application
+     * already has collected endpoints by the time the work starts, the documentation is ignored
+     * <p>
+     * The application stays restored until it's either found, which makes this collector re-fetch its
+     * documentation, or {@link #evictUnconfirmedApplications() evicted}
+     *
+     * @param application application whose documentation is restored
+     * @param doc         previously fetched documentation of the application
+     */
+    public void restoreApplication(DiscoverableApplication<?> application, SwaggerParseResult doc) {
+        String appName = application.getName();
+        restoredAppNames.add(appName);
+        discoveryPipeline.submit(appName, "restored", () -> collectRestoredEndpoints(application, doc));
+    }
+
+    private Mono<DocumentedApplicationFoundEvent> collectRestoredEndpoints(DiscoverableApplication<?> application,
+                                                                          SwaggerParseResult doc) {
+        return Mono.fromSupplier(() -> {
+                    if (endpointsByAppName.containsKey(application.getName())) {
+                        restoredAppNames.remove(application.getName());
+                        return null;
+                    }
+                    return toDocumentedApplicationFoundEvent(new SwaggerApplication(application, doc));
+                })
+                .filter(event -> !event.getFoundEndpoints().isEmpty())
+                .doOnNext(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Evicts endpoints of all {@link #restoreApplication(DiscoverableApplication, SwaggerParseResult) restored}
+     * applications that haven't been found by live discovery since they were restored
+     */
+    public void evictUnconfirmedApplications() {
+        for (String appName : Set.copyOf(restoredAppNames)) {
+            if (restoredAppNames.remove(appName)) {
+                log.info("Restored {} wasn't found by discovery, evicting its endpoints", appName);
+                submitEviction(appName);
+            }
+        }
+    }
+
+    private DocumentedApplicationFoundEvent toDocumentedApplicationFoundEvent(SwaggerApplication application) {
+        List<SwaggerEndpoint> collectedEndpoints = application.getEndpoints().stream()
                 .filter(this::addEndpoint)
-                .subscribe(this::publishDocumentedEndpointFoundEvent);
+                .toList();
+        return new DocumentedApplicationFoundEvent(application, collectedEndpoints, this);
     }
 
-    private void publishDocumentedEndpointFoundEvent(SwaggerEndpoint endpoint) {
-        eventPublisher.publishEvent(
-                new DocumentedEndpointFoundEvent(endpoint, this));
+    /**
+     * Re-fetches the documentation of an updated {@link DiscoverableApplication} and replaces its collected
+     * endpoints with the allowed endpoints found there. If the documentation has {@link
+     * ApplicationDocClient#findChangedApplicationDoc changed}, all collected endpoints are published in a single
+     * {@link DocumentedApplicationUpdatedEvent} along with the new documentation, even if the endpoints themselves
+     * are the same, so listeners that keep the documentation don't serve a stale one. If the documentation
+     * hasn't changed, nothing is replaced or published
+     *
+     * @param event event that contains an updated {@code DiscoverableApplication}
+     */
+    @EventListener
+    public void onDiscoverableApplicationUpdatedEvent(DiscoverableApplicationUpdatedEvent event) {
+        log.info("onDiscoverableApplicationUpdatedEvent() triggered");
+        DiscoverableApplication<?> updatedService = event.getUpdatedApp();
+        discoveryPipeline.submit(updatedService.getName(), "updated", () -> recollectAllowedEndpoints(updatedService));
+    }
+
+    /**
+     * Re-fetches the documentation of a known {@link DiscoverableApplication} the same way as the documentation
+     * of an updated one. If the application has no collected endpoints, for example, because its documentation
+     * couldn't be fetched before, all allowed endpoints found in the documentation are collected
+     *
+     * @param application application whose documentation should be revalidated
+     * @return a {@code Mono} that completes once the revalidation is complete
+     * @see #onDiscoverableApplicationUpdatedEvent(DiscoverableApplicationUpdatedEvent)
+     */
+    public Mono<Void> revalidateApplication(DiscoverableApplication<?> application) {
+        return discoveryPipeline.submit(application.getName(), "revalidated", () -> recollectAllowedEndpoints(application));
+    }
+
+    private Mono<DocumentedApplicationUpdatedEvent> recollectAllowedEndpoints(DiscoverableApplication<?> application) {
+        return applicationDocClient.findChangedApplicationDoc(application)
+                .map(applicationDoc -> new SwaggerApplication(application, applicationDoc))
+                .doOnNext(swaggerApplication -> {
+                    if (!replaceEndpointsOf(application.getName(), swaggerApplication.getEndpoints())) {
+                        log.info("Doc of {} has changed, but its collected endpoints are the same", application.getName());
+                    }
+                })
+                .map(this::toDocumentedApplicationUpdatedEvent)
+                .doOnNext(eventPublisher::publishEvent);
+    }
+
+    private DocumentedApplicationUpdatedEvent toDocumentedApplicationUpdatedEvent(SwaggerApplication application) {
+        Collection<SwaggerEndpoint> collectedEndpoints =
+                endpointsByAppName.getOrDefault(application.getName(), Collections.emptySet());
+        return new DocumentedApplicationUpdatedEvent(application, List.copyOf(collectedEndpoints), this);
     }
 
     /**
      * Clears this {@code EndpointCollector}'s collection of all endpoints declared by
-     * the lost {@link DiscoverableApplication}. More formally, it removes all endpoints
-     * whose <em>declaring applications</em> wrap a {@code DiscoverableApplication}
-     * <em>equal</em> to the {@code DiscoverableApplication} returned by the event's
-     * {@link DiscoverableApplicationLostEvent#getLostApp()} method
+     * the lost {@link DiscoverableApplication}. More formally, it removes the partition of endpoints
+     * whose <em>declaring applications</em> have the same {@link DiscoverableApplication#getName() name}
+     * as the {@code DiscoverableApplication} returned by the event's
+     * {@link DiscoverableApplicationLostEvent#getLostApp()} method. Once all work previously submitted for
+     * the application is complete, the partition is removed, and a {@link DocumentedEndpointsEvictedEvent}
+     * is published
      *
      * @param event event that contains a lost {@code DiscoverableApplication}
      * @see DocumentedEndpoint#getDeclaringApp()
@@ -83,18 +204,17 @@ public class SwaggerEndpointCollector extends AbstractFilteringEndpointCollector
     @EventListener
     public void onDiscoverableApplicationLostEvent(DiscoverableApplicationLostEvent event) {
         log.info("onDiscoverableApplicationLostEvent() triggered");
-        DiscoverableApplication<?> lostService = event.getLostApp();
-        evictEndpointsOf(lostService);
+        String lostServiceName = event.getLostApp().getName();
+        restoredAppNames.remove(lostServiceName);
+        submitEviction(lostServiceName);
     }
 
-    private void evictEndpointsOf(DiscoverableApplication<?> lostService) {
-        for (Iterator<SwaggerEndpoint> iterator = documentedEndpoints.iterator(); iterator.hasNext(); ) {
-            SwaggerEndpoint endpoint = iterator.next();
-            DiscoverableApplication<?> endpointsDiscoverableApp = endpoint.getDeclaringApp().getDiscoverableApp();
-            if (endpointsDiscoverableApp.equals(lostService)) {
-                iterator.remove();
-                log.info("Endpoint {} exposed by lost {} was evicted", endpoint, lostService.getName());
-            }
-        }
+    private void submitEviction(String appName) {
+        discoveryPipeline.submit(appName, "lost", () -> Mono.fromRunnable(() -> {
+            Collection<SwaggerEndpoint> evictedEndpoints = evictEndpointsOf(appName);
+            log.info("{} endpoint(s) exposed by lost {} were evicted", evictedEndpoints.size(), appName);
+            eventPublisher.publishEvent(new DocumentedEndpointsEvictedEvent(
+                    appName, List.copyOf(evictedEndpoints), this));
+        }));
     }
 }
@@ -16,8 +16,8 @@ public enum ParamInitializingStrategy {
      */
     REPLACE_PARAMS_ALWAYS {
         @Override
-        MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
-                                            String paramName, List<String> newParamValues) {
+        public MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
+                                                   String paramName, List<String> newParamValues) {
             return queryMapWithReplacedParams(queryMap, paramName, newParamValues);
         }
     },
@@ -27,8 +27,8 @@ public enum ParamInitializingStrategy {
      */
     REPLACE_PARAMS_IF_ABSENT {
         @Override
-        MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
-                                            String paramName, List<String> newParamValues) {
+        public MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
+                                                   String paramName, List<String> newParamValues) {
             List<String> currentParamValues = queryMap.get(paramName);
             return CollectionUtils.isEmpty(currentParamValues) ?
                     queryMapWithReplacedParams(queryMap, paramName, newParamValues) :
@@ -41,8 +41,8 @@ public enum ParamInitializingStrategy {
      */
     APPEND_PARAMS_ALWAYS {
         @Override
-        MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
-                                            String paramName, List<String> newParamValues) {
+        public MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
+                                                   String paramName, List<String> newParamValues) {
             return queryMapWithAppendedParams(queryMap, paramName, newParamValues);
         }
     },
@@ -52,8 +52,8 @@ public enum ParamInitializingStrategy {
      */
     APPEND_PARAMS_IF_ABSENT {
         @Override
-        MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
-                                            String paramName, List<String> newParamValues) {
+        public MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
+                                                   String paramName, List<String> newParamValues) {
             List<String> currentParamValues = queryMap.get(paramName);
             return CollectionUtils.isEmpty(currentParamValues) ?
                     queryMapWithAppendedParams(queryMap, paramName, newParamValues) :
@@ -69,8 +69,8 @@ public enum ParamInitializingStrategy {
      * @param newParamValues new values for the parameter
      * @return a query map, potentially enriched with new parameter values
      */
-    abstract MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
-                                                 String paramName, List<String> newParamValues);
+    public abstract MultiValueMap<String, String> apply(MultiValueMap<String, String> queryMap,
+                                                        String paramName, List<String> newParamValues);
 
     private static MultiValueMap<String, String> queryMapWithReplacedParams(MultiValueMap<String, String> queryMap,
                                                                             String paramName, List<String> newParamValues) {
@@ -0,0 +1,179 @@
+package com.example.dynamicgateway.service.routeLocator;
+
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.routeMatcher.PathTrie;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * An aggregator of per-endpoint {@link Route}s of one application into a single application {@code Route}
+ * <p>
+ * The application {@code Route}'s predicate looks requests up in a dispatch table, a {@link PathTrie} of
+ * method-path template pairs compiled from the {@link ApplicationRouteAggregator#DISPATCH_METHOD_METADATA_KEY method}
+ * and {@link ApplicationRouteAggregator#DISPATCH_PATH_METADATA_KEY path template} metadata of endpoint {@code Route}s.
+ * The matched endpoint {@code Route} is stored as an exchange attribute. The application {@code Route}'s only filter
+ * then runs the matched endpoint {@code Route}'s filters, so per-endpoint behavior, such as request rewriting
+ * and circuit breaking, is preserved
+ * <p>
+ * Endpoint {@code Route}s without dispatch metadata are ignored
+ *
+ * @see GatewayMeta.RouteLookup#APPLICATION
+ */
+public final class ApplicationRouteAggregator {
+    /**
+     * Key of the endpoint {@code Route}'s metadata entry that holds the name of the endpoint's method
+     */
+    public static final String DISPATCH_METHOD_METADATA_KEY = "dispatch-method";
+    /**
+     * Key of the endpoint {@code Route}'s metadata entry that holds the template of request paths
+     * the endpoint is available at, including all prefixes expected by this Gateway
+     */
+    public static final String DISPATCH_PATH_METADATA_KEY = "dispatch-path";
+    /**
+     * Name of the exchange attribute that holds the endpoint {@code Route} the request is dispatched to
+     */
+    public static final String DISPATCHED_ROUTE_ATTR = ApplicationRouteAggregator.class.getName() + ".dispatchedRoute";
+
+    /**
+     * Returns a predicate that matches exchanges dispatched to the endpoint {@code Route} with the passed ID
+     *
+     * @param routeId ID of an endpoint {@code Route}
+     * @throws NullPointerException if the ID is {@code null}
+     */
+    public static AsyncPredicate<ServerWebExchange> dispatchedRoutePredicate(@NonNull String routeId) {
+        Objects.requireNonNull(routeId);
+        return new DispatchedRoutePredicate(routeId);
+    }
+
+    /**
+     * Builds a single {@code Route} that dispatches requests to the passed endpoint {@code Route}s
+     *
+     * @param appName        name of the application that services all the endpoint {@code Route}s.
+     *                       It's used as the ID of the returned {@code Route}
+     * @param endpointRoutes {@code Route}s of the application's endpoints, all having the same {@link Route#getUri() URI}
+     * @return an application {@code Route}
+     * @throws NullPointerException     if either of the arguments is {@code null}
+     * @throws IllegalArgumentException if there are no endpoint {@code Route}s
+     */
+    public Route aggregate(@NonNull String appName, @NonNull Collection<Route> endpointRoutes) {
+        Stream.of(appName, endpointRoutes).forEach(Objects::requireNonNull);
+        if (endpointRoutes.isEmpty()) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Cannot aggregate an empty collection of {0}''s routes", appName));
+        }
+        PathTrie<DispatchEntry> dispatchTable = PathTrie.empty();
+        for (Route endpointRoute : endpointRoutes) {
+            Object method = endpointRoute.getMetadata().get(DISPATCH_METHOD_METADATA_KEY);
+            Object pathTemplate = endpointRoute.getMetadata().get(DISPATCH_PATH_METADATA_KEY);
+            if (method == null || pathTemplate == null) continue;
+            dispatchTable = dispatchTable.with(HttpMethod.valueOf(method.toString()), pathTemplate.toString(),
+                    new DispatchEntry(endpointRoute));
+        }
+        Route anyEndpointRoute = endpointRoutes.iterator().next();
+        return Route.async()
+                .id(appName)
+                .uri(anyEndpointRoute.getUri())
+                .metadata(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName)
+                .asyncPredicate(new DispatchingPredicate(dispatchTable))
+                .filter(new OrderedGatewayFilter(DispatchingGatewayFilter.INSTANCE, 0))
+                .build();
+    }
+
+    private static final class DispatchEntry {
+        private final Route endpointRoute;
+        private final List<GatewayFilter> sortedFilters;
+
+        private DispatchEntry(Route endpointRoute) {
+            this.endpointRoute = endpointRoute;
+            List<GatewayFilter> filters = new ArrayList<>(endpointRoute.getFilters());
+            AnnotationAwareOrderComparator.sort(filters);
+            this.sortedFilters = List.copyOf(filters);
+        }
+    }
+
+    private static class DispatchingPredicate implements AsyncPredicate<ServerWebExchange> {
+        private final PathTrie<DispatchEntry> dispatchTable;
+
+        private DispatchingPredicate(PathTrie<DispatchEntry> dispatchTable) {
+            this.dispatchTable = dispatchTable;
+        }
+
+        @Override
+        public Publisher<Boolean> apply(ServerWebExchange exchange) {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().pathWithinApplication().value();
+            return Mono.just(dispatchTable.find(request.getMethod(), path)
+                    .map(match -> {
+                        exchange.getAttributes().put(DISPATCHED_ROUTE_ATTR, match.getValue());
+                        ServerWebExchangeUtils.putUriTemplateVariables(exchange, match.getUriVariables());
+                        return true;
+                    })
+                    .orElse(false));
+        }
+
+        @Override
+        public String toString() {
+            return "Dispatch table";
+        }
+    }
+
+    private static class DispatchingGatewayFilter implements GatewayFilter {
+        private static final DispatchingGatewayFilter INSTANCE = new DispatchingGatewayFilter();
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            DispatchEntry dispatchEntry = exchange.getAttribute(DISPATCHED_ROUTE_ATTR);
+            if (dispatchEntry == null) return chain.filter(exchange);
+            return filter(dispatchEntry.sortedFilters, 0, exchange, chain);
+        }
+
+        private static Mono<Void> filter(List<GatewayFilter> filters, int index,
+                                         ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (index == filters.size()) return chain.filter(exchange);
+            return filters.get(index).filter(exchange,
+                    nextExchange -> filter(filters, index + 1, nextExchange, chain));
+        }
+
+        @Override
+        public String toString() {
+            return "Dispatching";
+        }
+    }
+
+    private static class DispatchedRoutePredicate implements AsyncPredicate<ServerWebExchange> {
+        private final String routeId;
+
+        private DispatchedRoutePredicate(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public Publisher<Boolean> apply(ServerWebExchange exchange) {
+            DispatchEntry dispatchEntry = exchange.getAttribute(DISPATCHED_ROUTE_ATTR);
+            return Mono.just(dispatchEntry != null && routeId.equals(dispatchEntry.endpointRoute.getId()));
+        }
+
+        @Override
+        public String toString() {
+            return MessageFormat.format("Dispatched to: {0}", routeId);
+        }
+    }
+}
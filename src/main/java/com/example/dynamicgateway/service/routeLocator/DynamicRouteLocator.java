@@ -1,67 +1,130 @@
 package com.example.dynamicgateway.service.routeLocator;
 
-import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
-import com.example.dynamicgateway.events.DocumentedEndpointFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.routeProcessor.EndpointRouteAssembler;
+import com.example.dynamicgateway.util.EndpointUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A {@link RouteLocator} that dynamically supplies {@link Route}s built from
- * {@link DocumentedEndpointFoundEvent found} {@link DocumentedEndpoint}s
+ * A {@link RouteLocator} that dynamically supplies {@link Route}s built from {@link DocumentedEndpoint}s
+ * of {@link DocumentedApplicationFoundEvent found} applications, application by application.
+ * {@link DocumentedApplicationUpdatedEvent Updated} applications have their {@code Route}s diffed incrementally
+ * <p>
+ * Readers never observe the mutable route collection directly. Instead, each change is
+ * published as a new immutable {@link RouteTable} that replaces the previous one
+ * in a single volatile write
+ * <p>
+ * {@code Route}s are partitioned by the hosts of their {@link Route#getUri() URIs} which are
+ * names of the applications servicing them. Losing an application removes its whole partition
+ * at once without touching {@code Route}s of any other application
+ * <p>
+ * Every change of a partition schedules a {@link RefreshRoutesEvent} scoped to the affected application
+ * by {@link DynamicRouteLocator#APP_NAME_METADATA_KEY route metadata}. Changes made within
+ * {@link GatewayMeta#getRefreshDelay() refresh delay} of the first unpublished change are coalesced,
+ * so that a burst of found endpoints results in one refresh per application
+ * <p>
+ * If {@link GatewayMeta#getRouteLookup() route lookup} is {@link GatewayMeta.RouteLookup#APPLICATION application},
+ * each partition is published as a single {@code Route} {@link ApplicationRouteAggregator aggregated} from it.
+ * Only the aggregates of changed partitions are rebuilt
  */
 @Component
 @Slf4j
 public class DynamicRouteLocator implements RouteLocator {
-    private final Set<Route> routes = ConcurrentHashMap.newKeySet();
+    /**
+     * Key of the {@link Route#getMetadata() route metadata} entry that holds the name of the
+     * application servicing the {@code Route}
+     */
+    public static final String APP_NAME_METADATA_KEY = "app-name";
+    private final Map<String, Set<Route>> routesByAppName = new LinkedHashMap<>();
+    private final Map<String, DocumentedEndpoint<?>> endpointsByRouteId = new HashMap<>();
+    private final Map<String, Route> applicationRoutesByAppName = new LinkedHashMap<>();
+    private final Set<String> appNamesPendingRefresh = new LinkedHashSet<>();
     private final List<EndpointRouteAssembler> endpointRouteAssemblers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GatewayMeta gatewayMeta;
+    private final ApplicationRouteAggregator applicationRouteAggregator;
+    private volatile RouteTable routeTable = RouteTable.empty();
+    private Disposable scheduledRefresh = Disposables.disposed();
 
-    public DynamicRouteLocator(List<EndpointRouteAssembler> endpointRouteAssemblers) {
+    public DynamicRouteLocator(List<EndpointRouteAssembler> endpointRouteAssemblers,
+                               ApplicationEventPublisher eventPublisher,
+                               GatewayMeta gatewayMeta) {
         this.endpointRouteAssemblers = endpointRouteAssemblers;
+        this.eventPublisher = eventPublisher;
+        this.gatewayMeta = gatewayMeta;
+        this.applicationRouteAggregator = gatewayMeta.getRouteLookup() == GatewayMeta.RouteLookup.APPLICATION ?
+                new ApplicationRouteAggregator() :
+                null;
     }
 
     /**
-     * Returns a {@code Flux} of all endpoints contained in this {@code RouteLocator}'s
-     * {@code Route} collection
+     * Returns a {@code Flux} of all {@code Route}s contained in the current {@link RouteTable}.
+     * The returned {@code Flux} is bound to the snapshot that was current at the time of
+     * invocation and is not affected by later changes
      */
     @Override
     public Flux<Route> getRoutes() {
-        log.info("getRoutes() is invoked. The method is about to return a Flux of {} route(s)",
-                routes.size());
-        return Flux.fromIterable(routes);
+        RouteTable currentRouteTable = routeTable;
+        log.info("getRoutes() is invoked. The method is about to return a Flux of {} route(s) of {}",
+                currentRouteTable.size(), currentRouteTable);
+        return currentRouteTable.toFlux();
     }
 
     /**
-     * Assembles a new {@code Route} with the injected {@link EndpointRouteAssembler}s and then
-     * adds it to this {@code RouteLocator}s {@code Route} collection
-     *
-     * @param event the carrier of the found {@code DocumentedEndpoint}
+     * Returns a {@code Flux} of {@code Route}s whose metadata contains all entries of the passed map.
+     * If the map consists of a single {@link DynamicRouteLocator#APP_NAME_METADATA_KEY app name} entry,
+     * the {@code Route}s are taken directly from the application's partition (or its aggregate)
      */
-    @EventListener
-    public void onDocumentedEndpointFoundEvent(DocumentedEndpointFoundEvent event) {
-        Mono.justOrEmpty(event)
-                .mapNotNull(DocumentedEndpointFoundEvent::getFoundEndpoint)
-                .map(this::transformToRoute)
-                .filter(routes::add)
-                .subscribe(route -> log.info("""
-                            New route is built:
-                            -----------------------------------
-                            {}
-                            -----------------------------------
-                            Will be available at the next getRoutes() invocation
-                        """, route));
+    @Override
+    public Flux<Route> getRoutesByMetadata(Map<String, Object> metadata) {
+        if (metadata.size() == 1 && metadata.get(APP_NAME_METADATA_KEY) instanceof String appName) {
+            return Flux.fromIterable(routesOf(appName));
+        }
+        return RouteLocator.super.getRoutesByMetadata(metadata);
+    }
+
+    private synchronized List<Route> routesOf(String appName) {
+        if (applicationRouteAggregator != null) {
+            Route applicationRoute = applicationRoutesByAppName.get(appName);
+            return (applicationRoute == null) ? Collections.emptyList() : List.of(applicationRoute);
+        }
+        Set<Route> routes = routesByAppName.get(appName);
+        return (routes == null) ? Collections.emptyList() : List.copyOf(routes);
+    }
+
+    /**
+     * Returns the most recently published {@link RouteTable}
+     */
+    public RouteTable getRouteTable() {
+        return routeTable;
+    }
+
+    private BuiltRoute build(DocumentedEndpoint<?> documentedEndpoint) {
+        return new BuiltRoute(transformToRoute(documentedEndpoint), documentedEndpoint);
     }
 
     private Route transformToRoute(DocumentedEndpoint<?> documentedEndpoint) {
@@ -73,25 +136,186 @@ public class DynamicRouteLocator implements RouteLocator {
     }
 
     /**
-     * Evicts all {@code Route}s built after either of the lost application's endpoints.
+     * Assembles {@code Route}s after all endpoints carried by the event and then adds them
+     * to this {@code RouteLocator}s {@code Route} collection as a single batch. No matter how many
+     * {@code Route}s are added, at most one {@link RouteTable} is published
+     *
+     * @param event the carrier of the found application's endpoints
+     */
+    @EventListener
+    public void onDocumentedApplicationFoundEvent(DocumentedApplicationFoundEvent event) {
+        List<BuiltRoute> builtRoutes = event.getFoundEndpoints().stream()
+                .map(this::build)
+                .toList();
+        List<Route> addedRoutes = addRoutes(builtRoutes);
+        log.info("{} new route(s) are built for {}. Will be available at the next getRoutes() invocation",
+                addedRoutes.size(), event.getFoundApp().getName());
+        addedRoutes.forEach(route -> log.debug("New route is built: {}", route));
+    }
+
+    private synchronized List<Route> addRoutes(List<BuiltRoute> builtRoutes) {
+        List<Route> addedRoutes = new ArrayList<>();
+        Set<String> affectedAppNames = new LinkedHashSet<>();
+        for (BuiltRoute builtRoute : builtRoutes) {
+            Route route = builtRoute.getRoute();
+            String appName = route.getUri().getHost();
+            boolean isRouteAdded = routesByAppName
+                    .computeIfAbsent(appName, name -> new LinkedHashSet<>())
+                    .add(route);
+            if (isRouteAdded) {
+                endpointsByRouteId.put(route.getId(), builtRoute.getEndpoint());
+                addedRoutes.add(route);
+                affectedAppNames.add(appName);
+            }
+        }
+        if (!addedRoutes.isEmpty()) {
+            publishRouteTable(affectedAppNames);
+            affectedAppNames.forEach(this::scheduleRefresh);
+        }
+        return addedRoutes;
+    }
+
+    /**
+     * Assembles {@code Route}s after all current endpoints of the updated application and diffs them
+     * against the application's partition by {@link Route#getId() ID}. {@code Route}s with known IDs are
+     * kept as they are unless {@link EndpointUtil#detailsFingerprint(DocumentedEndpoint) details} of their
+     * endpoints have changed, in which case they are replaced with the rebuilt ones. {@code Route}s with new IDs
+     * are added, and {@code Route}s whose IDs are absent from the update are removed. If anything changed,
+     * a single {@link RouteTable} is published
+     *
+     * @param event the carrier of the updated application's endpoints
+     */
+    @EventListener
+    public void onDocumentedApplicationUpdatedEvent(DocumentedApplicationUpdatedEvent event) {
+        String appName = event.getUpdatedApp().getName();
+        List<BuiltRoute> builtRoutes = event.getEndpoints().stream()
+                .map(this::build)
+                .toList();
+        replaceRoutesOf(appName, builtRoutes);
+    }
+
+    private synchronized void replaceRoutesOf(String appName, List<BuiltRoute> builtRoutes) {
+        Map<String, Route> oldRoutesById = new LinkedHashMap<>();
+        routesByAppName.getOrDefault(appName, Collections.emptySet())
+                .forEach(route -> oldRoutesById.put(route.getId(), route));
+        Set<Route> newRoutes = new LinkedHashSet<>();
+        int addedRouteCount = 0;
+        int rebuiltRouteCount = 0;
+        for (BuiltRoute builtRoute : builtRoutes) {
+            Route route = builtRoute.getRoute();
+            Route oldRoute = oldRoutesById.remove(route.getId());
+            DocumentedEndpoint<?> oldEndpoint = endpointsByRouteId.put(route.getId(), builtRoute.getEndpoint());
+            if (oldRoute == null) {
+                addedRouteCount++;
+            } else if (haveDifferentDetails(oldEndpoint, builtRoute.getEndpoint())) {
+                rebuiltRouteCount++;
+            } else {
+                route = oldRoute;
+            }
+            newRoutes.add(route);
+        }
+        int removedRouteCount = oldRoutesById.size();
+        oldRoutesById.keySet().forEach(endpointsByRouteId::remove);
+        if (addedRouteCount == 0 && rebuiltRouteCount == 0 && removedRouteCount == 0) return;
+        if (newRoutes.isEmpty()) {
+            routesByAppName.remove(appName);
+        } else {
+            routesByAppName.put(appName, newRoutes);
+        }
+        publishRouteTable(Set.of(appName));
+        scheduleRefresh(appName);
+        log.info("Routes of updated {} are diffed: {} added, {} rebuilt, {} removed",
+                appName, addedRouteCount, rebuiltRouteCount, removedRouteCount);
+    }
+
+    private static boolean haveDifferentDetails(DocumentedEndpoint<?> oldEndpoint, DocumentedEndpoint<?> newEndpoint) {
+        return !EndpointUtil.detailsFingerprint(oldEndpoint).equals(EndpointUtil.detailsFingerprint(newEndpoint));
+    }
+
+    /**
+     * Evicts all {@code Route}s built after either of the lost application's endpoints once they are
+     * {@link DocumentedEndpointsEvictedEvent evicted} from the endpoint collector.
      * This method makes such a connection by comparing the hosts of
      * its {@code Route}s' {@link Route#getUri() URIs} with the lost application's
-     * {@link DiscoverableApplication#getName() name}. A {@code Route} is evicted if {@code equals()}
-     * between the two returns {@code true}
+     * {@link DiscoverableApplication#getName() name}. All {@code Route}s whose hosts are
+     * equal to the name are stored in one partition which is removed in a single operation.
+     * The eviction is published as a single {@link RouteTable}
      *
-     * @param event the carrier of the lost application
+     * @param event the carrier of the lost application's name
      */
     @EventListener
-    public void onDiscoverableApplicationLostEvent(DiscoverableApplicationLostEvent event) {
-        for (Iterator<Route> iterator = routes.iterator(); iterator.hasNext(); ) {
-            Route route = iterator.next();
-            String routesAppName = route.getUri().getHost();
-            String lostAppName = event.getLostApp().getName();
-            if (routesAppName.equals(lostAppName)) {
-                iterator.remove();
-                log.info("Route {} serviced by lost {} was evicted",
-                        route.getId(), lostAppName);
-            }
+    public synchronized void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        String lostAppName = event.getAppName();
+        Set<Route> evictedRoutes = routesByAppName.remove(lostAppName);
+        if (evictedRoutes != null) {
+            evictedRoutes.forEach(route -> endpointsByRouteId.remove(route.getId()));
+            publishRouteTable(Set.of(lostAppName));
+            scheduleRefresh(lostAppName);
+            log.info("{} route(s) serviced by lost {} were evicted", evictedRoutes.size(), lostAppName);
+        }
+    }
+
+    private void publishRouteTable(Set<String> affectedAppNames) {
+        List<Route> routes = new ArrayList<>();
+        if (applicationRouteAggregator != null) {
+            affectedAppNames.forEach(this::reaggregate);
+            routes.addAll(applicationRoutesByAppName.values());
+        } else {
+            routesByAppName.values().forEach(routes::addAll);
+        }
+        routeTable = routeTable.next(routes);
+        log.debug("{} is published", routeTable);
+    }
+
+    private void reaggregate(String appName) {
+        Set<Route> endpointRoutes = routesByAppName.get(appName);
+        if (endpointRoutes == null) {
+            applicationRoutesByAppName.remove(appName);
+        } else {
+            applicationRoutesByAppName.put(appName,
+                    applicationRouteAggregator.aggregate(appName, endpointRoutes));
+        }
+    }
+
+    private void scheduleRefresh(String appName) {
+        appNamesPendingRefresh.add(appName);
+        if (scheduledRefresh.isDisposed()) {
+            scheduledRefresh = Mono.delay(gatewayMeta.getRefreshDelay())
+                    .subscribe(
+                            tick -> publishPendingRefreshes(),
+                            throwable -> log.warn("Couldn't publish scoped route refreshes", throwable)
+                    );
+        }
+    }
+
+    private void publishPendingRefreshes() {
+        List<String> appNames;
+        synchronized (this) {
+            appNames = List.copyOf(appNamesPendingRefresh);
+            appNamesPendingRefresh.clear();
+            scheduledRefresh = Disposables.disposed();
+        }
+        for (String appName : appNames) {
+            eventPublisher.publishEvent(new RefreshRoutesEvent(this, Map.of(APP_NAME_METADATA_KEY, appName)));
+            log.debug("Scoped route refresh for {} is published", appName);
+        }
+    }
+
+    private static final class BuiltRoute {
+        private final Route route;
+        private final DocumentedEndpoint<?> endpoint;
+
+        private BuiltRoute(Route route, DocumentedEndpoint<?> endpoint) {
+            this.route = route;
+            this.endpoint = endpoint;
+        }
+
+        private Route getRoute() {
+            return route;
+        }
+
+        private DocumentedEndpoint<?> getEndpoint() {
+            return endpoint;
         }
     }
 }
@@ -0,0 +1,83 @@
+package com.example.dynamicgateway.service.routeLocator;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, versioned snapshot of {@link Route}s
+ * <p>
+ * A {@code RouteTable} never changes once created. Its {@code Route}s are sorted by their
+ * {@link Route#getOrder() order} at creation time so that readers can consume them as is.
+ * A new snapshot of the same lineage is created by calling {@link RouteTable#next(Collection)}
+ * which increments the version by one
+ */
+public final class RouteTable {
+    private static final Comparator<Route> ROUTE_ORDER = Comparator.comparingInt(Route::getOrder);
+    private static final RouteTable EMPTY = new RouteTable(0, new Route[0]);
+    private final long version;
+    private final Route[] routes;
+
+    private RouteTable(long version, Route[] routes) {
+        this.version = version;
+        this.routes = routes;
+    }
+
+    /**
+     * Returns an empty {@code RouteTable} with the version of zero
+     */
+    public static RouteTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a successor of this {@code RouteTable} that contains the provided {@code Route}s
+     * and whose version is greater than this table's version by one. The passed collection
+     * is copied, so later changes to it do not affect the returned table
+     *
+     * @param routes {@code Route}s the new table should contain
+     * @return a new {@code RouteTable}
+     * @throws NullPointerException if the collection is {@code null}
+     */
+    public RouteTable next(@NonNull Collection<Route> routes) {
+        Objects.requireNonNull(routes);
+        Route[] sortedRoutes = routes.toArray(new Route[0]);
+        Arrays.sort(sortedRoutes, ROUTE_ORDER);
+        return new RouteTable(version + 1, sortedRoutes);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    /**
+     * Returns an unmodifiable view of this table's {@code Route}s sorted by their order
+     */
+    public List<Route> getRoutes() {
+        return Collections.unmodifiableList(Arrays.asList(routes));
+    }
+
+    /**
+     * Returns a {@code Flux} that publishes this table's {@code Route}s sorted by their order
+     */
+    public Flux<Route> toFlux() {
+        return Flux.fromArray(routes);
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format("RouteTable v{0,number,#} ({1} route(s))", version, routes.length);
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.dynamicgateway.service.routeMatcher;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+
+/**
+ * An immutable segment trie that maps method-path template pairs to values
+ * <p>
+ * Each HTTP method has its own root. Path templates are split into segments by forward slashes and support
+ * the same syntax as Spring's {@code PathPattern}s:
+ * <ul>
+ *     <li>a literal segment, such as {@code users}, matches only an equal request path segment</li>
+ *     <li>a variable segment, such as {@code {id}}, matches any non-empty request path segment</li>
+ *     <li>a pattern segment, such as {@code {id:\d+}}, {@code {name}.json} or {@code *.json}, matches
+ *     a non-empty decoded request path segment that matches the segment's regular expression</li>
+ *     <li>a trailing capture-the-rest segment, {@code {*path}} or {@code **}, matches the remaining
+ *     request path segments, if any</li>
+ * </ul>
+ * When looking up a request path, literal segments take precedence over pattern segments, which take
+ * precedence over variable segments, so {@code /users/me} wins over {@code /users/{id}}
+ * for a request path {@code /users/me}. Pattern segments are tried in the order they were added.
+ * Templates that differ only in variable names, such as {@code /users/{id}} and {@code /users/{userId}},
+ * are stored separately, and the one added first wins
+ * <p>
+ * The cost of a lookup depends on the depth of the request path, not the number of
+ * stored templates. Modifying operations return a new {@code PathTrie} that shares all unchanged
+ * nodes with this one, so a {@code PathTrie} can be read concurrently without synchronization
+ *
+ * @param <V> type of stored values
+ */
+public final class PathTrie<V> {
+    private static final PathTrie<?> EMPTY = new PathTrie<>(Collections.emptyMap());
+    private final Map<HttpMethod, Node<V>> roots;
+
+    private PathTrie(Map<HttpMethod, Node<V>> roots) {
+        this.roots = roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PathTrie<V> empty() {
+        return (PathTrie<V>) EMPTY;
+    }
+
+    /**
+     * Returns a {@code PathTrie} that additionally maps the method-template pair to the value.
+     * If the pair is already mapped, its value is replaced
+     *
+     * @param method       HTTP method
+     * @param pathTemplate path template, for example {@code /users/{id}}
+     * @param value        value to store
+     * @return a new {@code PathTrie}
+     * @throws NullPointerException     if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public PathTrie<V> with(@NonNull HttpMethod method, @NonNull String pathTemplate, @NonNull V value) {
+        Stream.of(method, pathTemplate, value).forEach(Objects::requireNonNull);
+        String[] rawSegments = splitIntoSegments(pathTemplate);
+        TemplateSegment[] templateSegments = parseTemplate(rawSegments);
+        Node<V> root = roots.getOrDefault(method, Node.empty());
+        Node<V> newRoot = root.with(templateSegments, 0, templateKey(rawSegments), new Entry<>(value, templateSegments));
+        return withRoot(method, newRoot);
+    }
+
+    /**
+     * Returns a {@code PathTrie} that no longer maps the method-template pair. If the pair
+     * is not mapped, returns this {@code PathTrie}
+     *
+     * @throws NullPointerException     if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public PathTrie<V> without(@NonNull HttpMethod method, @NonNull String pathTemplate) {
+        Stream.of(method, pathTemplate).forEach(Objects::requireNonNull);
+        Node<V> root = roots.get(method);
+        if (root == null) return this;
+        String[] rawSegments = splitIntoSegments(pathTemplate);
+        Node<V> newRoot = root.without(parseTemplate(rawSegments), 0, templateKey(rawSegments));
+        return (newRoot == root) ? this : withRoot(method, newRoot);
+    }
+
+    private PathTrie<V> withRoot(HttpMethod method, Node<V> newRoot) {
+        Map<HttpMethod, Node<V>> newRoots = new HashMap<>(roots);
+        if (newRoot.isEmpty()) newRoots.remove(method);
+        else newRoots.put(method, newRoot);
+        return new PathTrie<>(Collections.unmodifiableMap(newRoots));
+    }
+
+    /**
+     * Finds the value whose template matches the request path, preferring literal segments
+     * over pattern segments and pattern segments over variable segments at each level.
+     * A single trailing slash of the request path is ignored
+     *
+     * @param method      request method
+     * @param requestPath raw request path, for example {@code /users/42}
+     * @return an {@code Optional} of a {@link Match} or an empty {@code Optional} if no template
+     * registered for the method matches the path
+     */
+    public Optional<Match<V>> find(@NonNull HttpMethod method, @NonNull String requestPath) {
+        Node<V> root = roots.get(method);
+        if (root == null) return Optional.empty();
+        String[] pathSegments = splitIntoSegments(requestPath);
+        Entry<V> matchingEntry = root.find(pathSegments, 0);
+        return Optional.ofNullable(matchingEntry)
+                .map(entry -> new Match<>(entry.value, entry.extractUriVariables(pathSegments)));
+    }
+
+    public boolean isEmpty() {
+        return roots.isEmpty();
+    }
+
+    static String[] splitIntoSegments(String path) {
+        List<String> segments = new ArrayList<>();
+        int segmentStart = path.startsWith("/") ? 1 : 0;
+        int length = path.endsWith("/") ? path.length() - 1 : path.length();
+        while (segmentStart <= length && length > 0) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0) segmentEnd = length;
+            segments.add(path.substring(segmentStart, segmentEnd));
+            segmentStart = segmentEnd + 1;
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static TemplateSegment[] parseTemplate(String[] rawSegments) {
+        TemplateSegment[] templateSegments = new TemplateSegment[rawSegments.length];
+        for (int i = 0; i < rawSegments.length; i++) {
+            templateSegments[i] = TemplateSegment.parse(rawSegments[i]);
+            if (templateSegments[i].kind == SegmentKind.CAPTURE_REST && i < rawSegments.length - 1) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "{0} must be the last segment of a path template", rawSegments[i]));
+            }
+        }
+        return templateSegments;
+    }
+
+    private static String templateKey(String[] rawSegments) {
+        return String.join("/", rawSegments);
+    }
+
+    private static String decode(String pathSegment) {
+        return StringUtils.uriDecode(pathSegment, StandardCharsets.UTF_8);
+    }
+
+    private static <K, T> Map<K, T> withMapping(Map<K, T> map, K key, T newValue) {
+        Map<K, T> newMap = new LinkedHashMap<>(map);
+        if (newValue == null) newMap.remove(key);
+        else newMap.put(key, newValue);
+        return newMap.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(newMap);
+    }
+
+    private static <T> T firstOf(Map<?, T> map) {
+        return map.isEmpty() ? null : map.values().iterator().next();
+    }
+
+    /**
+     * A result of a successful {@link PathTrie#find(HttpMethod, String) lookup}
+     *
+     * @param <V> type of the matched value
+     */
+    public static final class Match<V> {
+        private final V value;
+        private final Map<String, String> uriVariables;
+
+        private Match(V value, Map<String, String> uriVariables) {
+            this.value = value;
+            this.uriVariables = uriVariables;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Returns an unmodifiable map of decoded values of the matched template's variables keyed
+         * by their names. A capture-the-rest variable, such as {@code {*path}}, holds the remaining
+         * request path segments, each preceded by a forward slash
+         */
+        public Map<String, String> getUriVariables() {
+            return uriVariables;
+        }
+    }
+
+    private enum SegmentKind {
+        LITERAL, VARIABLE, PATTERN, CAPTURE_REST
+    }
+
+    private static final class TemplateSegment {
+        private final SegmentKind kind;
+        private final String text;
+        private final Pattern pattern;
+        private final List<String> variableNames;
+
+        private TemplateSegment(SegmentKind kind, String text, Pattern pattern, List<String> variableNames) {
+            this.kind = kind;
+            this.text = text;
+            this.pattern = pattern;
+            this.variableNames = variableNames;
+        }
+
+        private static TemplateSegment parse(String segment) {
+            if (segment.equals("**")) {
+                return new TemplateSegment(SegmentKind.CAPTURE_REST, segment, null, List.of());
+            }
+            if (segment.indexOf('{') < 0 && segment.indexOf('}') < 0 &&
+                    segment.indexOf('*') < 0 && segment.indexOf('?') < 0) {
+                return new TemplateSegment(SegmentKind.LITERAL, segment, null, List.of());
+            }
+            StringBuilder regex = new StringBuilder();
+            List<String> variableNames = new ArrayList<>();
+            int literalStart = 0;
+            int index = 0;
+            while (index < segment.length()) {
+                char c = segment.charAt(index);
+                if (c == '}') throw malformedSegment(segment);
+                if (c != '{') {
+                    index++;
+                    continue;
+                }
+                appendLiteral(regex, segment.substring(literalStart, index));
+                int variableEnd = findClosingBrace(segment, index);
+                String variable = segment.substring(index + 1, variableEnd);
+                int indexOfColon = variable.indexOf(':');
+                String variableName = (indexOfColon < 0) ? variable : variable.substring(0, indexOfColon);
+                if (variableName.startsWith("*") && indexOfColon < 0 && segment.length() == variable.length() + 2) {
+                    return new TemplateSegment(SegmentKind.CAPTURE_REST, segment, null, List.of(variableName.substring(1)));
+                }
+                if (variableName.isEmpty() || variableName.startsWith("*")) throw malformedSegment(segment);
+                if (indexOfColon < 0 && segment.length() == variable.length() + 2) {
+                    return new TemplateSegment(SegmentKind.VARIABLE, segment, null, List.of(variableName));
+                }
+                regex.append('(').append((indexOfColon < 0) ? ".*" : variable.substring(indexOfColon + 1)).append(')');
+                variableNames.add(variableName);
+                index = variableEnd + 1;
+                literalStart = index;
+            }
+            appendLiteral(regex, segment.substring(literalStart));
+            return new TemplateSegment(SegmentKind.PATTERN, segment, compile(segment, regex.toString(), variableNames),
+                    List.copyOf(variableNames));
+        }
+
+        private static int findClosingBrace(String segment, int openingBraceIndex) {
+            int depth = 0;
+            for (int i = openingBraceIndex; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '\\') i++;
+                else if (c == '{') depth++;
+                else if (c == '}' && --depth == 0) return i;
+            }
+            throw malformedSegment(segment);
+        }
+
+        private static void appendLiteral(StringBuilder regex, String literal) {
+            int quotedStart = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (c != '*' && c != '?') continue;
+                if (i > quotedStart) regex.append(Pattern.quote(literal.substring(quotedStart, i)));
+                regex.append((c == '*') ? ".*" : ".");
+                quotedStart = i + 1;
+            }
+            if (quotedStart < literal.length()) regex.append(Pattern.quote(literal.substring(quotedStart)));
+        }
+
+        private static Pattern compile(String segment, String regex, List<String> variableNames) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "{0} contains an invalid regular expression", segment), e);
+            }
+            if (pattern.matcher("").groupCount() != variableNames.size()) {
+                throw new IllegalArgumentException(MessageFormat.format(
+                        "Regular expressions of {0} must not contain capturing groups", segment));
+            }
+            return pattern;
+        }
+
+        private static IllegalArgumentException malformedSegment(String segment) {
+            return new IllegalArgumentException(MessageFormat.format("{0} is not a valid path template segment", segment));
+        }
+
+        private boolean matches(String decodedPathSegment) {
+            return pattern.matcher(decodedPathSegment).matches();
+        }
+
+        private void extractUriVariables(String[] pathSegments, int index, Map<String, String> uriVariables) {
+            switch (kind) {
+                case VARIABLE -> uriVariables.put(variableNames.get(0), decode(pathSegments[index]));
+                case PATTERN -> {
+                    Matcher matcher = pattern.matcher(decode(pathSegments[index]));
+                    matcher.matches();
+                    for (int i = 0; i < variableNames.size(); i++) {
+                        uriVariables.put(variableNames.get(i), matcher.group(i + 1));
+                    }
+                }
+                case CAPTURE_REST -> {
+                    if (variableNames.isEmpty()) return;
+                    StringBuilder rest = new StringBuilder();
+                    for (int i = index; i < pathSegments.length; i++) {
+                        rest.append('/').append(decode(pathSegments[i]));
+                    }
+                    uriVariables.put(variableNames.get(0), rest.toString());
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final TemplateSegment[] templateSegments;
+
+        private Entry(V value, TemplateSegment[] templateSegments) {
+            this.value = value;
+            this.templateSegments = templateSegments;
+        }
+
+        private Map<String, String> extractUriVariables(String[] pathSegments) {
+            Map<String, String> uriVariables = new LinkedHashMap<>();
+            for (int i = 0; i < templateSegments.length; i++) {
+                templateSegments[i].extractUriVariables(pathSegments, i, uriVariables);
+            }
+            return Collections.unmodifiableMap(uriVariables);
+        }
+    }
+
+    private static final class PatternChild<V> {
+        private final TemplateSegment segment;
+        private final Node<V> node;
+
+        private PatternChild(TemplateSegment segment, Node<V> node) {
+            this.segment = segment;
+            this.node = node;
+        }
+    }
+
+    private static final class Node<V> {
+        private static final Node<?> EMPTY = new Node<>(Collections.emptyMap(), Collections.emptyMap(), null,
+                Collections.emptyMap(), Collections.emptyMap());
+        private final Map<String, Node<V>> literalChildren;
+        private final Map<String, PatternChild<V>> patternChildren;
+        private final Node<V> variableChild;
+        private final Map<String, Entry<V>> entries;
+        private final Map<String, Entry<V>> captureRestEntries;
+
+        private Node(Map<String, Node<V>> literalChildren, Map<String, PatternChild<V>> patternChildren,
+                     Node<V> variableChild, Map<String, Entry<V>> entries, Map<String, Entry<V>> captureRestEntries) {
+            this.literalChildren = literalChildren;
+            this.patternChildren = patternChildren;
+            this.variableChild = variableChild;
+            this.entries = entries;
+            this.captureRestEntries = captureRestEntries;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V> empty() {
+            return (Node<V>) EMPTY;
+        }
+
+        private boolean isEmpty() {
+            return literalChildren.isEmpty() && patternChildren.isEmpty() && variableChild == null &&
+                    entries.isEmpty() && captureRestEntries.isEmpty();
+        }
+
+        private Node<V> with(TemplateSegment[] segments, int index, String templateKey, Entry<V> entry) {
+            if (index == segments.length) {
+                return new Node<>(literalChildren, patternChildren, variableChild,
+                        withMapping(entries, templateKey, entry), captureRestEntries);
+            }
+            TemplateSegment segment = segments[index];
+            return switch (segment.kind) {
+                case CAPTURE_REST -> new Node<>(literalChildren, patternChildren, variableChild,
+                        entries, withMapping(captureRestEntries, templateKey, entry));
+                case VARIABLE -> {
+                    Node<V> child = (variableChild == null) ? empty() : variableChild;
+                    yield withVariableChild(child.with(segments, index + 1, templateKey, entry));
+                }
+                case PATTERN -> {
+                    PatternChild<V> patternChild = patternChildren.get(segment.text);
+                    Node<V> child = (patternChild == null) ? empty() : patternChild.node;
+                    yield withPatternChild(segment, child.with(segments, index + 1, templateKey, entry));
+                }
+                case LITERAL -> {
+                    Node<V> child = literalChildren.getOrDefault(segment.text, empty());
+                    yield withLiteralChild(segment.text, child.with(segments, index + 1, templateKey, entry));
+                }
+            };
+        }
+
+        private Node<V> without(TemplateSegment[] segments, int index, String templateKey) {
+            if (index == segments.length) {
+                if (!entries.containsKey(templateKey)) return this;
+                return new Node<>(literalChildren, patternChildren, variableChild,
+                        withMapping(entries, templateKey, null), captureRestEntries);
+            }
+            TemplateSegment segment = segments[index];
+            switch (segment.kind) {
+                case CAPTURE_REST -> {
+                    if (!captureRestEntries.containsKey(templateKey)) return this;
+                    return new Node<>(literalChildren, patternChildren, variableChild,
+                            entries, withMapping(captureRestEntries, templateKey, null));
+                }
+                case VARIABLE -> {
+                    if (variableChild == null) return this;
+                    Node<V> newChild = variableChild.without(segments, index + 1, templateKey);
+                    return (newChild == variableChild) ? this : withVariableChild(newChild);
+                }
+                case PATTERN -> {
+                    PatternChild<V> patternChild = patternChildren.get(segment.text);
+                    if (patternChild == null) return this;
+                    Node<V> newChild = patternChild.node.without(segments, index + 1, templateKey);
+                    return (newChild == patternChild.node) ? this : withPatternChild(segment, newChild);
+                }
+                default -> {
+                    Node<V> child = literalChildren.get(segment.text);
+                    if (child == null) return this;
+                    Node<V> newChild = child.without(segments, index + 1, templateKey);
+                    return (newChild == child) ? this : withLiteralChild(segment.text, newChild);
+                }
+            }
+        }
+
+        private Node<V> withVariableChild(Node<V> newChild) {
+            return new Node<>(literalChildren, patternChildren, newChild.isEmpty() ? null : newChild,
+                    entries, captureRestEntries);
+        }
+
+        private Node<V> withPatternChild(TemplateSegment segment, Node<V> newChild) {
+            PatternChild<V> newPatternChild = newChild.isEmpty() ? null : new PatternChild<>(segment, newChild);
+            return new Node<>(literalChildren, withMapping(patternChildren, segment.text, newPatternChild),
+                    variableChild, entries, captureRestEntries);
+        }
+
+        private Node<V> withLiteralChild(String segment, Node<V> newChild) {
+            return new Node<>(withMapping(literalChildren, segment, newChild.isEmpty() ? null : newChild),
+                    patternChildren, variableChild, entries, captureRestEntries);
+        }
+
+        private Entry<V> find(String[] pathSegments, int index) {
+            if (index == pathSegments.length) {
+                Entry<V> entry = firstOf(entries);
+                return (entry != null) ? entry : firstOf(captureRestEntries);
+            }
+            String pathSegment = pathSegments[index];
+            Node<V> literalChild = literalChildren.get(pathSegment);
+            if (literalChild != null) {
+                Entry<V> match = literalChild.find(pathSegments, index + 1);
+                if (match != null) return match;
+            }
+            if (!pathSegment.isEmpty()) {
+                if (!patternChildren.isEmpty()) {
+                    String decodedPathSegment = decode(pathSegment);
+                    for (PatternChild<V> patternChild : patternChildren.values()) {
+                        if (!patternChild.segment.matches(decodedPathSegment)) continue;
+                        Entry<V> match = patternChild.node.find(pathSegments, index + 1);
+                        if (match != null) return match;
+                    }
+                }
+                if (variableChild != null) {
+                    Entry<V> match = variableChild.find(pathSegments, index + 1);
+                    if (match != null) return match;
+                }
+            }
+            return firstOf(captureRestEntries);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.dynamicgateway.service.routeMatcher;
+
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.util.EndpointUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A registry of method-path template pairs compiled into a {@link PathTrie}
+ * <p>
+ * This class supplies the {@link AsyncPredicate}s of {@link Route}s in place of
+ * {@link PathRoutePredicateFactory} predicates. The first predicate applied to an exchange looks
+ * the request up in the trie and caches the result as an exchange attribute. Every
+ * other predicate applied to the same exchange merely compares its own template with the cached one.
+ * As a result, matching a request costs a single trie lookup regardless of the number of routes
+ * <p>
+ * Registrations are tracked per {@link DiscoverableApplication}. A template registered by several
+ * applications stays in the trie until endpoints of all of them are {@link DocumentedEndpointsEvictedEvent evicted}
+ * or no longer declare it after an {@link DocumentedApplicationUpdatedEvent update}
+ *
+ * @see GatewayMeta#getRouteLookup()
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway", name = "route-lookup", havingValue = "trie")
+@Slf4j
+public class TrieRouteMatcher {
+    /**
+     * Name of the exchange attribute that holds the key of the template matched by the request
+     * or an empty string if no template matched it
+     */
+    public static final String MATCHED_ROUTE_KEY_ATTR = TrieRouteMatcher.class.getName() + ".matchedRouteKey";
+    private static final String NO_MATCH = "";
+    private final Map<String, Set<String>> appNamesByRouteKey = new HashMap<>();
+    private final Map<String, Set<RouteKey>> routeKeysByAppName = new HashMap<>();
+    private final GatewayMeta gatewayMeta;
+    private volatile PathTrie<String> trie = PathTrie.empty();
+
+    public TrieRouteMatcher(GatewayMeta gatewayMeta) {
+        this.gatewayMeta = gatewayMeta;
+    }
+
+    /**
+     * Registers the method-path template pair on behalf of the application and returns
+     * a predicate that matches requests the pair is the best match for
+     *
+     * @param appName      name of the application that exposes the endpoint
+     * @param method       endpoint's method
+     * @param pathTemplate template of request paths the endpoint is available at, including
+     *                     all prefixes expected by this Gateway
+     * @return an {@code AsyncPredicate} backed by this {@code TrieRouteMatcher}
+     * @throws NullPointerException     if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public synchronized AsyncPredicate<ServerWebExchange> register(@NonNull String appName,
+                                                                   @NonNull HttpMethod method,
+                                                                   @NonNull String pathTemplate) {
+        Stream.of(appName, method, pathTemplate).forEach(Objects::requireNonNull);
+        RouteKey routeKey = new RouteKey(method, pathTemplate);
+        Set<String> owners = appNamesByRouteKey.getOrDefault(routeKey.value(), Set.of());
+        if (owners.isEmpty()) {
+            trie = trie.with(method, pathTemplate, routeKey.value());
+        }
+        routeKeysByAppName.computeIfAbsent(appName, name -> new HashSet<>()).add(routeKey);
+        appNamesByRouteKey.computeIfAbsent(routeKey.value(), key -> new HashSet<>()).add(appName);
+        return new TrieRoutePredicate(routeKey.value());
+    }
+
+    /**
+     * Removes all method-path template pairs registered by the lost application, unless
+     * they are also registered by some other application
+     *
+     * @param event the carrier of the lost application's name
+     */
+    @EventListener
+    public synchronized void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        String lostAppName = event.getAppName();
+        Set<RouteKey> routeKeys = routeKeysByAppName.remove(lostAppName);
+        if (routeKeys == null) return;
+        release(lostAppName, routeKeys);
+        log.info("{} template(s) registered by lost {} were released", routeKeys.size(), lostAppName);
+    }
+
+    /**
+     * Removes method-path template pairs registered by the updated application that none of its current
+     * endpoints match anymore, unless they are also registered by some other application. Templates of
+     * the current endpoints are registered when their {@code Route}s are built, so the result doesn't depend
+     * on whether this listener is invoked before or after the {@code Route}s are rebuilt
+     *
+     * @param event the carrier of the updated application's current endpoints
+     */
+    @EventListener
+    public synchronized void onDocumentedApplicationUpdatedEvent(DocumentedApplicationUpdatedEvent event) {
+        String appName = event.getUpdatedApp().getName();
+        Set<RouteKey> routeKeys = routeKeysByAppName.get(appName);
+        if (routeKeys == null) return;
+        Set<RouteKey> currentRouteKeys = event.getEndpoints().stream()
+                .map(endpoint -> new RouteKey(endpoint.getDetails().getMethod(),
+                        EndpointUtil.matchingPath(endpoint, gatewayMeta)))
+                .collect(Collectors.toSet());
+        Set<RouteKey> removedRouteKeys = new HashSet<>(routeKeys);
+        removedRouteKeys.removeAll(currentRouteKeys);
+        if (removedRouteKeys.isEmpty()) return;
+        routeKeys.removeAll(removedRouteKeys);
+        if (routeKeys.isEmpty()) routeKeysByAppName.remove(appName);
+        release(appName, removedRouteKeys);
+        log.info("{} template(s) no longer declared by updated {} were released", removedRouteKeys.size(), appName);
+    }
+
+    private void release(String appName, Set<RouteKey> routeKeys) {
+        PathTrie<String> newTrie = trie;
+        for (RouteKey routeKey : routeKeys) {
+            Set<String> owners = appNamesByRouteKey.get(routeKey.value());
+            owners.remove(appName);
+            if (owners.isEmpty()) {
+                appNamesByRouteKey.remove(routeKey.value());
+                newTrie = newTrie.without(routeKey.method(), routeKey.pathTemplate());
+            }
+        }
+        trie = newTrie;
+    }
+
+    /**
+     * Returns the key of the template that best matches the exchange's request or an empty
+     * string if there's no such template. The result is computed once per exchange
+     */
+    String findMatchingRouteKey(ServerWebExchange exchange) {
+        String matchedRouteKey = exchange.getAttribute(MATCHED_ROUTE_KEY_ATTR);
+        if (matchedRouteKey != null) return matchedRouteKey;
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        Optional<PathTrie.Match<String>> match = trie.find(request.getMethod(), path);
+        match.ifPresent(m -> ServerWebExchangeUtils.putUriTemplateVariables(exchange, m.getUriVariables()));
+        matchedRouteKey = match.map(PathTrie.Match::getValue).orElse(NO_MATCH);
+        exchange.getAttributes().put(MATCHED_ROUTE_KEY_ATTR, matchedRouteKey);
+        return matchedRouteKey;
+    }
+
+    private class TrieRoutePredicate implements AsyncPredicate<ServerWebExchange> {
+        private final String routeKey;
+
+        private TrieRoutePredicate(String routeKey) {
+            this.routeKey = routeKey;
+        }
+
+        @Override
+        public Publisher<Boolean> apply(ServerWebExchange exchange) {
+            return Mono.just(routeKey.equals(findMatchingRouteKey(exchange)));
+        }
+
+        @Override
+        public String toString() {
+            return MessageFormat.format("Trie: {0}", routeKey);
+        }
+    }
+
+    private static final class RouteKey {
+        private final HttpMethod method;
+        private final String pathTemplate;
+
+        private RouteKey(HttpMethod method, String pathTemplate) {
+            this.method = method;
+            this.pathTemplate = pathTemplate;
+        }
+
+        private HttpMethod method() {
+            return method;
+        }
+
+        private String pathTemplate() {
+            return pathTemplate;
+        }
+
+        private String value() {
+            return method.name() + " " + pathTemplate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RouteKey that)) return false;
+            return method.equals(that.method) && pathTemplate.equals(that.pathTemplate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, pathTemplate);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.dynamicgateway.service.routeProcessor;
+
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.paramInitializer.ParamInitializer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A {@link GatewayFilter} that turns a request received by this Gateway into the request
+ * expected by the upstream endpoint in a single pass
+ * <p>
+ * The filter removes this Gateway's {@link GatewayMeta#getVersionPrefix() version prefix} from the
+ * beginning of the request path, prepends the endpoint's {@link GatewayMeta#getIgnoredPrefixes() ignored prefix}
+ * (if there is one), and initializes query parameters with the injected {@link ParamInitializer}s.
+ * All of that results in exactly one new {@link URI} and one mutation of the request. If there are
+ * no {@code ParamInitializer}s, the original raw query is reused as is
+ * <p>
+ * Two {@code RequestRewritingGatewayFilter}s are equal if they remove and prepend the same prefixes
+ * and apply equal lists of {@code ParamInitializer}s, so equal instances may be shared among routes
+ */
+public class RequestRewritingGatewayFilter implements GatewayFilter {
+    private final String versionPrefix;
+    private final String ignoredPrefix;
+    private final List<ParamInitializer> paramInitializers;
+
+    /**
+     * @param versionPrefix     prefix that should be removed from the beginning of request paths
+     * @param ignoredPrefix     prefix that should be prepended to request paths after the version
+     *                          prefix is removed
+     * @param paramInitializers initializers of query parameters, applied in the iteration order
+     * @throws NullPointerException if any of the arguments is {@code null}
+     */
+    public RequestRewritingGatewayFilter(@NonNull String versionPrefix,
+                                         @NonNull String ignoredPrefix,
+                                         @NonNull List<ParamInitializer> paramInitializers) {
+        Stream.of(versionPrefix, ignoredPrefix, paramInitializers).forEach(Objects::requireNonNull);
+        this.versionPrefix = versionPrefix;
+        this.ignoredPrefix = ignoredPrefix;
+        this.paramInitializers = List.copyOf(paramInitializers);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (paramInitializers.isEmpty()) {
+            String rawQuery = exchange.getRequest().getURI().getRawQuery();
+            return chain.filter(rewriteExchange(exchange, rawQuery));
+        }
+        return initializeQueryParams(exchange)
+                .map(RequestRewritingGatewayFilter::toRawQuery)
+                .flatMap(rawQuery -> chain.filter(rewriteExchange(exchange, rawQuery)));
+    }
+
+    private Mono<MultiValueMap<String, String>> initializeQueryParams(ServerWebExchange exchange) {
+        return Flux.fromIterable(paramInitializers)
+                .concatMap(paramInitializer -> paramInitializer.getParamValues(exchange)
+                        .map(Object::toString)
+                        .collectList()
+                        .map(paramValues -> Map.entry(paramInitializer, paramValues)))
+                .reduce(exchange.getRequest().getQueryParams(), (queryParams, initializerToValues) -> {
+                    ParamInitializer paramInitializer = initializerToValues.getKey();
+                    return paramInitializer.getParamStrategy().apply(
+                            queryParams, paramInitializer.getParamName(), initializerToValues.getValue());
+                });
+    }
+
+    private static String toRawQuery(MultiValueMap<String, String> queryParams) {
+        StringBuilder rawQuery = new StringBuilder();
+        for (Map.Entry<String, List<String>> queryParam : queryParams.entrySet()) {
+            String encodedName = UriUtils.encodeQueryParam(queryParam.getKey(), StandardCharsets.UTF_8);
+            for (String value : queryParam.getValue()) {
+                if (!rawQuery.isEmpty()) rawQuery.append('&');
+                rawQuery.append(encodedName);
+                if (value != null) {
+                    rawQuery.append('=').append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return rawQuery.toString();
+    }
+
+    private ServerWebExchange rewriteExchange(ServerWebExchange exchange, String rawQuery) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI uri = request.getURI();
+        ServerWebExchangeUtils.addOriginalRequestUrl(exchange, uri);
+        URI newUri = UriComponentsBuilder.fromUri(uri)
+                .replacePath(rewritePath(uri.getRawPath()))
+                .replaceQuery(StringUtils.hasLength(rawQuery) ? rawQuery : null)
+                .build(true)
+                .toUri();
+        return exchange.mutate()
+                .request(request.mutate().uri(newUri).build())
+                .build();
+    }
+
+    private String rewritePath(String rawPath) {
+        String pathWithoutVersionPrefix = rawPath.startsWith(versionPrefix) ?
+                rawPath.substring(versionPrefix.length()) :
+                rawPath;
+        String newPath = ignoredPrefix + pathWithoutVersionPrefix;
+        return newPath.isEmpty() ? "/" : newPath;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RequestRewritingGatewayFilter that)) return false;
+        return versionPrefix.equals(that.versionPrefix) &&
+                ignoredPrefix.equals(that.ignoredPrefix) &&
+                paramInitializers.equals(that.paramInitializers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(versionPrefix, ignoredPrefix, paramInitializers);
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format("RequestRewriting: -{0} +{1} {2}",
+                versionPrefix, ignoredPrefix,
+                paramInitializers.stream().map(ParamInitializer::getParamName).toList());
+    }
+}
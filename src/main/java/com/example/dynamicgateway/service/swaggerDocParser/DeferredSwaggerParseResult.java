@@ -0,0 +1,47 @@
+package com.example.dynamicgateway.service.swaggerDocParser;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A {@link SwaggerParseResult} that holds only an {@link #getEndpointSkeleton() endpoint skeleton} of a document
+ * and parses the full {@link OpenAPI} on each call to {@link #getOpenAPI()}
+ * <p>
+ * The skeleton is an {@code OpenAPI} that contains the description and, for each operation, its path, method,
+ * parameter names, request body, and tags. Everything else is left out. The full {@code OpenAPI} is parsed
+ * from the retained {@link #getSerializedDoc() serialized document} by the provided full parser on the calling
+ * thread and isn't retained, so callers that need it more than once should keep it, or what they derive from it,
+ * themselves. If the full parser fails to produce an {@code OpenAPI}, the skeleton is returned instead
+ * <p>
+ * Since one instance may be shared among threads, {@link #getOpenAPI()} doesn't change its state. In particular,
+ * {@link #getMessages() messages} of the full parser aren't recorded
+ */
+public class DeferredSwaggerParseResult extends SwaggerParseResult {
+    @Getter
+    private final String serializedDoc;
+    @Getter
+    private final OpenAPI endpointSkeleton;
+    private final OpenApiParser<SwaggerParseResult> fullParser;
+
+    public DeferredSwaggerParseResult(@NonNull String serializedDoc,
+                                      @NonNull OpenAPI endpointSkeleton,
+                                      @NonNull OpenApiParser<SwaggerParseResult> fullParser) {
+        Stream.of(serializedDoc, endpointSkeleton, fullParser).forEach(Objects::requireNonNull);
+        this.serializedDoc = serializedDoc;
+        this.endpointSkeleton = endpointSkeleton;
+        this.fullParser = fullParser;
+    }
+
+    @Override
+    public OpenAPI getOpenAPI() {
+        SwaggerParseResult fullParseResult = fullParser.parse(serializedDoc);
+        return (fullParseResult != null && fullParseResult.getOpenAPI() != null) ?
+                fullParseResult.getOpenAPI() :
+                endpointSkeleton;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.dynamicgateway.service.swaggerDocParser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link OpenApiParser} that streams through a JSON or YML document and extracts only what routing needs
+ * <p>
+ * Instead of building the whole {@link OpenAPI} object graph, the parser reads the document token by token,
+ * skipping everything but the description, paths, operations, and operations' parameters, request bodies,
+ * and tags. The result is a {@link DeferredSwaggerParseResult} that parses the full {@code OpenAPI}
+ * with the delegate parser only when it's requested, e.g. when the document is served to Swagger UI
+ * <p>
+ * Like the delegate parser, this parser inlines references to parameters declared in the document's components
+ * and keeps other references as they are. Documents that aren't Open API 3 documents or couldn't be streamed
+ * through are handed over to the delegate parser right away
+ */
+@Slf4j
+public class StreamingOpenApiParser implements OpenApiParser<SwaggerParseResult> {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final JsonFactory YAML_FACTORY = new YAMLFactory();
+    private static final String PARAMETER_REF_PREFIX = "#/components/parameters/";
+    private final OpenApiParser<SwaggerParseResult> delegate;
+
+    public StreamingOpenApiParser() {
+        this(new SwaggerOpenApiParser());
+    }
+
+    /**
+     * @param delegate parser of full documents
+     * @throws NullPointerException if the argument is {@code null}
+     */
+    public StreamingOpenApiParser(@NonNull OpenApiParser<SwaggerParseResult> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public SwaggerParseResult parse(String serializedDoc) {
+        if (serializedDoc == null || serializedDoc.isBlank()) return delegate.parse(serializedDoc);
+        OpenAPI endpointSkeleton;
+        try (JsonParser parser = factoryFor(serializedDoc).createParser(serializedDoc)) {
+            endpointSkeleton = readRoot(parser);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Doc couldn't be streamed through, falling back to full parsing", e);
+            return delegate.parse(serializedDoc);
+        }
+        if (endpointSkeleton == null) return delegate.parse(serializedDoc);
+        return new DeferredSwaggerParseResult(serializedDoc, endpointSkeleton, delegate);
+    }
+
+    private static JsonFactory factoryFor(String serializedDoc) {
+        return serializedDoc.stripLeading().startsWith("{") ? JSON_FACTORY : YAML_FACTORY;
+    }
+
+    /**
+     * Returns the endpoint skeleton or {@code null} if the document is not an Open API 3 document
+     */
+    private static OpenAPI readRoot(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+        String version = null;
+        Info info = null;
+        Paths paths = null;
+        Map<String, Parameter> componentParameters = Map.of();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = nextToken(parser);
+            switch (fieldName) {
+                case "openapi" -> version = parser.getValueAsString();
+                case "info" -> info = (valueToken == JsonToken.START_OBJECT) ? readInfo(parser) : skip(parser);
+                case "paths" -> paths = (valueToken == JsonToken.START_OBJECT) ? readPaths(parser) : skip(parser);
+                case "components" -> componentParameters = (valueToken == JsonToken.START_OBJECT) ?
+                        readComponentParameters(parser) :
+                        skip(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (version == null || !version.startsWith("3.")) return null;
+        if (paths != null) inlineParameterRefs(paths, componentParameters);
+        return new OpenAPI()
+                .openapi(version)
+                .info(info)
+                .paths(paths);
+    }
+
+    private static Info readInfo(JsonParser parser) throws IOException {
+        Info info = new Info();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            nextToken(parser);
+            if (fieldName.equals("description")) {
+                info.setDescription(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return info;
+    }
+
+    private static Map<String, Parameter> readComponentParameters(JsonParser parser) throws IOException {
+        Map<String, Parameter> componentParameters = new HashMap<>();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            if (nextToken(parser) == JsonToken.START_OBJECT && fieldName.equals("parameters")) {
+                while (nextToken(parser) == JsonToken.FIELD_NAME) {
+                    String parameterKey = parser.currentName();
+                    if (nextToken(parser) == JsonToken.START_OBJECT) {
+                        componentParameters.put(parameterKey, readParameter(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return componentParameters;
+    }
+
+    private static void inlineParameterRefs(Paths paths, Map<String, Parameter> componentParameters) {
+        paths.values().stream()
+                .flatMap(pathItem -> pathItem.readOperations().stream())
+                .map(Operation::getParameters)
+                .filter(Objects::nonNull)
+                .forEach(parameters -> parameters.replaceAll(parameter -> {
+                    String ref = parameter.get$ref();
+                    if (ref == null || !ref.startsWith(PARAMETER_REF_PREFIX)) return parameter;
+                    return componentParameters.getOrDefault(ref.substring(PARAMETER_REF_PREFIX.length()), parameter);
+                }));
+    }
+
+    private static Paths readPaths(JsonParser parser) throws IOException {
+        Paths paths = new Paths();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String path = parser.currentName();
+            if (nextToken(parser) == JsonToken.START_OBJECT && !path.startsWith("x-")) {
+                paths.addPathItem(path, readPathItem(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return paths;
+    }
+
+    private static PathItem readPathItem(JsonParser parser) throws IOException {
+        PathItem pathItem = new PathItem();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            PathItem.HttpMethod method = toHttpMethod(parser.currentName());
+            if (nextToken(parser) == JsonToken.START_OBJECT && method != null) {
+                pathItem.operation(method, readOperation(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return pathItem;
+    }
+
+    private static PathItem.HttpMethod toHttpMethod(String fieldName) {
+        try {
+            return PathItem.HttpMethod.valueOf(fieldName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Operation readOperation(JsonParser parser) throws IOException {
+        Operation operation = new Operation();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = nextToken(parser);
+            switch (fieldName) {
+                case "parameters" -> operation.setParameters(
+                        (valueToken == JsonToken.START_ARRAY) ? readParameters(parser) : skip(parser));
+                case "requestBody" -> operation.setRequestBody(
+                        (valueToken == JsonToken.START_OBJECT) ? readRequestBody(parser) : skip(parser));
+                case "tags" -> operation.setTags(
+                        (valueToken == JsonToken.START_ARRAY) ? readStrings(parser) : skip(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return operation;
+    }
+
+    private static List<Parameter> readParameters(JsonParser parser) throws IOException {
+        List<Parameter> parameters = new ArrayList<>();
+        JsonToken token;
+        while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                parameters.add(readParameter(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return parameters;
+    }
+
+    private static Parameter readParameter(JsonParser parser) throws IOException {
+        Parameter parameter = new Parameter();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            nextToken(parser);
+            switch (fieldName) {
+                case "name" -> parameter.setName(parser.getValueAsString());
+                case "in" -> parameter.setIn(parser.getValueAsString());
+                case "required" -> parameter.setRequired(parser.getValueAsBoolean());
+                case "$ref" -> parameter.set$ref(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return parameter;
+    }
+
+    private static RequestBody readRequestBody(JsonParser parser) throws IOException {
+        RequestBody requestBody = new RequestBody();
+        while (nextToken(parser) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            nextToken(parser);
+            switch (fieldName) {
+                case "required" -> requestBody.setRequired(parser.getValueAsBoolean());
+                case "$ref" -> requestBody.set$ref(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return requestBody;
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> strings = new ArrayList<>();
+        JsonToken token;
+        while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+            if (token.isScalarValue()) {
+                strings.add(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return strings;
+    }
+
+    private static JsonToken nextToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) throw new EOFException("Unexpected end of doc");
+        return token;
+    }
+
+    private static <T> T skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+}
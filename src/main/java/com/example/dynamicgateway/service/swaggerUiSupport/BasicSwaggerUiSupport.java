@@ -1,14 +1,12 @@
 package com.example.dynamicgateway.service.swaggerUiSupport;
 
 import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
-import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
-import com.example.dynamicgateway.model.uiConfig.SwaggerUiConfig;
 import com.example.dynamicgateway.service.endpointCollector.EndpointCollector;
 import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
-import com.example.dynamicgateway.util.Cloner;
 import com.example.dynamicgateway.util.EndpointUtil;
+import com.example.dynamicgateway.util.OpenApiCopier;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
@@ -16,7 +14,6 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.text.MessageFormat;
@@ -39,19 +36,7 @@ public class BasicSwaggerUiSupport implements SwaggerUiSupport {
     }
 
     /**
-     * Returns a {@code Mono} of {@link SwaggerUiConfig} referencing all {@link SwaggerApplication}s
-     * declaring at least one {@link DocumentedEndpoint} collected by the injected {@link EndpointCollector}
-     */
-    @Override
-    public Mono<SwaggerUiConfig> getSwaggerUiConfig() {
-        return Flux.fromStream(endpointCollector.stream())
-                .map(SwaggerEndpoint::getDeclaringApp)
-                .collect(Collectors.toSet())
-                .map(SwaggerUiConfig::from);
-    }
-
-    /**
-     * Returns a {@code Mono} of a deep-copy of an {@link OpenAPI} contained in a {@code SwaggerApplication} that:
+     * Returns a {@code Mono} of a copy of an {@link OpenAPI} contained in a {@code SwaggerApplication} that:
      * <p>
      * 1. Has at least one endpoint {@link SwaggerEndpointCollector#getCollectedEndpoints() collected} by
      * the injected {@code EndpointCollector} <em>and</em>
@@ -72,7 +57,8 @@ public class BasicSwaggerUiSupport implements SwaggerUiSupport {
      * <p>
      * 3. {@link GatewayMeta#getServers() Servers} are {@link OpenAPI#setServers(List) set}
      * <p>
-     * None of the mutations affect the original {@code OpenAPI}
+     * None of the mutations affect the original {@code OpenAPI}. Since only its paths and servers are mutated,
+     * only they are {@link OpenApiCopier#copyPathsAndServers(OpenAPI) copied}
      *
      * @param appName name of the {@code SwaggerApplication} whose {@code OpenAPI} should be mutated and
      *                asynchronously returned
@@ -81,25 +67,21 @@ public class BasicSwaggerUiSupport implements SwaggerUiSupport {
      */
     @Override
     public Mono<OpenAPI> getSwaggerAppDoc(String appName) {
-        return Flux.fromStream(endpointCollector.stream())
-                .map(SwaggerEndpoint::getDeclaringApp)
-                .filter(documentedApplication -> documentedApplication.getName().equals(appName))
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(MessageFormat.format(
+        return Mono.fromSupplier(() -> endpointCollector.getCollectedEndpointsOf(appName).stream()
+                        .findAny()
+                        .map(SwaggerEndpoint::getDeclaringApp)
+                        .orElse(null))
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(MessageFormat.format(
                         "No service with name {0} is known to this Gateway", appName
                 ))))
-                .next()
                 .map(SwaggerApplication::getNativeDoc)
                 .map(SwaggerParseResult::getOpenAPI)
-                .map(this::deepCopy)
+                .map(OpenApiCopier::copyPathsAndServers)
                 .doOnNext(this::removeNotCollectedEndpoints)
                 .doOnNext(this::setGatewayPrefixes)
                 .doOnNext(this::setGatewayServers);
     }
 
-    private OpenAPI deepCopy(OpenAPI openAPI) {
-        return Cloner.deepCopy(openAPI, OpenAPI.class);
-    }
-
     private void removeNotCollectedEndpoints(OpenAPI openAPI) {
         Paths newPaths = openAPI
                 .getPaths()
@@ -0,0 +1,67 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded content along with its gzip-compressed form and strong {@code ETag}s of both
+ * <p>
+ * The content is compressed, and the {@code ETag}s are computed, once on creation, so serving either form
+ * requires no further work. Since the forms are different representations of the same content, their
+ * {@code ETag}s differ too. Arrays returned by this class must not be modified
+ */
+@Getter
+public final class EncodedContent {
+    private final byte[] bytes;
+    private final byte[] gzippedBytes;
+    private final String eTag;
+    private final String gzippedETag;
+
+    private EncodedContent(byte[] bytes, byte[] gzippedBytes, String eTag, String gzippedETag) {
+        this.bytes = bytes;
+        this.gzippedBytes = gzippedBytes;
+        this.eTag = eTag;
+        this.gzippedETag = gzippedETag;
+    }
+
+    /**
+     * Compresses the content and computes {@code ETag}s of it
+     *
+     * @param bytes encoded content, not copied
+     * @return {@code EncodedContent} of the passed-in bytes
+     * @throws NullPointerException if the argument is {@code null}
+     */
+    public static EncodedContent of(@NonNull byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        String hash = hash(bytes);
+        return new EncodedContent(bytes, gzip(bytes), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream gzippedBytes = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzippedBytes)) {
+            gzipOutputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return gzippedBytes.toByteArray();
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of application docs {@link SwaggerUiSupport#getSwaggerAppDoc(String) prepared for Swagger UI}
+ * and encoded to JSON, held as {@link EncodedContent} with their compressed forms and {@code ETag}s
+ * <p>
+ * A doc is prepared, encoded, and compressed once, on the first request for it, and then served as is.
+ * Concurrent first requests share the same work, which runs off I/O threads. Failures aren't cached.
+ * An application's doc is evicted once the application's endpoints are collected anew, updated, or evicted.
+ * All docs are evicted once the environment changes, since the {@link GatewayMeta} they are prepared with
+ * may have changed
+ */
+@Slf4j
+@Component
+public class SwaggerAppDocCache {
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+    private final SwaggerUiSupport uiSupport;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Mono<EncodedContent>> encodedDocsByAppName = new ConcurrentHashMap<>();
+
+    public SwaggerAppDocCache(SwaggerUiSupport uiSupport, ObjectMapper objectMapper) {
+        this.uiSupport = uiSupport;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns a {@code Mono} of a JSON-encoded doc of the application with the passed-in name,
+     * or an error {@code Mono} if the {@code SwaggerUiSupport} fails to provide it
+     */
+    public Mono<EncodedContent> getEncodedSwaggerAppDoc(String appName) {
+        Mono<EncodedContent> encodedDoc = encodedDocsByAppName.computeIfAbsent(appName, this::encodeSwaggerAppDoc);
+        return encodedDoc.doOnError(e -> encodedDocsByAppName.remove(appName, encodedDoc));
+    }
+
+    private Mono<EncodedContent> encodeSwaggerAppDoc(String appName) {
+        return Mono.defer(() -> uiSupport.getSwaggerAppDoc(appName))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<byte[]>handle((doc, sink) -> {
+                    try {
+                        sink.next(objectMapper.writeValueAsBytes(doc));
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                })
+                .map(EncodedContent::of)
+                .doOnNext(encodedDoc -> log.debug("Doc of {} encoded, {} bytes, {} gzipped",
+                        appName, encodedDoc.getBytes().length, encodedDoc.getGzippedBytes().length))
+                .cache(encodedDoc -> FOREVER, e -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @EventListener
+    public void onDocumentedApplicationFoundEvent(DocumentedApplicationFoundEvent event) {
+        evict(event.getFoundApp().getName());
+    }
+
+    @EventListener
+    public void onDocumentedApplicationUpdatedEvent(DocumentedApplicationUpdatedEvent event) {
+        evict(event.getUpdatedApp().getName());
+    }
+
+    @EventListener
+    public void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        evict(event.getAppName());
+    }
+
+    private void evict(String appName) {
+        encodedDocsByAppName.remove(appName);
+    }
+
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChangeEvent() {
+        encodedDocsByAppName.clear();
+    }
+}
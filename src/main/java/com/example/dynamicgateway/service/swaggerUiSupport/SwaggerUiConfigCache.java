@@ -0,0 +1,85 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
+import com.example.dynamicgateway.model.uiConfig.SwaggerUiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A registry of {@link SwaggerApplication}s that have collected endpoints along with their {@link SwaggerUiConfig}
+ * encoded to JSON
+ * <p>
+ * The registry is maintained from application events: an application is registered once its endpoints are
+ * collected and unregistered once they are evicted or updated to none. The config is encoded, compressed, and
+ * {@link EncodedContent#getETag() tagged} only when an application is registered or unregistered,
+ * so serving the config doesn't involve iterating over collected endpoints
+ */
+@Slf4j
+@Component
+public class SwaggerUiConfigCache {
+    private final ObjectMapper objectMapper;
+    private final Map<String, SwaggerApplication> appsByName = new TreeMap<>();
+    private volatile EncodedContent encodedConfig;
+
+    public SwaggerUiConfigCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.encodedConfig = encode(List.of());
+    }
+
+    /**
+     * Returns the current JSON-encoded {@code SwaggerUiConfig} referencing all registered applications
+     */
+    public EncodedContent getEncodedSwaggerUiConfig() {
+        return encodedConfig;
+    }
+
+    @EventListener
+    public void onDocumentedApplicationFoundEvent(DocumentedApplicationFoundEvent event) {
+        register(event.getFoundApp());
+    }
+
+    @EventListener
+    public void onDocumentedApplicationUpdatedEvent(DocumentedApplicationUpdatedEvent event) {
+        if (event.getEndpoints().isEmpty()) {
+            unregister(event.getUpdatedApp().getName());
+        } else {
+            register(event.getUpdatedApp());
+        }
+    }
+
+    @EventListener
+    public void onDocumentedEndpointsEvictedEvent(DocumentedEndpointsEvictedEvent event) {
+        unregister(event.getAppName());
+    }
+
+    private synchronized void register(DocumentedApplication<?> app) {
+        if (!(app instanceof SwaggerApplication swaggerApp)) return;
+        if (appsByName.put(swaggerApp.getName(), swaggerApp) == null) {
+            encodedConfig = encode(List.copyOf(appsByName.values()));
+        }
+    }
+
+    private synchronized void unregister(String appName) {
+        if (appsByName.remove(appName) != null) {
+            encodedConfig = encode(List.copyOf(appsByName.values()));
+        }
+    }
+
+    @SneakyThrows
+    private EncodedContent encode(List<SwaggerApplication> apps) {
+        byte[] bytes = objectMapper.writeValueAsBytes(SwaggerUiConfig.from(apps));
+        log.debug("Swagger UI config encoded, {} application(s)", apps.size());
+        return EncodedContent.of(bytes);
+    }
+}
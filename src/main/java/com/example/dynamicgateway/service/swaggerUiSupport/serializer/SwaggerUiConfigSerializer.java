@@ -6,8 +6,6 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import lombok.SneakyThrows;
 
-import java.text.MessageFormat;
-
 /**
  * A {@link JsonSerializer} that serializes {@link SwaggerApplication}s to JSONs of the following format:
  * <pre>
@@ -22,7 +20,7 @@ public class SwaggerUiConfigSerializer extends JsonSerializer<SwaggerApplication
     @SneakyThrows
     public void serialize(SwaggerApplication swaggerApplication, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) {
         jsonGenerator.writeStartObject();
-        jsonGenerator.writeStringField("url", MessageFormat.format("/doc/{0}", swaggerApplication.getName()));
+        jsonGenerator.writeStringField("url", "/doc/" + swaggerApplication.getName());
         jsonGenerator.writeStringField("name", swaggerApplication.getName());
         jsonGenerator.writeEndObject();
     }
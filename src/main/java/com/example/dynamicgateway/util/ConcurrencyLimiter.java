@@ -0,0 +1,110 @@
+package com.example.dynamicgateway.util;
+
+import org.springframework.lang.NonNull;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A limiter of the number of {@code Mono}s that may run at the same time
+ * <p>
+ * A {@code Mono} {@link #limit(Mono) limited} by this limiter isn't subscribed to until it gets one of the
+ * limiter's permits. Once it terminates or is cancelled, the permit passes to the {@code Mono} that has been
+ * waiting the longest. Waiting {@code Mono}s that are cancelled give up their place in the queue
+ * <p>
+ * Permits are handed over in a loop rather than recursively, so a long queue of cancelled or synchronously
+ * completing {@code Mono}s doesn't overflow the stack. A permit released while another thread is handing
+ * permits over is handed over by that thread
+ */
+public final class ConcurrencyLimiter {
+    private final int maxConcurrency;
+    private final Queue<Runnable> waitingStarts = new ArrayDeque<>();
+    private int runningCount;
+    private int pendingReleaseCount;
+    private boolean isHandingOver;
+
+    /**
+     * @param maxConcurrency maximum number of {@code Mono}s that may run at the same time
+     * @throws IllegalArgumentException if the argument is not positive
+     */
+    public ConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency should be positive, was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns a {@code Mono} that subscribes to the source once this limiter grants it a permit
+     *
+     * @param source limited {@code Mono}
+     * @throws NullPointerException if the argument is {@code null}
+     */
+    public <T> Mono<T> limit(@NonNull Mono<T> source) {
+        Objects.requireNonNull(source);
+        return Mono.create(sink -> {
+            AtomicBoolean isCancelled = new AtomicBoolean();
+            Disposable.Swap subscription = Disposables.swap();
+            sink.onCancel(() -> {
+                isCancelled.set(true);
+                subscription.dispose();
+            });
+            acquire(() -> {
+                if (isCancelled.get()) {
+                    release();
+                    return;
+                }
+                subscription.update(source
+                        .doFinally(signalType -> release())
+                        .subscribe(sink::success, sink::error, sink::success));
+            });
+        });
+    }
+
+    /**
+     * Returns the number of {@code Mono}s waiting for a permit
+     */
+    public synchronized int getWaitingCount() {
+        return waitingStarts.size();
+    }
+
+    private void acquire(Runnable start) {
+        synchronized (this) {
+            if (runningCount >= maxConcurrency) {
+                waitingStarts.add(start);
+                return;
+            }
+            runningCount++;
+        }
+        start.run();
+    }
+
+    private void release() {
+        synchronized (this) {
+            pendingReleaseCount++;
+            if (isHandingOver) return;
+            isHandingOver = true;
+        }
+        while (true) {
+            Runnable nextStart;
+            synchronized (this) {
+                if (pendingReleaseCount == 0) {
+                    isHandingOver = false;
+                    return;
+                }
+                pendingReleaseCount--;
+                nextStart = waitingStarts.poll();
+                if (nextStart == null) {
+                    runningCount--;
+                    continue;
+                }
+            }
+            nextStart.run();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.dynamicgateway.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A coalescing stage that collapses bursts of signals into a single invocation of a consumer
+ * <p>
+ * Each {@link Debouncer#signal(Object) signal} postpones the invocation until no other signal arrives
+ * within the quiet window. However, the invocation is never postponed for longer than the maximum delay
+ * counted from the first signal of the burst, so a steady stream of signals can't starve the consumer.
+ * The consumer receives the most recent signaled value and runs on the passed {@link Scheduler},
+ * never on the signaling thread
+ *
+ * @param <T> type of signaled values
+ */
+@Slf4j
+public final class Debouncer<T> {
+    private final Consumer<? super T> consumer;
+    private final long quietWindowNanos;
+    private final long maxDelayNanos;
+    private final Scheduler scheduler;
+    private T pendingValue;
+    private long pendingSinceNanos;
+    private long generation;
+    private boolean isPending;
+
+    /**
+     * @param consumer    consumer of the most recent value of each burst
+     * @param quietWindow period without signals after which the consumer is invoked
+     * @param maxDelay    longest period between the first signal of a burst and the invocation of the consumer
+     * @param scheduler   scheduler the consumer runs on
+     * @throws NullPointerException     if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if either of the durations is negative
+     */
+    public Debouncer(@NonNull Consumer<? super T> consumer,
+                     @NonNull Duration quietWindow,
+                     @NonNull Duration maxDelay,
+                     @NonNull Scheduler scheduler) {
+        Stream.of(consumer, quietWindow, maxDelay, scheduler).forEach(Objects::requireNonNull);
+        if (quietWindow.isNegative() || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Debouncer durations cannot be negative");
+        }
+        this.consumer = consumer;
+        this.quietWindowNanos = quietWindow.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Records the value as the most recent one and (re)schedules the invocation of the consumer
+     *
+     * @param value signaled value
+     */
+    public synchronized void signal(T value) {
+        long nowNanos = scheduler.now(TimeUnit.NANOSECONDS);
+        if (!isPending) {
+            isPending = true;
+            pendingSinceNanos = nowNanos;
+        }
+        pendingValue = value;
+        long scheduledGeneration = ++generation;
+        long nanosUntilDeadline = pendingSinceNanos + maxDelayNanos - nowNanos;
+        long delayNanos = Math.max(0, Math.min(quietWindowNanos, nanosUntilDeadline));
+        scheduler.schedule(() -> run(scheduledGeneration), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void run(long scheduledGeneration) {
+        T value;
+        synchronized (this) {
+            if (scheduledGeneration != generation || !isPending) return;
+            value = pendingValue;
+            pendingValue = null;
+            isPending = false;
+        }
+        try {
+            consumer.accept(value);
+        } catch (RuntimeException e) {
+            log.warn("Debounced consumer failed", e);
+        }
+    }
+}
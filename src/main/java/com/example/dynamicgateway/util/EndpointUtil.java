@@ -1,17 +1,21 @@
 package com.example.dynamicgateway.util;
 
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+import com.example.dynamicgateway.model.endpointDetails.EndpointDetails;
+import com.example.dynamicgateway.model.endpointRequestBody.EndpointRequestBody;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import org.springframework.lang.NonNull;
 
+import java.text.MessageFormat;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * A utility class for convenient extraction of path components of {@link DocumentedEndpoint}s
+ * A utility class for convenient extraction of path components and derived identifiers of {@link DocumentedEndpoint}s
  */
 public class EndpointUtil {
     private static final Pattern PATH_SEGMENT_PATTERN = Pattern.compile("/[^?#/]+");
@@ -105,6 +109,57 @@ public class EndpointUtil {
         return findSegment(endpointPath, meta, PathSegmentPicker.prefix());
     }
 
+    /**
+     * Returns an identifier of a {@code Route} built after the endpoint. The identifier is composed
+     * of the name of the endpoint's declaring application, the endpoint's method, and the endpoint's
+     * path, for example {@code user-service:GET:/users/{id}}. As a result, a {@code Route} rebuilt
+     * after an unchanged endpoint always receives the same identifier
+     *
+     * @param endpoint endpoint a {@code Route} is built after
+     * @throws NullPointerException if the endpoint is {@code null}
+     */
+    @NonNull
+    public static String routeId(@NonNull DocumentedEndpoint<?> endpoint) {
+        Objects.requireNonNull(endpoint);
+        EndpointDetails details = endpoint.getDetails();
+        return MessageFormat.format("{0}:{1}:{2}",
+                endpoint.getDeclaringApp().getName(), details.getMethod().name(), details.getPath());
+    }
+
+    /**
+     * Returns the path a {@code Route} built after the endpoint matches: this Gateway's
+     * {@link GatewayMeta#getVersionPrefix() version prefix} followed by the endpoint path stripped of
+     * an {@link GatewayMeta#getIgnoredPrefixes() ignored prefix} (if the endpoint path starts with one)
+     *
+     * @throws NullPointerException if any of the arguments is {@code null}
+     */
+    @NonNull
+    public static String matchingPath(@NonNull DocumentedEndpoint<?> endpoint,
+                                      @NonNull GatewayMeta meta) {
+        return meta.getVersionPrefix() + pathWithRemovedPrefix(endpoint, meta);
+    }
+
+    /**
+     * Returns a fingerprint of all endpoint details a {@code Route} is built from: the {@link #routeId(DocumentedEndpoint)
+     * route identifier}, tags, names and requirement of parameters, and requirement of the request body.
+     * Endpoints that have equal fingerprints are turned into equivalent {@code Route}s, even if they
+     * come from different fetches of the documentation
+     *
+     * @param endpoint endpoint whose details should be fingerprinted
+     * @throws NullPointerException if the endpoint is {@code null}
+     */
+    @NonNull
+    public static String detailsFingerprint(@NonNull DocumentedEndpoint<?> endpoint) {
+        EndpointDetails details = endpoint.getDetails();
+        String parameters = details.getParameters().stream()
+                .map(param -> param.getName() + (param.isRequired() ? "!" : "?"))
+                .collect(Collectors.joining(","));
+        EndpointRequestBody requestBody = details.getRequestBody();
+        boolean isRequestBodyRequired = (requestBody != null) && requestBody.isRequired();
+        return MessageFormat.format("{0} tags={1} params=[{2}] requiredBody={3}",
+                routeId(endpoint), details.getTags(), parameters, isRequestBodyRequired);
+    }
+
     @FunctionalInterface
     private interface PathSegmentPicker {
         String pick(String prefix, String pathWithoutPrefix);
@@ -0,0 +1,84 @@
+package com.example.dynamicgateway.util;
+
+import org.springframework.lang.NonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A thread-safe registry of canonical instances
+ * <p>
+ * An {@code Interner} maps keys to values created on the first request for the key. All subsequent
+ * requests for an equal key return the same value, so objects that would otherwise be created again
+ * and again, for example identical route predicates and filters, are created once and shared
+ * <p>
+ * Canonical instances are weakly referenced. Once nothing else references a canonical instance,
+ * for example because all routes that shared it were evicted, it may be garbage collected, and its key
+ * is released on a subsequent call. A later request for an equal key then creates a new canonical instance
+ *
+ * @param <K> type of keys
+ * @param <V> type of canonical instances
+ */
+public final class Interner<K, V> {
+    private final ConcurrentMap<K, CanonicalInstanceReference<K, V>> canonicalInstances = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> collectedInstances = new ReferenceQueue<>();
+
+    /**
+     * Returns the canonical instance associated with the key. If there's no such instance yet,
+     * it's created by applying the factory on the key. While the canonical instance is reachable,
+     * the factory is not invoked for the key again
+     *
+     * @param key     key of the canonical instance
+     * @param factory function that creates a canonical instance from the key
+     * @return the canonical instance, never {@code null}
+     * @throws NullPointerException if either of the arguments is {@code null} or if the factory returns {@code null}
+     */
+    @NonNull
+    public V intern(@NonNull K key, @NonNull Function<? super K, ? extends V> factory) {
+        Objects.requireNonNull(factory);
+        releaseCollectedInstances();
+        AtomicReference<V> canonicalInstance = new AtomicReference<>();
+        canonicalInstances.compute(key, (k, reference) -> {
+            V instance = (reference == null) ? null : reference.get();
+            if (instance != null) {
+                canonicalInstance.set(instance);
+                return reference;
+            }
+            canonicalInstance.set(Objects.requireNonNull(factory.apply(k)));
+            return new CanonicalInstanceReference<>(k, canonicalInstance.get(), collectedInstances);
+        });
+        return canonicalInstance.get();
+    }
+
+    /**
+     * Returns the number of canonical instances held by this {@code Interner}
+     */
+    public int size() {
+        releaseCollectedInstances();
+        return canonicalInstances.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void releaseCollectedInstances() {
+        Reference<? extends V> collectedInstance;
+        while ((collectedInstance = collectedInstances.poll()) != null) {
+            CanonicalInstanceReference<K, V> reference = (CanonicalInstanceReference<K, V>) collectedInstance;
+            canonicalInstances.remove(reference.key, reference);
+        }
+    }
+
+    private static final class CanonicalInstanceReference<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private CanonicalInstanceReference(K key, V canonicalInstance, ReferenceQueue<? super V> queue) {
+            super(canonicalInstance, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dynamicgateway.util;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Utility class with the purpose of creating copies of {@link OpenAPI} objects that could be safely
+ * mutated in place of their paths and servers
+ * <p>
+ * Unlike {@link Cloner}, this class doesn't copy the whole object graph. Only the {@link OpenAPI} itself,
+ * its {@link Paths}, each {@link PathItem}, and the list of servers are copied. Everything else, such as
+ * operations, components, and schemas, is shared with the original, so clients must not mutate it
+ */
+public class OpenApiCopier {
+    private OpenApiCopier() {
+    }
+
+    /**
+     * Returns a copy of the {@code OpenAPI} whose paths, path items, and servers could be mutated without
+     * affecting the original
+     *
+     * @param openAPI {@code OpenAPI} to copy
+     * @return structural copy of the {@code OpenAPI}
+     * @throws NullPointerException if the argument is {@code null}
+     */
+    public static OpenAPI copyPathsAndServers(@NonNull OpenAPI openAPI) {
+        Objects.requireNonNull(openAPI);
+        OpenAPI copy = new OpenAPI();
+        copy.setSpecVersion(openAPI.getSpecVersion());
+        copy.setOpenapi(openAPI.getOpenapi());
+        copy.setInfo(openAPI.getInfo());
+        copy.setExternalDocs(openAPI.getExternalDocs());
+        copy.setServers((openAPI.getServers() == null) ? null : new ArrayList<>(openAPI.getServers()));
+        copy.setSecurity(openAPI.getSecurity());
+        copy.setTags(openAPI.getTags());
+        copy.setPaths((openAPI.getPaths() == null) ? null : copyOf(openAPI.getPaths()));
+        copy.setComponents(openAPI.getComponents());
+        copy.setWebhooks(openAPI.getWebhooks());
+        copy.setJsonSchemaDialect(openAPI.getJsonSchemaDialect());
+        copy.setExtensions(openAPI.getExtensions());
+        return copy;
+    }
+
+    private static Paths copyOf(Paths paths) {
+        Paths copy = new Paths();
+        paths.forEach((path, pathItem) -> copy.put(path, (pathItem == null) ? null : copyOf(pathItem)));
+        copy.setExtensions(paths.getExtensions());
+        return copy;
+    }
+
+    private static PathItem copyOf(PathItem pathItem) {
+        PathItem copy = new PathItem();
+        copy.setSummary(pathItem.getSummary());
+        copy.setDescription(pathItem.getDescription());
+        copy.setGet(pathItem.getGet());
+        copy.setPut(pathItem.getPut());
+        copy.setPost(pathItem.getPost());
+        copy.setDelete(pathItem.getDelete());
+        copy.setOptions(pathItem.getOptions());
+        copy.setHead(pathItem.getHead());
+        copy.setPatch(pathItem.getPatch());
+        copy.setTrace(pathItem.getTrace());
+        copy.setServers(pathItem.getServers());
+        copy.setParameters(pathItem.getParameters());
+        copy.set$ref(pathItem.get$ref());
+        copy.setExtensions(pathItem.getExtensions());
+        return copy;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.dynamicgateway.controller;
+
+import com.example.dynamicgateway.service.swaggerUiSupport.EncodedContent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedContentResponsesTest {
+    @Test
+    void acceptsGzip_returnsTrue_ifGzipIsListedWithNonZeroQuality() {
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("gzip"))).isTrue();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("deflate, GZIP;q=0.5"))).isTrue();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("br", "gzip ; foo=bar"))).isTrue();
+    }
+
+    @Test
+    void acceptsGzip_returnsFalse_ifGzipIsNotListedOrHasZeroQuality() {
+        assertThat(EncodedContentResponses.acceptsGzip(null)).isFalse();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of())).isFalse();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("br, identity"))).isFalse();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("gzip;q=0"))).isFalse();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("gzip;q=0.000"))).isFalse();
+        assertThat(EncodedContentResponses.acceptsGzip(List.of("gzip;q=high"))).isFalse();
+    }
+
+    @Test
+    void toResponseEntity_servesFormAcceptedByClient() {
+        EncodedContent content = EncodedContent.of("{}".getBytes(StandardCharsets.UTF_8));
+        HttpHeaders gzipAcceptingHeaders = new HttpHeaders();
+        gzipAcceptingHeaders.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        ResponseEntity<byte[]> gzippedResponse =
+                EncodedContentResponses.toResponseEntity(content, gzipAcceptingHeaders);
+        ResponseEntity<byte[]> response = EncodedContentResponses.toResponseEntity(content, new HttpHeaders());
+
+        assertThat(gzippedResponse.getBody()).isSameAs(content.getGzippedBytes());
+        assertThat(gzippedResponse.getHeaders().getETag()).isEqualTo(content.getGzippedETag());
+        assertThat(gzippedResponse.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzippedResponse.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getBody()).isSameAs(content.getBytes());
+        assertThat(response.getHeaders().getETag()).isEqualTo(content.getETag());
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+}
@@ -1,35 +1,53 @@
 package com.example.dynamicgateway.controller;
 
 import com.example.dynamicgateway.controller.config.EnableMockAuthentication;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerAppDocCache;
 import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiSupport;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
 import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.models.OpenAPI;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 
 @WebFluxTest(controllers = SwaggerDocController.class)
+@Import(SwaggerAppDocCache.class)
 @EnableMockAuthentication
 @ActiveProfiles("test")
 class SwaggerDocControllerTest {
     @Autowired
     WebTestClient testClient;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
     @MockBean
     SwaggerUiSupport swaggerUiSupportMock;
     @Value("${springdoc.swagger-ui.config-url}")
     String configUrl;
 
     @Test
-    void getSwaggerAppDoc_returnsDocProvidedBySwaggerUiSupport() {
+    void getSwaggerAppDoc_returnsDocProvidedBySwaggerUiSupport_untilAppChanges() {
         String appName = "some-app";
         OpenAPI openAPI = SwaggerParseResultGenerator.empty().getOpenAPI();
         given(swaggerUiSupportMock.getSwaggerAppDoc(appName)).willReturn(Mono.just(openAPI));
@@ -39,6 +57,7 @@ class SwaggerDocControllerTest {
                 .uri("/doc/" + appName)
                 .exchange()
                 .expectStatus().is2xxSuccessful()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
                 .expectBody(OpenAPI.class)
                 .isEqualTo(openAPI);
 
@@ -47,6 +66,16 @@ class SwaggerDocControllerTest {
         ).getOpenAPI();
         given(swaggerUiSupportMock.getSwaggerAppDoc(appName)).willReturn(Mono.just(anotherOpenAPI));
 
+        testClient
+                .get()
+                .uri("/doc/" + appName)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody(OpenAPI.class)
+                .isEqualTo(openAPI);
+
+        eventPublisher.publishEvent(new DocumentedEndpointsEvictedEvent(appName, List.of(), this));
+
         testClient
                 .get()
                 .uri("/doc/" + appName)
@@ -55,4 +84,50 @@ class SwaggerDocControllerTest {
                 .expectBody(OpenAPI.class)
                 .isEqualTo(anotherOpenAPI);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getSwaggerAppDoc_ifGzipIsAccepted_returnsGzippedDoc_andNotModifiedOnRevalidation() {
+        String appName = "gzip-app";
+        OpenAPI openAPI = SwaggerParseResultGenerator.createForEndpoints(
+                SwaggerEndpointStub.builder().method(HttpMethod.GET).path("/user").build()
+        ).getOpenAPI();
+        given(swaggerUiSupportMock.getSwaggerAppDoc(appName)).willReturn(Mono.just(openAPI));
+
+        EntityExchangeResult<byte[]> result = testClient
+                .get()
+                .uri("/doc/" + appName)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(byte[].class)
+                .returnResult();
+        assertThat(gunzipToOpenApi(result.getResponseBody())).isEqualTo(openAPI);
+
+        testClient
+                .get()
+                .uri("/doc/" + appName)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .ifNoneMatch(result.getResponseHeaders().getETag())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        testClient
+                .get()
+                .uri("/doc/" + appName)
+                .ifNoneMatch(result.getResponseHeaders().getETag())
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(OpenAPI.class)
+                .isEqualTo(openAPI);
+    }
+
+    @SneakyThrows
+    private static OpenAPI gunzipToOpenApi(byte[] gzippedBytes) {
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(gzippedBytes))) {
+            return new ObjectMapper().readValue(gzipInputStream, OpenAPI.class);
+        }
+    }
+}
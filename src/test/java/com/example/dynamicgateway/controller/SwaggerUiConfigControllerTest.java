@@ -1,42 +1,44 @@
 package com.example.dynamicgateway.controller;
 
 import com.example.dynamicgateway.controller.config.EnableMockAuthentication;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
 import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
-import com.example.dynamicgateway.model.uiConfig.SwaggerUiConfig;
-import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiSupport;
+import com.example.dynamicgateway.service.swaggerUiSupport.SwaggerUiConfigCache;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
+import com.netflix.discovery.shared.Application;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
-import reactor.core.publisher.Mono;
 
 import java.util.List;
 
-import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.mock;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @WebFluxTest(controllers = SwaggerUiConfigController.class)
+@Import(SwaggerUiConfigCache.class)
 @EnableMockAuthentication
 @ActiveProfiles("test")
 class SwaggerUiConfigControllerTest {
     @Autowired
     WebTestClient testClient;
-    @MockBean
-    SwaggerUiSupport swaggerUiSupportMock;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
     @Value("${springdoc.swagger-ui.config-url}")
     String configUrl;
 
     @Test
     void getConfig_returnsExpectedSwaggerUiConfig() {
-        SwaggerApplication application1 = mock(SwaggerApplication.class);
-        SwaggerApplication application2 = mock(SwaggerApplication.class);
-        given(application1.getName()).willReturn("app-one");
-        given(application2.getName()).willReturn("app-two");
-        SwaggerUiConfig swaggerUiConfig = SwaggerUiConfig.from(List.of(application1, application2));
-        given(swaggerUiSupportMock.getSwaggerUiConfig()).willReturn(Mono.just(swaggerUiConfig));
+        publishFoundEvent("app-one");
+        publishFoundEvent("app-two");
 
         testClient
                 .get()
@@ -59,4 +61,52 @@ class SwaggerUiConfigControllerTest {
                         }
                         """);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getConfig_ifETagMatches_returnsNotModified_untilAppIsFoundOrLost() {
+        String eTag = testClient
+                .get()
+                .uri(configUrl)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .returnResult(byte[].class)
+                .getResponseHeaders().getETag();
+        assertThat(eTag).isNotNull();
+
+        testClient
+                .get()
+                .uri(configUrl)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED)
+                .expectHeader().valueEquals("ETag", eTag);
+
+        publishFoundEvent("new-app");
+
+        testClient
+                .get()
+                .uri(configUrl)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.urls[?(@.name == 'new-app')]").exists();
+
+        eventPublisher.publishEvent(new DocumentedEndpointsEvictedEvent("new-app", List.of(), this));
+
+        testClient
+                .get()
+                .uri(configUrl)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    private void publishFoundEvent(String appName) {
+        SwaggerApplication application = new SwaggerApplication(
+                EurekaDiscoverableApplication.from(new Application(appName)),
+                SwaggerParseResultGenerator.empty());
+        eventPublisher.publishEvent(new DocumentedApplicationFoundEvent(
+                application, List.of(SwaggerEndpointStub.builder().build()), this));
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.dynamicgateway.model.discoverableApplication;
 
+import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.shared.Application;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class EurekaDiscoverableApplicationTest {
@@ -22,4 +26,44 @@ class EurekaDiscoverableApplicationTest {
                 .withNonnullFields("eurekaApplication")
                 .verify();
     }
+
+    @Test
+    void getRevision_ignoresOrderOfInstances() {
+        Application application = new Application("app");
+        application.addInstance(buildInstance("instance-1", 1L, "hash"));
+        application.addInstance(buildInstance("instance-2", 2L, "hash"));
+
+        Application sameApplicationInReverse = new Application("app");
+        sameApplicationInReverse.addInstance(buildInstance("instance-2", 2L, "hash"));
+        sameApplicationInReverse.addInstance(buildInstance("instance-1", 1L, "hash"));
+
+        assertThat(new EurekaDiscoverableApplication(application).getRevision())
+                .isEqualTo(new EurekaDiscoverableApplication(sameApplicationInReverse).getRevision());
+    }
+
+    private static InstanceInfo buildInstance(String instanceId, long lastUpdatedTimestamp, String docHash) {
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName("app")
+                .setInstanceId(instanceId)
+                .setLastUpdatedTimestamp(lastUpdatedTimestamp)
+                .setMetadata(Map.of(EurekaDiscoverableApplication.DOC_HASH_METADATA_KEY, docHash))
+                .build();
+    }
+
+    @Test
+    void getRevision_changesWithInstanceSignals() {
+        EurekaDiscoverableApplication app = withInstance(buildInstance("instance-1", 1L, "hash"));
+        String revision = app.getRevision();
+
+        assertThat(withInstance(buildInstance("instance-2", 1L, "hash")).getRevision()).isNotEqualTo(revision);
+        assertThat(withInstance(buildInstance("instance-1", 2L, "hash")).getRevision()).isNotEqualTo(revision);
+        assertThat(withInstance(buildInstance("instance-1", 1L, "new-hash")).getRevision()).isNotEqualTo(revision);
+        assertThat(withInstance(buildInstance("instance-1", 1L, "hash")).getRevision()).isEqualTo(revision);
+    }
+
+    private static EurekaDiscoverableApplication withInstance(InstanceInfo instance) {
+        Application application = new Application("app");
+        application.addInstance(instance);
+        return new EurekaDiscoverableApplication(application);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.example.dynamicgateway.model.documentedApplication;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
 import com.example.dynamicgateway.model.endpointDetails.SwaggerEndpointDetails;
+import com.example.dynamicgateway.service.swaggerDocParser.DeferredSwaggerParseResult;
+import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
+import com.example.dynamicgateway.service.swaggerDocParser.SwaggerOpenApiParser;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
 import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
 import io.swagger.v3.oas.models.info.Info;
@@ -17,6 +20,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
 
 class SwaggerApplicationTest {
@@ -51,6 +55,31 @@ class SwaggerApplicationTest {
         assertThat(swaggerApplication.getEndpoints()).containsExactlyInAnyOrderElementsOf(endpoints);
     }
 
+    @Test
+    void createdApplication_ifParseResultIsDeferred_extractsEndpointsWithoutParsingFullDoc() {
+        OpenApiParser<SwaggerParseResult> fullParserMock = mock(SwaggerOpenApiParser.class);
+        DeferredSwaggerParseResult parseResult = new DeferredSwaggerParseResult(
+                "{ let's imagine: it's a serialized doc }",
+                SwaggerParseResultGenerator.createForEndpoints(
+                        new Info().description("Lazy app"),
+                        SwaggerEndpointStub.builder()
+                                .declaringAppName("lazy-app")
+                                .method(HttpMethod.GET)
+                                .path("/test-path")
+                                .build()).getOpenAPI(),
+                fullParserMock);
+        DiscoverableApplication<?> discoverableApp = mock(DiscoverableApplication.class);
+        given(discoverableApp.getName()).willReturn("lazy-app");
+
+        SwaggerApplication swaggerApplication = new SwaggerApplication(discoverableApp, parseResult);
+
+        assertThat(swaggerApplication.getDescription()).isEqualTo("Lazy app");
+        assertThat(swaggerApplication.getEndpoints()).singleElement()
+                .extracting(endpoint -> endpoint.getDetails().getPath())
+                .isEqualTo("/test-path");
+        then(fullParserMock).shouldHaveNoInteractions();
+    }
+
     @Test
     void equalsHashCodeContract() {
         DiscoverableApplication<?> discoverableAppMock = mock(DiscoverableApplication.class);
@@ -2,8 +2,10 @@ package com.example.dynamicgateway.service.applicationCollector;
 
 import com.example.dynamicgateway.events.DiscoverableApplicationFoundEvent;
 import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
+import com.example.dynamicgateway.events.DiscoverableApplicationUpdatedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.sieve.DiscoverableApplicationSieve;
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.InstanceInfo;
@@ -28,6 +30,7 @@ import org.springframework.util.ReflectionUtils;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -37,11 +40,14 @@ import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 
 @ExtendWith(MockitoExtension.class)
 class EurekaApplicationCollectorTest {
@@ -49,18 +55,19 @@ class EurekaApplicationCollectorTest {
     private EurekaClient eurekaClientMock;
     @Mock
     private ApplicationEventPublisher eventPublisherMock;
+    private final GatewayMeta gatewayMeta = new GatewayMeta();
 
     @Test
     void whenCreated_collectorHasNoApps() {
         EurekaApplicationCollector collector =
-                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock);
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
 
         assertThat(collector.getCollectedApplications()).isEmpty();
     }
 
     @Test
     void onCacheRefreshEvents_passedInListenerRethrowsThemViaSpringEventPublisher() {
-        assertEventPublished(new CacheRefreshedEvent(), times(1));
+        assertEventPublished(new CacheRefreshedEvent(), timeout(5_000).times(1));
     }
 
     @Test
@@ -68,21 +75,44 @@ class EurekaApplicationCollectorTest {
         StatusChangeEvent notCacheRefreshedEvent = new StatusChangeEvent(
                 InstanceInfo.InstanceStatus.UP,
                 InstanceInfo.InstanceStatus.DOWN);
-        assertEventPublished(notCacheRefreshedEvent, never());
+        assertEventPublished(notCacheRefreshedEvent, after(200).never());
+    }
+
+    @Test
+    void onBurstOfCacheRefreshEvents_passedInListenerRethrowsOnlyLastOne() {
+        gatewayMeta.setDiscoveryQuietWindow(Duration.ofMillis(200));
+        EurekaClient eurekaClient = createEurekaClient();
+        new EurekaApplicationCollector(eurekaClient, Collections.emptyList(), eventPublisherMock, gatewayMeta);
+
+        List<CacheRefreshedEvent> events = Stream.generate(CacheRefreshedEvent::new).limit(3).toList();
+        events.forEach(event -> fireEvent(eurekaClient, event));
+
+        ArgumentCaptor<CacheRefreshedEvent> eventCaptor = ArgumentCaptor.forClass(CacheRefreshedEvent.class);
+        then(eventPublisherMock).should(after(1_000).times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue()).isSameAs(events.get(events.size() - 1));
     }
 
     @SuppressWarnings("DataFlowIssue")
-    private void assertEventPublished(EurekaEvent event, VerificationMode times) {
+    private static EurekaClient createEurekaClient() {
         ApplicationInfoManager appManagerMock = mock(ApplicationInfoManager.class);
         EurekaClientConfig eurekaClientConfigMock = mock(EurekaClientConfig.class);
-        EurekaClient eurekaClient = new DiscoveryClient(appManagerMock, eurekaClientConfigMock, null);
-
-        new EurekaApplicationCollector(eurekaClient, Collections.emptyList(), eventPublisherMock);
+        return new DiscoveryClient(appManagerMock, eurekaClientConfigMock, null);
+    }
 
+    private static void fireEvent(EurekaClient eurekaClient, EurekaEvent event) {
         Method fireEventMethod = ReflectionUtils.findMethod(DiscoveryClient.class, "fireEvent", EurekaEvent.class);
         assumeThat(fireEventMethod).isNotNull();
         fireEventMethod.setAccessible(true);
         ReflectionUtils.invokeMethod(fireEventMethod, eurekaClient, event);
+    }
+
+    private void assertEventPublished(EurekaEvent event, VerificationMode times) {
+        gatewayMeta.setDiscoveryQuietWindow(Duration.ofMillis(10));
+        EurekaClient eurekaClient = createEurekaClient();
+
+        new EurekaApplicationCollector(eurekaClient, Collections.emptyList(), eventPublisherMock, gatewayMeta);
+
+        fireEvent(eurekaClient, event);
 
         then(eventPublisherMock).should(times).publishEvent(event);
     }
@@ -110,7 +140,7 @@ class EurekaApplicationCollectorTest {
                 List.of(a -> !a.getName().startsWith("phony"));
 
         EurekaApplicationCollector collector =
-                new EurekaApplicationCollector(eurekaClientMock, sieves, eventPublisherMock);
+                new EurekaApplicationCollector(eurekaClientMock, sieves, eventPublisherMock, gatewayMeta);
         assumeThat(collector.getCollectedApplications()).isEmpty();
 
         refreshingMethod.accept(collector);
@@ -151,7 +181,7 @@ class EurekaApplicationCollectorTest {
         EurekaDiscoverableApplication discoverableSomeApp = new EurekaDiscoverableApplication(someApp);
 
         EurekaApplicationCollector collector =
-                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock);
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
         assumeThat(collector.getCollectedApplications()).isEmpty();
 
         addApp(collector, discoverableSomeApp);
@@ -197,7 +227,7 @@ class EurekaApplicationCollectorTest {
 
     private void assertCacheClearedOfStaleAppsOn(Consumer<EurekaApplicationCollector> refreshingMethod) {
         EurekaApplicationCollector collector =
-                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock);
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
         EurekaDiscoverableApplication appMock = mock(EurekaDiscoverableApplication.class);
         String appName = "some-app";
         given(appMock.getName()).willReturn(appName);
@@ -218,4 +248,113 @@ class EurekaApplicationCollectorTest {
                 .extracting(DiscoverableApplication::getName)
                 .isEqualTo(appName);
     }
+
+    @Test
+    void onCacheRefreshedEvent_withUnchangedAppsHashCode_skipsRefresh() {
+        Application app = new Application("test-app");
+        given(eurekaClientMock.getApplications().getAppsHashCode()).willReturn("UP_1_");
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(app));
+
+        DiscoverableApplicationSieve sieveMock = mock(DiscoverableApplicationSieve.class);
+        given(sieveMock.isAllowed(EurekaDiscoverableApplication.from(app))).willReturn(true);
+
+        EurekaApplicationCollector collector =
+                new EurekaApplicationCollector(eurekaClientMock, List.of(sieveMock), eventPublisherMock, gatewayMeta);
+        collector.onApplicationReadyEvent();
+        assumeThat(collector.getCollectedApplications()).hasSize(1);
+
+        collector.onCacheRefreshedEvent();
+
+        assertThat(collector.getCollectedApplications()).hasSize(1);
+        then(eventPublisherMock).should(times(1)).publishEvent(any(DiscoverableApplicationFoundEvent.class));
+        then(eventPublisherMock).shouldHaveNoMoreInteractions();
+        then(sieveMock).should(times(1)).isAllowed(any());
+    }
+
+    @Test
+    void onCacheRefreshedEvent_withChangedAppsHashCode_diffsApps() {
+        Application app = new Application("test-app");
+        Application anotherApp = new Application("another-test-app");
+        given(eurekaClientMock.getApplications().getAppsHashCode()).willReturn("UP_1_");
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(app));
+
+        EurekaApplicationCollector collector =
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
+        collector.onApplicationReadyEvent();
+        assumeThat(collector.getCollectedApplications()).hasSize(1);
+
+        given(eurekaClientMock.getApplications().getAppsHashCode()).willReturn("UP_1_DOWN_1_");
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(anotherApp));
+
+        collector.onCacheRefreshedEvent();
+
+        assertThat(collector.getCollectedApplications())
+                .containsExactly(EurekaDiscoverableApplication.from(anotherApp));
+        ArgumentCaptor<DiscoverableApplicationLostEvent> eventCaptor =
+                ArgumentCaptor.forClass(DiscoverableApplicationLostEvent.class);
+        then(eventPublisherMock).should().publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getLostApp().getName()).isEqualTo(app.getName());
+    }
+
+    @Test
+    void onCacheRefreshedEvent_withUnchangedAppsHashCode_butSwappedApp_diffsApps() {
+        Application app = new Application("test-app");
+        Application anotherApp = new Application("another-test-app");
+        given(eurekaClientMock.getApplications().getAppsHashCode()).willReturn("UP_1_");
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(app));
+
+        EurekaApplicationCollector collector =
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
+        collector.onApplicationReadyEvent();
+        assumeThat(collector.getCollectedApplications()).hasSize(1);
+
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(anotherApp));
+
+        collector.onCacheRefreshedEvent();
+
+        assertThat(collector.getCollectedApplications())
+                .containsExactly(EurekaDiscoverableApplication.from(anotherApp));
+        ArgumentCaptor<DiscoverableApplicationFoundEvent> foundEventCaptor =
+                ArgumentCaptor.forClass(DiscoverableApplicationFoundEvent.class);
+        then(eventPublisherMock).should(times(2)).publishEvent(foundEventCaptor.capture());
+        assertThat(foundEventCaptor.getAllValues())
+                .extracting(event -> event.getFoundApp().getName())
+                .containsExactly(app.getName(), anotherApp.getName());
+        ArgumentCaptor<DiscoverableApplicationLostEvent> lostEventCaptor =
+                ArgumentCaptor.forClass(DiscoverableApplicationLostEvent.class);
+        then(eventPublisherMock).should().publishEvent(lostEventCaptor.capture());
+        assertThat(lostEventCaptor.getValue().getLostApp().getName()).isEqualTo(app.getName());
+    }
+
+    @Test
+    void onCacheRefreshedEvent_withChangedAppRevision_publishesUpdatedEvent() {
+        Application app = new Application("test-app");
+        app.addInstance(InstanceInfo.Builder.newBuilder()
+                .setAppName("test-app")
+                .setInstanceId("instance-1")
+                .build());
+        given(eurekaClientMock.getApplications().getAppsHashCode()).willReturn("UP_1_");
+        given(eurekaClientMock.getApplications().getRegisteredApplications()).willReturn(List.of(app));
+        given(eurekaClientMock.getApplications().getRegisteredApplications(app.getName())).willReturn(app);
+
+        EurekaApplicationCollector collector =
+                new EurekaApplicationCollector(eurekaClientMock, Collections.emptyList(), eventPublisherMock, gatewayMeta);
+        collector.onApplicationReadyEvent();
+        collector.onCacheRefreshedEvent();
+        then(eventPublisherMock).should(never()).publishEvent(any(DiscoverableApplicationUpdatedEvent.class));
+
+        app.removeInstance(app.getByInstanceId("instance-1"));
+        app.addInstance(InstanceInfo.Builder.newBuilder()
+                .setAppName("test-app")
+                .setInstanceId("instance-2")
+                .build());
+
+        collector.onCacheRefreshedEvent();
+
+        ArgumentCaptor<DiscoverableApplicationUpdatedEvent> eventCaptor =
+                ArgumentCaptor.forClass(DiscoverableApplicationUpdatedEvent.class);
+        then(eventPublisherMock).should().publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getUpdatedApp().getName()).isEqualTo(app.getName());
+        assertThat(collector.getCollectedApplications()).hasSize(1);
+    }
 }
\ No newline at end of file
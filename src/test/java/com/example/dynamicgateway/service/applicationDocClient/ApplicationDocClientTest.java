@@ -0,0 +1,22 @@
+package com.example.dynamicgateway.service.applicationDocClient;
+
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ApplicationDocClientTest {
+    @Test
+    void findChangedApplicationDoc_byDefault_findsApplicationDoc() {
+        ApplicationDocClient<String> docClient = application -> Mono.just("doc of " + application.getName());
+        DiscoverableApplication<?> application = mock(DiscoverableApplication.class);
+        given(application.getName()).willReturn("test-app");
+
+        StepVerifier.create(docClient.findChangedApplicationDoc(application))
+                .expectNext("doc of test-app")
+                .verifyComplete();
+    }
+}
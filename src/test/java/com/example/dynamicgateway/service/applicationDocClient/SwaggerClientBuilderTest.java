@@ -2,16 +2,23 @@ package com.example.dynamicgateway.service.applicationDocClient;
 
 import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
 import com.example.dynamicgateway.service.swaggerDocParser.SwaggerOpenApiParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -93,4 +100,80 @@ class SwaggerClientBuilderTest {
 
         assertThatThrownBy(() -> builder.setParser(null)).isInstanceOf(RuntimeException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseSetters_withNonNullValues_setSuccessfully() {
+        Scheduler parseScheduler = Schedulers.immediate();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(mockWebClient)
+                .setParseScheduler(parseScheduler)
+                .setMeterRegistry(meterRegistry)
+                .build();
+
+        assertThat(swaggerClient.getParseScheduler()).isEqualTo(parseScheduler);
+    }
+
+    @Test
+    @SuppressWarnings("DataFlowIssue")
+    void parseSetters_withNullValues_throwRuntimeException() {
+        SwaggerClient.Builder builder = SwaggerClient.builder(mockWebClient);
+
+        assertThatThrownBy(() -> builder.setParseScheduler(null)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> builder.setMeterRegistry(null)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void maxDocSizeSetters_withValidValues_setSuccessfully() {
+        SwaggerClient swaggerClient = SwaggerClient.builder(mockWebClient)
+                .setMaxDocSize(DataSize.ofMegabytes(1))
+                .setMaxDocSizeOverrides(Map.of("huge-app", DataSize.ofMegabytes(50)))
+                .build();
+
+        assertThat(swaggerClient.getMaxDocSize()).isEqualTo(DataSize.ofMegabytes(1));
+        assertThat(swaggerClient.getMaxDocSizeOverrides()).isEqualTo(Map.of("huge-app", DataSize.ofMegabytes(50)));
+        assertThat(swaggerClient.getMaxDocSizeOverrides().get("HUGE-APP")).isEqualTo(DataSize.ofMegabytes(50));
+    }
+
+    @Test
+    @SuppressWarnings("DataFlowIssue")
+    void maxDocSizeSetters_withInvalidValues_throwRuntimeException() {
+        SwaggerClient.Builder builder = SwaggerClient.builder(mockWebClient);
+
+        assertThatThrownBy(() -> builder.setMaxDocSize(null)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> builder.setMaxDocSize(DataSize.ofBytes(0))).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> builder.setMaxDocSizeOverrides(null)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> builder.setMaxDocSizeOverrides(Map.of("app", DataSize.ofBytes(-1))))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> builder.setMaxDocSizeOverrides(
+                Map.of("app", DataSize.ofMegabytes(1), "APP", DataSize.ofMegabytes(2))))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void fetchLimitSetters_withValidValues_setSuccessfully() {
+        SwaggerClient swaggerClient = SwaggerClient.builder(mockWebClient)
+                .setMaxConcurrentFetches(2)
+                .setFetchTimeout(Duration.ofSeconds(3))
+                .setMaxFetchRetries(0)
+                .setMinRetryBackoff(Duration.ofMillis(100))
+                .build();
+
+        assertThat(swaggerClient.getFetchTimeout()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(swaggerClient.getMaxFetchRetries()).isZero();
+        assertThat(swaggerClient.getMinRetryBackoff()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void fetchLimitSetters_withInvalidValues_throwIllegalArgumentException() {
+        SwaggerClient.Builder builder = SwaggerClient.builder(mockWebClient);
+
+        assertThatThrownBy(() -> builder.setMaxConcurrentFetches(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.setFetchTimeout(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.setFetchTimeout(Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.setMaxFetchRetries(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.setMinRetryBackoff(Duration.ofMillis(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
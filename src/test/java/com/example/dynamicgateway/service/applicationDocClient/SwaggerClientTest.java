@@ -1,24 +1,44 @@
 package com.example.dynamicgateway.service.applicationDocClient;
 
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
 import com.example.dynamicgateway.service.swaggerDocParser.SwaggerOpenApiParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
-import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
-import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 
 class SwaggerClientTest {
-    @SneakyThrows
     @Test
     void findApplicationDoc_ifDocAvailable_returnsParsedDoc() {
         String scheme = "test://";
@@ -30,18 +50,18 @@ class SwaggerClientTest {
         OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
         given(parserMock.parse(serializedParseResult)).willReturn(parseResult);
 
-        WebClient webClientMock = mock(WebClient.class, RETURNS_DEEP_STUBS);
-        given(webClientMock
-                .get()
-                .uri(scheme + appName + docPath)
-                .retrieve()
-                .bodyToMono(String.class)
-        ).willReturn(Mono.just(serializedParseResult));
+        List<ClientRequest> requests = new ArrayList<>();
+        ExchangeFunction exchangeFunction = request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .body(serializedParseResult)
+                    .build());
+        };
 
         DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
         given(discoverableApplicationMock.getName()).willReturn(appName);
 
-        SwaggerClient swaggerClient = SwaggerClient.builder(webClientMock)
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
                 .setScheme(scheme)
                 .setDocPath(docPath)
                 .setParser(parserMock)
@@ -52,37 +72,390 @@ class SwaggerClientTest {
                 .expectNext(parseResult)
                 .expectComplete()
                 .verify();
+        assertThat(requests).singleElement()
+                .extracting(request -> request.url().toString())
+                .isEqualTo(scheme + appName + docPath);
     }
 
     @Test
     void findApplicationDoc_ifDocNotFound_returnsEmptyMono() {
-        String scheme = "test://";
-        String appName = "test-application";
-        String docPath = "/doc";
-
-        WebClientResponseException notFoundException = WebClientResponseException.create(
-                HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.getReasonPhrase(), HttpHeaders.EMPTY,
-                new byte[0], null, null
-        );
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
 
-        WebClient webClientMock = mock(WebClient.class, RETURNS_DEEP_STUBS);
-        given(webClientMock
-                .get()
-                .uri(scheme + appName + docPath)
-                .retrieve()
-                .bodyToMono(String.class)
-        ).willReturn(Mono.error(notFoundException));
-
-        SwaggerClient swaggerClient = SwaggerClient.builder(webClientMock)
-                .setScheme(scheme)
-                .setDocPath(docPath)
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setScheme("test://")
+                .setDocPath("/doc")
                 .build();
 
         DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
-        given(discoverableApplicationMock.getName()).willReturn(appName);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
 
         Mono<SwaggerParseResult> applicationDoc = swaggerClient.findApplicationDoc(discoverableApplicationMock);
         StepVerifier.create(applicationDoc)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findChangedApplicationDoc_sendsValidators_andSkipsParsingIfNotModified() {
+        List<ClientRequest> requests = new ArrayList<>();
+        ExchangeFunction exchangeFunction = request -> {
+            requests.add(request);
+            ClientResponse response = requests.size() == 1 ?
+                    ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.ETAG, "\"v1\"")
+                            .header(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT")
+                            .body("serialized-doc")
+                            .build() :
+                    ClientResponse.create(HttpStatus.NOT_MODIFIED).build();
+            return Mono.just(response);
+        };
+
+        SwaggerParseResult parseResult = new SwaggerParseResult();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse("serialized-doc")).willReturn(parseResult);
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .verifyComplete();
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+
+        assertThat(requests.get(0).headers().getIfNoneMatch()).isEmpty();
+        assertThat(requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(requests.get(1).headers().getFirst(HttpHeaders.IF_MODIFIED_SINCE))
+                .isEqualTo("Wed, 21 Oct 2015 07:28:00 GMT");
+        then(parserMock).should(times(1)).parse(any());
+    }
+
+    @Test
+    void findChangedApplicationDoc_ifContentHashUnchanged_skipsParsing() {
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body("serialized-doc")
+                .build());
+
+        SwaggerParseResult parseResult = new SwaggerParseResult();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse("serialized-doc")).willReturn(parseResult);
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .verifyComplete();
+
+        then(parserMock).should(times(1)).parse(any());
+    }
+
+    @Test
+    void findChangedApplicationDoc_ifContentHashChanged_parsesNewDoc() {
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body("serialized-doc-v" + requestCount.incrementAndGet())
+                .build());
+
+        SwaggerParseResult parseResult = new SwaggerParseResult();
+        SwaggerParseResult newParseResult = new SwaggerParseResult();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse("serialized-doc-v1")).willReturn(parseResult);
+        given(parserMock.parse("serialized-doc-v2")).willReturn(newParseResult);
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(newParseResult)
+                .verifyComplete();
+    }
+
+    @Test
+    void onDocumentedEndpointsEvictedEvent_forgetsCachedDocOfEvictedApp() {
+        List<ClientRequest> requests = new ArrayList<>();
+        ExchangeFunction exchangeFunction = request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.ETAG, "\"v1\"")
+                    .body("serialized-doc")
+                    .build());
+        };
+
+        SwaggerParseResult parseResult = new SwaggerParseResult();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse("serialized-doc")).willReturn(parseResult);
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        swaggerClient.onDocumentedEndpointsEvictedEvent(
+                new DocumentedEndpointsEvictedEvent("test-application", List.of(), this));
+        StepVerifier.create(swaggerClient.findChangedApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+
+        assertThat(requests.get(1).headers().getIfNoneMatch()).isEmpty();
+        then(parserMock).should(times(2)).parse(any());
+    }
+
+    @Test
+    void findApplicationDoc_ifNotModifiedWithoutCachedDoc_returnsEmptyMono() {
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .verifyComplete();
+        then(parserMock).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findApplicationDoc_ifResponseHasNoBody_returnsEmptyMono() {
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .verifyComplete();
+        then(parserMock).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findApplicationDoc_ifServerErrorIsTransient_retries() {
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> Mono.just(requestCount.incrementAndGet() < 3 ?
+                ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build() :
+                ClientResponse.create(HttpStatus.OK).body("serialized-doc").build());
+
+        SwaggerParseResult parseResult = new SwaggerParseResult();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse("serialized-doc")).willReturn(parseResult);
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, parserMock);
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        assertThat(requestCount).hasValue(3);
+    }
+
+    @Test
+    void findApplicationDoc_ifResponseTimesOut_retriesAndThenFails() {
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> {
+            requestCount.incrementAndGet();
+            return Mono.never();
+        };
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setScheme("http://")
+                .setFetchTimeout(Duration.ofMillis(50))
+                .setMaxFetchRetries(2)
+                .setMinRetryBackoff(Duration.ofMillis(10))
+                .build();
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(requestCount).hasValue(3);
+    }
+
+    @Test
+    void findApplicationDoc_ifClientErrorOtherThanNotFound_failsWithoutRetries() {
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> {
+            requestCount.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN).build());
+        };
+
+        SwaggerClient swaggerClient = buildSwaggerClient(exchangeFunction, mock(SwaggerOpenApiParser.class));
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectError(WebClientResponseException.Forbidden.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void findApplicationDoc_parsesDocOnParseScheduler_andRecordsParseMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Scheduler parseScheduler = Schedulers.newSingle("test-parser");
+        AtomicReference<String> parseThreadName = new AtomicReference<>();
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse(any())).will(invocation -> {
+            parseThreadName.set(Thread.currentThread().getName());
+            return mock(SwaggerParseResult.class);
+        });
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body("{}")
+                .build());
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setParser(parserMock)
+                .setParseScheduler(parseScheduler)
+                .setMeterRegistry(meterRegistry)
+                .build();
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        try {
+            StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        } finally {
+            parseScheduler.dispose();
+        }
+        assertThat(parseThreadName.get()).startsWith("test-parser");
+        assertThat(meterRegistry.get(SwaggerClient.PARSE_TIME_METRIC).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SwaggerClient.PENDING_PARSES_METRIC).gauge().value()).isZero();
+    }
+
+    @Test
+    void findApplicationDoc_ifParseQueueIsFull_retriesParsingOnly() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Scheduler parseScheduler = Schedulers.newBoundedElastic(1, 1, "test-parser");
+        CountDownLatch blockingTaskStartLatch = new CountDownLatch(1);
+        CountDownLatch blockingTaskLatch = new CountDownLatch(1);
+        parseScheduler.schedule(() -> {
+            blockingTaskStartLatch.countDown();
+            awaitQuietly(blockingTaskLatch);
+        });
+        awaitQuietly(blockingTaskStartLatch);
+        parseScheduler.schedule(() -> {});
+
+        SwaggerParseResult parseResult = mock(SwaggerParseResult.class);
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse(any())).willReturn(parseResult);
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> {
+            requestCount.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .body("{}")
+                    .build());
+        };
+        Mono.delay(Duration.ofMillis(100)).subscribe(tick -> blockingTaskLatch.countDown());
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setParser(parserMock)
+                .setParseScheduler(parseScheduler)
+                .setMeterRegistry(meterRegistry)
+                .setMinRetryBackoff(Duration.ofMillis(50))
+                .build();
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        try {
+            StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                    .expectNext(parseResult)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        } finally {
+            parseScheduler.dispose();
+        }
+        assertThat(requestCount).hasValue(1);
+        assertThat(meterRegistry.get(SwaggerClient.REJECTED_PARSES_METRIC).counter().count()).isPositive();
+    }
+
+    @Test
+    void findApplicationDoc_ifDocExceedsMaxSize_failsWithoutRetries() {
+        AtomicInteger requestCount = new AtomicInteger();
+        ExchangeFunction exchangeFunction = request -> {
+            requestCount.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .body("x".repeat(2_048))
+                    .build());
+        };
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setParser(parserMock)
+                .setMaxDocSize(DataSize.ofKilobytes(1))
+                .setMinRetryBackoff(Duration.ofMillis(10))
+                .build();
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-application");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectError(DataBufferLimitException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(requestCount).hasValue(1);
+        then(parserMock).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findApplicationDoc_appliesMaxDocSizeOverridesIgnoringCase_andCountsFetchedBytesPerApp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        String serializedDoc = "x".repeat(2_048);
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(serializedDoc)
+                .build());
+        SwaggerParseResult parseResult = mock(SwaggerParseResult.class);
+        OpenApiParser<SwaggerParseResult> parserMock = mock(SwaggerOpenApiParser.class);
+        given(parserMock.parse(serializedDoc)).willReturn(parseResult);
+
+        SwaggerClient swaggerClient = SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setParser(parserMock)
+                .setMaxDocSize(DataSize.ofKilobytes(1))
+                .setMaxDocSizeOverrides(Map.of("huge-application", DataSize.ofKilobytes(4)))
+                .setMeterRegistry(meterRegistry)
+                .build();
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("HUGE-APPLICATION");
+
+        StepVerifier.create(swaggerClient.findApplicationDoc(discoverableApplicationMock))
+                .expectNext(parseResult)
+                .verifyComplete();
+        assertThat(meterRegistry.get(SwaggerClient.FETCHED_BYTES_METRIC).tag("app", "HUGE-APPLICATION")
+                .counter().count()).isEqualTo(2_048);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SwaggerClient buildSwaggerClient(ExchangeFunction exchangeFunction,
+                                                    OpenApiParser<SwaggerParseResult> parser) {
+        return SwaggerClient.builder(buildWebClient(exchangeFunction))
+                .setScheme("http://")
+                .setParser(parser)
+                .setMinRetryBackoff(Duration.ofMillis(10))
+                .build();
+    }
+
+    private static WebClient buildWebClient(ExchangeFunction exchangeFunction) {
+        return WebClient.builder()
+                .exchangeFunction(exchangeFunction)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.dynamicgateway.service.discoveryPipeline;
+
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class DiscoveryPipelineTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DiscoveryPipeline pipeline = new DiscoveryPipeline(new GatewayMeta(), meterRegistry);
+
+    @Test
+    void submit_runsTasksOfSameApplicationInSubmissionOrder() {
+        List<String> completedTasks = new CopyOnWriteArrayList<>();
+
+        pipeline.submit("some-app", "found", () -> Mono.delay(Duration.ofMillis(200))
+                .doOnNext(tick -> completedTasks.add("found")));
+        pipeline.submit("some-app", "lost", () -> Mono.fromRunnable(() -> completedTasks.add("lost")));
+
+        awaitUntil(() -> completedTasks.size() == 2);
+        assertThat(completedTasks).containsExactly("found", "lost");
+    }
+
+    @Test
+    void submit_doesntBlockTasksOfOtherApplications() {
+        Sinks.Empty<Void> blockingWork = Sinks.empty();
+        List<String> completedTasks = new CopyOnWriteArrayList<>();
+
+        pipeline.submit("stuck-app", "found", blockingWork::asMono);
+        pipeline.submit("other-app", "found", () -> Mono.fromRunnable(() -> completedTasks.add("other-app")));
+
+        awaitUntil(() -> completedTasks.contains("other-app"));
+        assertThat(pipeline.getPendingTaskCount()).isEqualTo(1);
+
+        blockingWork.tryEmitEmpty();
+        awaitUntil(() -> pipeline.getPendingTaskCount() == 0);
+    }
+
+    @Test
+    void submit_ifLaneIsStuckWithPiledUpTasks_runsTasksOfApplicationsInOtherLanes() {
+        GatewayMeta gatewayMeta = new GatewayMeta();
+        gatewayMeta.setDiscoveryConcurrency(2);
+        DiscoveryPipeline twoLanePipeline = new DiscoveryPipeline(gatewayMeta, meterRegistry);
+        String stuckAppName = "stuck-app";
+        List<String> otherLaneAppNames = IntStream.range(0, 1000)
+                .mapToObj(i -> "other-app-" + i)
+                .filter(appName -> Math.floorMod(appName.hashCode(), 2) != Math.floorMod(stuckAppName.hashCode(), 2))
+                .limit(100)
+                .toList();
+        Set<String> completedTasks = ConcurrentHashMap.newKeySet();
+
+        twoLanePipeline.submit(stuckAppName, "found", Mono::never);
+        for (int i = 0; i < 100; i++) {
+            twoLanePipeline.submit(stuckAppName, "updated", Mono::empty);
+        }
+        for (String appName : otherLaneAppNames) {
+            twoLanePipeline.submit(appName, "found", () -> Mono.fromRunnable(() -> completedTasks.add(appName)));
+        }
+
+        awaitUntil(() -> completedTasks.size() == otherLaneAppNames.size());
+        assertThat(twoLanePipeline.getPendingTaskCount()).isEqualTo(101);
+    }
+
+    @Test
+    void submit_ifTaskFails_runsNextTasks() {
+        List<String> completedTasks = new CopyOnWriteArrayList<>();
+
+        pipeline.submit("some-app", "found", () -> Mono.error(new RuntimeException("Doc fetch failed")));
+        pipeline.submit("some-app", "updated", () -> {
+            throw new IllegalStateException("Supplier failed");
+        });
+        pipeline.submit("some-app", "lost", () -> Mono.fromRunnable(() -> completedTasks.add("lost")));
+
+        awaitUntil(() -> completedTasks.contains("lost"));
+        assertThat(pipeline.getPendingTaskCount()).isZero();
+    }
+
+    @Test
+    void submit_recordsPendingTasksAndLatencyMetrics() {
+        pipeline.submit("some-app", "found", Mono::empty);
+        pipeline.submit("some-app", "lost", Mono::empty);
+
+        awaitUntil(() -> pipeline.getPendingTaskCount() == 0);
+        assertThat(meterRegistry.get(DiscoveryPipeline.PENDING_TASKS_METRIC).gauge().value()).isZero();
+        assertThat(meterRegistry.get(DiscoveryPipeline.TASK_LATENCY_METRIC).tag("type", "found").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(DiscoveryPipeline.TASK_LATENCY_METRIC).tag("type", "lost").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void submit_returnsMonoCompletingOnceWorkIsComplete() {
+        Sinks.Empty<Void> work = Sinks.empty();
+
+        StepVerifier.create(pipeline.submit("some-app", "found", work::asMono))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(work::tryEmitEmpty)
+                .verifyComplete();
+    }
+
+    @Test
+    @SneakyThrows
+    void submit_ifPipelineIsAtCapacity_blocksSubmitterUntilRoom_andLosesNoTasks() {
+        GatewayMeta gatewayMeta = new GatewayMeta();
+        gatewayMeta.setDiscoveryConcurrency(1);
+        gatewayMeta.setDiscoveryQueueCapacity(2);
+        DiscoveryPipeline smallPipeline = new DiscoveryPipeline(gatewayMeta, meterRegistry);
+        Sinks.Empty<Void> blockingWork = Sinks.empty();
+        List<Integer> completedTasks = new CopyOnWriteArrayList<>();
+        AtomicInteger submittedTaskCount = new AtomicInteger();
+        int taskCount = 20;
+
+        smallPipeline.submit("some-app", "found", blockingWork::asMono);
+        submittedTaskCount.incrementAndGet();
+        Thread submitter = new Thread(() -> {
+            for (int i = 1; i < taskCount; i++) {
+                int taskNumber = i;
+                smallPipeline.submit("some-app", "lost", () -> Mono.fromRunnable(() -> completedTasks.add(taskNumber)));
+                submittedTaskCount.incrementAndGet();
+            }
+        });
+        submitter.start();
+
+        awaitUntil(() -> submitter.getState() == Thread.State.WAITING || submitter.getState() == Thread.State.TIMED_WAITING);
+        assertThat(submittedTaskCount).hasValue(2);
+
+        blockingWork.tryEmitEmpty();
+        submitter.join(TimeUnit.SECONDS.toMillis(5));
+
+        awaitUntil(() -> completedTasks.size() == taskCount - 1);
+        assertThat(completedTasks).isSorted().doesNotHaveDuplicates();
+        assertThat(smallPipeline.getPendingTaskCount()).isZero();
+    }
+
+    @Test
+    void submit_ifInterruptedWhileWaitingForRoom_admitsTaskAnyway() {
+        List<String> completedTasks = new CopyOnWriteArrayList<>();
+
+        Thread.currentThread().interrupt();
+        try {
+            pipeline.submit("some-app", "lost", () -> Mono.fromRunnable(() -> completedTasks.add("lost")));
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        awaitUntil(() -> completedTasks.contains("lost"));
+        assertThat(pipeline.getPendingTaskCount()).isZero();
+    }
+
+    @Test
+    void submit_withNullArguments_throws() {
+        assertThatNullPointerException().isThrownBy(() -> pipeline.submit(null, "found", Mono::empty));
+        assertThatNullPointerException().isThrownBy(() -> pipeline.submit("some-app", null, Mono::empty));
+        assertThatNullPointerException().isThrownBy(() -> pipeline.submit("some-app", "found", null));
+    }
+
+    @SneakyThrows
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition awaited for too long").isLessThan(deadlineNanos);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.dynamicgateway.service.discoverySnapshot;
+
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
+import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
+import com.example.dynamicgateway.service.swaggerDocParser.DeferredSwaggerParseResult;
+import com.example.dynamicgateway.service.swaggerDocParser.OpenApiParser;
+import com.example.dynamicgateway.service.swaggerDocParser.StreamingOpenApiParser;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
+import com.netflix.discovery.shared.Application;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+
+class DiscoverySnapshotStoreTest {
+    private final OpenApiParser<SwaggerParseResult> parser = new StreamingOpenApiParser();
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void snapshottedDocs_areRestoredOnNextStart_andReconciled() {
+        GatewayMeta gatewayMeta = getGatewayMeta(tempDir.resolve("snapshot.bin"));
+        DiscoverySnapshotStore store =
+                new DiscoverySnapshotStore(gatewayMeta, mock(SwaggerEndpointCollector.class), parser);
+
+        store.onDocumentedApplicationFoundEvent(buildFoundEvent("test-app", "/test-path"));
+        awaitSnapshot(gatewayMeta.getSnapshotPath());
+
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore restartedStore = new DiscoverySnapshotStore(gatewayMeta, collectorMock, parser);
+        restartedStore.onApplicationReadyEvent();
+
+        then(collectorMock).should(timeout(5_000)).restoreApplication(
+                argThat(app -> app.getName().equals("test-app")),
+                argThat(doc -> doc.getOpenAPI().getPaths().containsKey("/test-path")));
+        then(collectorMock).should(timeout(5_000)).evictUnconfirmedApplications();
+    }
+
+    @Test
+    void evictedApplications_areNotRestored() {
+        GatewayMeta gatewayMeta = getGatewayMeta(tempDir.resolve("snapshot.bin"));
+        DiscoverySnapshotStore store =
+                new DiscoverySnapshotStore(gatewayMeta, mock(SwaggerEndpointCollector.class), parser);
+
+        store.onDocumentedApplicationFoundEvent(buildFoundEvent("fragile-app", "/fragile-path"));
+        store.onDocumentedApplicationFoundEvent(buildFoundEvent("resilient-app", "/resilient-path"));
+        store.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("fragile-app", List.of(), this));
+        awaitSnapshot(gatewayMeta.getSnapshotPath());
+
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore restartedStore = new DiscoverySnapshotStore(gatewayMeta, collectorMock, parser);
+        restartedStore.onApplicationReadyEvent();
+
+        then(collectorMock).should(timeout(5_000)).restoreApplication(
+                argThat(app -> app.getName().equals("resilient-app")), any());
+        then(collectorMock).should(after(200).never()).restoreApplication(
+                argThat(app -> app.getName().equals("fragile-app")), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void corruptedSnapshot_isIgnored() {
+        Path snapshotPath = tempDir.resolve("snapshot.bin");
+        Files.writeString(snapshotPath, "not a snapshot");
+
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore store = new DiscoverySnapshotStore(getGatewayMeta(snapshotPath), collectorMock, parser);
+        store.onApplicationReadyEvent();
+
+        then(collectorMock).should(after(200).never()).restoreApplication(any(), any());
+    }
+
+    @Test
+    void withoutSnapshotPath_neitherWritesNorRestores() {
+        GatewayMeta gatewayMeta = getGatewayMeta(null);
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore store = new DiscoverySnapshotStore(gatewayMeta, collectorMock, parser);
+
+        store.onDocumentedApplicationFoundEvent(buildFoundEvent("test-app", "/test-path"));
+        store.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("test-app", List.of(), this));
+        store.onApplicationReadyEvent();
+
+        then(collectorMock).should(after(200).never()).restoreApplication(any(), any());
+        assertThat(tempDir).isEmptyDirectory();
+    }
+
+    @Test
+    @SneakyThrows
+    void snapshotOfAnotherVersion_isIgnored() {
+        Path snapshotPath = tempDir.resolve("snapshot.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshotPath))) {
+            out.writeInt(0x44475753);
+            out.writeInt(-1);
+            out.writeInt(0);
+        }
+
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore store = new DiscoverySnapshotStore(getGatewayMeta(snapshotPath), collectorMock, parser);
+        store.onApplicationReadyEvent();
+
+        then(collectorMock).should(after(200).never()).restoreApplication(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unparsedDocs_areSnapshottedAsIs_andUnparseableDocsAreSkipped() {
+        GatewayMeta gatewayMeta = getGatewayMeta(tempDir.resolve("snapshot.bin"));
+        DiscoverySnapshotStore store =
+                new DiscoverySnapshotStore(gatewayMeta, mock(SwaggerEndpointCollector.class), parser);
+        String serializedDoc = """
+                openapi: 3.0.1
+                info:
+                  title: Test API
+                  version: '1.0'
+                paths:
+                  /test-path:
+                    get:
+                      responses:
+                        '200':
+                          description: OK
+                """;
+
+        store.onDocumentedApplicationFoundEvent(buildFoundEvent("test-app",
+                parser.parse(serializedDoc)));
+        DocumentedApplication<SwaggerParseResult> brokenApp = mock(DocumentedApplication.class);
+        given(brokenApp.getName()).willReturn("broken-app");
+        given(brokenApp.getNativeDoc()).willReturn(new SwaggerParseResult());
+        store.onDocumentedApplicationFoundEvent(new DocumentedApplicationFoundEvent(brokenApp, List.of(), this));
+        store.onDocumentedApplicationFoundEvent(new DocumentedApplicationFoundEvent(
+                mock(DocumentedApplication.class), List.of(), this));
+        store.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("unknown-app", List.of(), this));
+        awaitSnapshot(gatewayMeta.getSnapshotPath());
+
+        SwaggerEndpointCollector collectorMock = mock(SwaggerEndpointCollector.class);
+        DiscoverySnapshotStore restartedStore = new DiscoverySnapshotStore(gatewayMeta, collectorMock, parser);
+        restartedStore.onApplicationReadyEvent();
+
+        then(collectorMock).should(timeout(5_000)).restoreApplication(
+                argThat(app -> app.getName().equals("test-app")),
+                argThat(doc -> doc instanceof DeferredSwaggerParseResult deferredDoc &&
+                        deferredDoc.getSerializedDoc().equals(serializedDoc)));
+        then(collectorMock).should(after(200).never()).restoreApplication(
+                argThat(app -> app.getName().equals("broken-app")), any());
+    }
+
+    private static GatewayMeta getGatewayMeta(Path snapshotPath) {
+        GatewayMeta gatewayMeta = new GatewayMeta();
+        gatewayMeta.setSnapshotPath(snapshotPath);
+        gatewayMeta.setSnapshotReconcileTimeout(Duration.ofMillis(100));
+        gatewayMeta.setDiscoveryQuietWindow(Duration.ofMillis(10));
+        gatewayMeta.setDiscoveryMaxDelay(Duration.ofMillis(50));
+        return gatewayMeta;
+    }
+
+    private DocumentedApplicationFoundEvent buildFoundEvent(String appName, String path) {
+        SwaggerEndpoint endpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path(path)
+                .build();
+        return buildFoundEvent(appName, SwaggerParseResultGenerator.createForEndpoints(endpoint));
+    }
+
+    private DocumentedApplicationFoundEvent buildFoundEvent(String appName, SwaggerParseResult doc) {
+        SwaggerApplication application = new SwaggerApplication(
+                EurekaDiscoverableApplication.from(new Application(appName)), doc);
+        return new DocumentedApplicationFoundEvent(application, List.of(), this);
+    }
+
+    @SneakyThrows
+    private static void awaitSnapshot(Path snapshotPath) {
+        long deadlineNanos = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!Files.exists(snapshotPath) && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assumeThat(snapshotPath).exists();
+    }
+}
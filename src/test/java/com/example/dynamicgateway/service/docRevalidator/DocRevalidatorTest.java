@@ -0,0 +1,111 @@
+package com.example.dynamicgateway.service.docRevalidator;
+
+import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.service.applicationCollector.ApplicationCollector;
+import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+
+class DocRevalidatorTest {
+    private final ApplicationCollector applicationCollectorMock = mock(ApplicationCollector.class);
+    private final SwaggerEndpointCollector endpointCollectorMock = mock(SwaggerEndpointCollector.class);
+    private final DiscoverableApplication<?> someApp = mock(DiscoverableApplication.class);
+    private final DiscoverableApplication<?> otherApp = mock(DiscoverableApplication.class);
+
+    @Test
+    void onceReady_revalidatesCollectedApplicationsRepeatedly() {
+        given(applicationCollectorMock.getCollectedApplications()).willAnswer(i -> Set.of(someApp, otherApp));
+        given(endpointCollectorMock.revalidateApplication(any())).willReturn(Mono.empty());
+
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ofMillis(50), 2));
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(timeout(5_000).atLeast(2)).revalidateApplication(someApp);
+        then(endpointCollectorMock).should(timeout(5_000).atLeast(2)).revalidateApplication(otherApp);
+    }
+
+    @Test
+    void cycle_revalidatesNoMoreApplicationsAtOnceThanConcurrencyAllows() {
+        given(applicationCollectorMock.getCollectedApplications()).willAnswer(i -> Set.of(someApp, otherApp));
+        given(endpointCollectorMock.revalidateApplication(any())).willReturn(Mono.never());
+
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ofMillis(50), 1));
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(timeout(5_000)).revalidateApplication(any());
+        then(endpointCollectorMock).should(after(300).times(1)).revalidateApplication(any());
+    }
+
+    @Test
+    void cycle_startsEachRevalidationOnRevalidatorThread() {
+        List<String> revalidatingThreadNames = new CopyOnWriteArrayList<>();
+        given(applicationCollectorMock.getCollectedApplications()).willAnswer(i -> Set.of(someApp, otherApp));
+        given(endpointCollectorMock.revalidateApplication(any())).willAnswer(i -> {
+            revalidatingThreadNames.add(Thread.currentThread().getName());
+            return Mono.delay(Duration.ofMillis(10)).then();
+        });
+
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ofMillis(50), 1));
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(timeout(5_000).atLeast(4)).revalidateApplication(any());
+        assertThat(revalidatingThreadNames).allMatch(threadName -> threadName.startsWith("doc-revalidator"));
+    }
+
+    @Test
+    void withZeroInterval_doesntRevalidate() {
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ZERO, 2));
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(after(200).never()).revalidateApplication(any());
+    }
+
+    @Test
+    void withNegativeInterval_doesntRevalidate() {
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ofMillis(-50), 2));
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(after(200).never()).revalidateApplication(any());
+    }
+
+    @Test
+    void onceReadyTwice_startsSingleRevalidationLoop() {
+        given(applicationCollectorMock.getCollectedApplications()).willAnswer(i -> Set.of(someApp));
+        given(endpointCollectorMock.revalidateApplication(any())).willReturn(Mono.never());
+
+        DocRevalidator revalidator = new DocRevalidator(
+                applicationCollectorMock, endpointCollectorMock, getGatewayMeta(Duration.ofMillis(50), 2));
+        revalidator.onApplicationReadyEvent();
+        revalidator.onApplicationReadyEvent();
+
+        then(endpointCollectorMock).should(timeout(5_000)).revalidateApplication(someApp);
+        then(endpointCollectorMock).should(after(300).times(1)).revalidateApplication(someApp);
+    }
+
+    private static GatewayMeta getGatewayMeta(Duration interval, int concurrency) {
+        GatewayMeta gatewayMeta = new GatewayMeta();
+        gatewayMeta.setDocRevalidationInterval(interval);
+        gatewayMeta.setDocRevalidationConcurrency(concurrency);
+        return gatewayMeta;
+    }
+}
@@ -3,12 +3,17 @@ package com.example.dynamicgateway.service.endpointCollector;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.service.sieve.EndpointSieve;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -25,4 +30,89 @@ class AbstractFilteringEndpointCollectorTest {
         SwaggerEndpointStub endpoint = SwaggerEndpointStub.builder().build();
         assertThat(collector.addEndpoint(endpoint)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getSnapshot_indexesEndpointsByAppAndByMethodAndPath() {
+        var collector = new AbstractFilteringEndpointCollector<SwaggerEndpointStub>(
+                ConcurrentHashMap::newKeySet, List.of(e -> true)) {
+        };
+        SwaggerEndpointStub getUsers = buildEndpoint("user-app", HttpMethod.GET, "/users");
+        SwaggerEndpointStub postUsers = buildEndpoint("user-app", HttpMethod.POST, "/users");
+        SwaggerEndpointStub getOrders = buildEndpoint("order-app", HttpMethod.GET, "/orders");
+        Stream.of(getUsers, postUsers, getOrders).forEach(collector::addEndpoint);
+
+        EndpointSnapshot<SwaggerEndpointStub> snapshot = collector.getSnapshot();
+
+        assertThat(snapshot.getEndpoints()).containsExactlyInAnyOrder(getUsers, postUsers, getOrders);
+        assertThat(snapshot.getEndpointsOf("user-app")).containsExactlyInAnyOrder(getUsers, postUsers);
+        assertThat(snapshot.getEndpointsOf("unknown-app")).isEmpty();
+        assertThat(snapshot.getEndpoints(HttpMethod.GET, "/orders")).containsExactly(getOrders);
+        assertThat(collector.hasEndpoint(HttpMethod.POST, "/users")).isTrue();
+        assertThat(collector.hasEndpoint(HttpMethod.POST, "/orders")).isFalse();
+        assertThat(collector.getCollectedEndpointsOf("order-app")).containsExactly(getOrders);
+    }
+
+    @Test
+    void getSnapshot_isReusedUntilEndpointsChange() {
+        var collector = new AbstractFilteringEndpointCollector<SwaggerEndpointStub>(
+                ConcurrentHashMap::newKeySet, List.of(e -> true)) {
+        };
+        collector.addEndpoint(buildEndpoint("user-app", HttpMethod.GET, "/users"));
+
+        EndpointSnapshot<SwaggerEndpointStub> snapshot = collector.getSnapshot();
+        assertThat(collector.getSnapshot()).isSameAs(snapshot);
+
+        collector.evictEndpointsOf("user-app");
+
+        EndpointSnapshot<SwaggerEndpointStub> newSnapshot = collector.getSnapshot();
+        assertThat(newSnapshot.getVersion()).isGreaterThan(snapshot.getVersion());
+        assertThat(newSnapshot.getEndpoints()).isEmpty();
+        assertThat(snapshot.getEndpoints()).hasSize(1);
+        assertThatThrownBy(() -> newSnapshot.getEndpoints().add(buildEndpoint("app", HttpMethod.GET, "/test-path")))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void replaceEndpointsOf_withNoEndpoints_removesApp_andEvictingUnknownAppChangesNothing() {
+        var collector = new AbstractFilteringEndpointCollector<SwaggerEndpointStub>(
+                ConcurrentHashMap::newKeySet, List.of(e -> true)) {
+        };
+        collector.addEndpoint(buildEndpoint("user-app", HttpMethod.GET, "/users"));
+
+        assertThat(collector.replaceEndpointsOf("user-app", List.of())).isTrue();
+        assertThat(collector.getCollectedEndpointsOf("user-app")).isEmpty();
+
+        EndpointSnapshot<SwaggerEndpointStub> snapshot = collector.getSnapshot();
+        assertThat(collector.evictEndpointsOf("user-app")).isEmpty();
+        assertThat(collector.getSnapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    void replaceEndpointsOf_detectsChangedEndpointDetails() {
+        var collector = new AbstractFilteringEndpointCollector<SwaggerEndpointStub>(
+                ConcurrentHashMap::newKeySet, List.of(e -> true)) {
+        };
+        collector.addEndpoint(buildEndpoint("user-app", HttpMethod.GET, "/users"));
+
+        assertThat(collector.replaceEndpointsOf("user-app", List.of(buildEndpoint("user-app", HttpMethod.GET, "/users"))))
+                .isFalse();
+
+        SwaggerEndpointStub.Builder changedEndpointBuilder = SwaggerEndpointStub.builder()
+                .declaringAppName("user-app")
+                .method(HttpMethod.GET)
+                .path("/users");
+        changedEndpointBuilder.getDetailsBuilder().parameters(List.of(new Parameter().name("page")));
+        SwaggerEndpointStub changedEndpoint = changedEndpointBuilder.build();
+
+        assertThat(collector.replaceEndpointsOf("user-app", List.of(changedEndpoint))).isTrue();
+        assertThat(collector.getCollectedEndpointsOf("user-app")).singleElement().isSameAs(changedEndpoint);
+    }
+
+    private static SwaggerEndpointStub buildEndpoint(String appName, HttpMethod method, String path) {
+        return SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(method)
+                .path(path)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dynamicgateway.service.endpointCollector;
+
+import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointCollectorTest {
+    private final SwaggerEndpoint getUsers = SwaggerEndpointStub.builder()
+            .declaringAppName("user-app").method(HttpMethod.GET).path("/users").build();
+    private final SwaggerEndpoint getOrders = SwaggerEndpointStub.builder()
+            .declaringAppName("order-app").method(HttpMethod.GET).path("/orders").build();
+    private final EndpointCollector<SwaggerEndpoint> collector = () -> Set.of(getUsers, getOrders);
+
+    @Test
+    void getCollectedEndpointsOf_returnsEndpointsDeclaredByApp() {
+        assertThat(collector.getCollectedEndpointsOf("user-app")).containsExactly(getUsers);
+        assertThat(collector.getCollectedEndpointsOf("unknown-app")).isEmpty();
+    }
+
+    @Test
+    void hasEndpoint_matchesBothMethodAndPath() {
+        assertThat(collector.hasEndpoint(HttpMethod.GET, "/orders")).isTrue();
+        assertThat(collector.hasEndpoint(HttpMethod.POST, "/orders")).isFalse();
+        assertThat(collector.hasEndpoint(HttpMethod.GET, "/unknown")).isFalse();
+    }
+}
@@ -2,27 +2,33 @@ package com.example.dynamicgateway.service.endpointCollector;
 
 import com.example.dynamicgateway.events.DiscoverableApplicationFoundEvent;
 import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
-import com.example.dynamicgateway.events.DocumentedEndpointFoundEvent;
+import com.example.dynamicgateway.events.DiscoverableApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.applicationDocClient.ApplicationDocClient;
 import com.example.dynamicgateway.service.applicationDocClient.SwaggerClient;
+import com.example.dynamicgateway.service.discoveryPipeline.DiscoveryPipeline;
 import com.example.dynamicgateway.service.sieve.EndpointSieve;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
 import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
 import com.netflix.discovery.shared.Application;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
-import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpMethod;
-import org.springframework.util.ReflectionUtils;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
-import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -31,12 +37,16 @@ import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 
 class SwaggerEndpointCollectorTest {
+    private final DiscoveryPipeline discoveryPipeline = new DiscoveryPipeline(new GatewayMeta(), new SimpleMeterRegistry());
     private SwaggerEndpointCollector collector;
 
     @Test
@@ -46,7 +56,7 @@ class SwaggerEndpointCollectorTest {
     }
 
     private SwaggerEndpointCollector getCollectorWithNullFields() {
-        return new SwaggerEndpointCollector(null, null, null);
+        return new SwaggerEndpointCollector(null, Collections.emptyList(), null, null);
     }
 
     @Test
@@ -70,14 +80,8 @@ class SwaggerEndpointCollectorTest {
         assertThat(collector.getCollectedEndpoints()).hasSize(1);
     }
 
-    @SneakyThrows
-    @SuppressWarnings({"unchecked", "DataFlowIssue"})
     private void addEndpoint(SwaggerEndpoint endpoint) {
-        Field documentedEndpointsField =
-                ReflectionUtils.findField(SwaggerEndpointCollector.class, "documentedEndpoints");
-        assumeThat(documentedEndpointsField).isNotNull();
-        documentedEndpointsField.setAccessible(true);
-        ((Set<SwaggerEndpoint>) documentedEndpointsField.get(collector)).add(endpoint);
+        collector.addEndpoint(endpoint);
     }
 
     @Test
@@ -159,7 +163,7 @@ class SwaggerEndpointCollectorTest {
         EndpointSieve onlyPostEndpointSieve = onlyPost::test;
         List<EndpointSieve> sieves = List.of(onlyPostEndpointSieve);
 
-        collector = new SwaggerEndpointCollector(docClientMock, sieves, eventPublisherMock);
+        collector = new SwaggerEndpointCollector(docClientMock, sieves, eventPublisherMock, discoveryPipeline);
 
         assumeThat(collector.getCollectedEndpoints()).isEmpty();
 
@@ -172,17 +176,44 @@ class SwaggerEndpointCollectorTest {
                 .toList();
         assertThat(collector.getCollectedEndpoints()).containsExactlyInAnyOrderElementsOf(distinctPostEndpoints);
 
-        ArgumentCaptor<DocumentedEndpointFoundEvent> eventCaptor = ArgumentCaptor.forClass(DocumentedEndpointFoundEvent.class);
-        int expectedNumberOfInvocations = distinctPostEndpoints.size();
-        then(eventPublisherMock).should(times(expectedNumberOfInvocations)).publishEvent(eventCaptor.capture());
-        assertThat(eventCaptor.getAllValues())
-                .extracting(DocumentedEndpointFoundEvent::getFoundEndpoint)
+        ArgumentCaptor<DocumentedApplicationFoundEvent> eventCaptor =
+                ArgumentCaptor.forClass(DocumentedApplicationFoundEvent.class);
+        then(eventPublisherMock).should(times(1)).publishEvent(eventCaptor.capture());
+        DocumentedApplicationFoundEvent event = eventCaptor.getValue();
+        assertThat(event.getFoundApp().getName()).isEqualTo(appName);
+        assertThat(event.getFoundEndpoints())
                 .map(SwaggerEndpoint.class::cast)
-                .allMatch(distinctPostEndpoints::contains);
+                .containsExactlyInAnyOrderElementsOf(distinctPostEndpoints);
     }
 
     @Test
-    void onDiscoverableApplicationLostEvent_evictsApplicationsEndpoints() {
+    void onDiscoverableApplicationFoundEvent_ifAllEndpointsAlreadyCollected_doesntPublishAnything() {
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-app");
+
+        SwaggerEndpoint endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.GET)
+                .path("/test-path")
+                .build();
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findApplicationDoc(discoverableApplicationMock))
+                .willReturn(Mono.just(SwaggerParseResultGenerator.createForEndpoints(List.of(endpoint))));
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        DiscoverableApplicationFoundEvent appFoundEvent =
+                new DiscoverableApplicationFoundEvent(discoverableApplicationMock, this);
+
+        collector.onDiscoverableApplicationFoundEvent(appFoundEvent);
+        collector.onDiscoverableApplicationFoundEvent(appFoundEvent);
+
+        then(eventPublisherMock).should(times(1)).publishEvent(any(DocumentedApplicationFoundEvent.class));
+    }
+
+    @Test
+    void onDiscoverableApplicationLostEvent_evictsApplicationsEndpoints_andPublishesThem() {
         String resilientAppName = "resilient-app";
         List<SwaggerEndpoint> resilientEndpoints = List.of(
                 SwaggerEndpointStub.builder()
@@ -222,7 +253,9 @@ class SwaggerEndpointCollectorTest {
         DiscoverableApplication<Application> fragileApp = mock(EurekaDiscoverableApplication.class);
         given(fragileApp.getName()).willReturn(fragileAppName);
 
-        collector = getCollectorWithNullFields();
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(null, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
 
         List<SwaggerEndpoint> allEndpoints = Stream.concat(resilientEndpoints.stream(),
                 fragileEndpoints.stream()).toList();
@@ -232,6 +265,14 @@ class SwaggerEndpointCollectorTest {
         DiscoverableApplicationLostEvent appLostEvent = new DiscoverableApplicationLostEvent(fragileApp, this);
         collector.onDiscoverableApplicationLostEvent(appLostEvent);
 
+        ArgumentCaptor<DocumentedEndpointsEvictedEvent> eventCaptor =
+                ArgumentCaptor.forClass(DocumentedEndpointsEvictedEvent.class);
+        then(eventPublisherMock).should(timeout(5_000).times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAppName()).isEqualTo(fragileAppName);
+        assertThat(eventCaptor.getValue().getEvictedEndpoints())
+                .map(SwaggerEndpoint.class::cast)
+                .containsExactlyInAnyOrderElementsOf(fragileEndpoints);
+
         Set<SwaggerEndpoint> retainedEndpoints = collector.getCollectedEndpoints();
         assertThat(retainedEndpoints).containsExactlyInAnyOrderElementsOf(resilientEndpoints);
     }
@@ -247,7 +288,7 @@ class SwaggerEndpointCollectorTest {
 
         ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
 
-        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock);
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
 
         DiscoverableApplicationFoundEvent eventMock =
                 new DiscoverableApplicationFoundEvent(discoverableApplicationMock, this);
@@ -259,4 +300,211 @@ class SwaggerEndpointCollectorTest {
         assertThat(collector.getCollectedEndpoints()).isEmpty();
         then(eventPublisherMock).shouldHaveNoInteractions();
     }
-}
\ No newline at end of file
+
+    @Test
+    void onDiscoverableApplicationUpdatedEvent_replacesEndpoints_andPublishesThemWheneverDocChanged() {
+        String appName = "test-app";
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn(appName);
+
+        SwaggerEndpoint retainedEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path("/retained")
+                .build();
+        SwaggerEndpoint removedEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path("/removed")
+                .build();
+        SwaggerEndpoint addedEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.POST)
+                .path("/added")
+                .build();
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findChangedApplicationDoc(discoverableApplicationMock)).willReturn(Mono.just(
+                SwaggerParseResultGenerator.createForEndpoints(List.of(retainedEndpoint, addedEndpoint))));
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        Stream.of(retainedEndpoint, removedEndpoint).forEach(this::addEndpoint);
+
+        DiscoverableApplicationUpdatedEvent appUpdatedEvent =
+                new DiscoverableApplicationUpdatedEvent(discoverableApplicationMock, this);
+        collector.onDiscoverableApplicationUpdatedEvent(appUpdatedEvent);
+
+        assertThat(collector.getCollectedEndpoints()).containsExactlyInAnyOrder(retainedEndpoint, addedEndpoint);
+
+        ArgumentCaptor<DocumentedApplicationUpdatedEvent> eventCaptor =
+                ArgumentCaptor.forClass(DocumentedApplicationUpdatedEvent.class);
+        then(eventPublisherMock).should(times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getEndpoints())
+                .map(SwaggerEndpoint.class::cast)
+                .containsExactlyInAnyOrder(retainedEndpoint, addedEndpoint);
+
+        collector.onDiscoverableApplicationUpdatedEvent(appUpdatedEvent);
+
+        then(eventPublisherMock).should(times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getEndpoints())
+                .map(SwaggerEndpoint.class::cast)
+                .containsExactlyInAnyOrder(retainedEndpoint, addedEndpoint);
+    }
+
+    @Test
+    void onDiscoverableApplicationUpdatedEvent_ifDocChangedButEndpointsDidnt_publishesNewDoc() {
+        String appName = "test-app";
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn(appName);
+        SwaggerEndpoint endpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path("/test-path")
+                .build();
+        SwaggerParseResult newDoc = SwaggerParseResultGenerator.createForEndpoints(
+                new Info().description("New description"), endpoint);
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findChangedApplicationDoc(discoverableApplicationMock)).willReturn(Mono.just(newDoc));
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        addEndpoint(endpoint);
+
+        collector.onDiscoverableApplicationUpdatedEvent(
+                new DiscoverableApplicationUpdatedEvent(discoverableApplicationMock, this));
+
+        ArgumentCaptor<DocumentedApplicationUpdatedEvent> eventCaptor =
+                ArgumentCaptor.forClass(DocumentedApplicationUpdatedEvent.class);
+        then(eventPublisherMock).should(timeout(5_000)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getUpdatedApp().getNativeDoc()).isSameAs(newDoc);
+        assertThat(eventCaptor.getValue().getEndpoints())
+                .map(SwaggerEndpoint.class::cast)
+                .containsExactly(endpoint);
+    }
+
+    @Test
+    void restoreApplication_collectsEndpoints_andRefetchesDocOnceApplicationIsFound() {
+        String appName = "test-app";
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn(appName);
+
+        SwaggerEndpoint restoredEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path("/restored")
+                .build();
+        SwaggerEndpoint liveEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .method(HttpMethod.GET)
+                .path("/live")
+                .build();
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findChangedApplicationDoc(discoverableApplicationMock))
+                .willReturn(Mono.just(SwaggerParseResultGenerator.createForEndpoints(liveEndpoint)));
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        collector.restoreApplication(discoverableApplicationMock,
+                SwaggerParseResultGenerator.createForEndpoints(restoredEndpoint));
+
+        then(eventPublisherMock).should(timeout(5_000).times(1)).publishEvent(any(DocumentedApplicationFoundEvent.class));
+        assertThat(collector.getCollectedEndpoints())
+                .extracting(endpoint -> endpoint.getDetails().getPath())
+                .containsExactly("/restored");
+
+        collector.onDiscoverableApplicationFoundEvent(
+                new DiscoverableApplicationFoundEvent(discoverableApplicationMock, this));
+
+        then(eventPublisherMock).should(timeout(5_000).times(1)).publishEvent(any(DocumentedApplicationUpdatedEvent.class));
+        assertThat(collector.getCollectedEndpoints())
+                .extracting(endpoint -> endpoint.getDetails().getPath())
+                .containsExactly("/live");
+    }
+
+    @Test
+    void evictUnconfirmedApplications_evictsOnlyRestoredApplicationsThatWerentFound() {
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("stale-app");
+
+        SwaggerEndpoint restoredEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName("stale-app")
+                .method(HttpMethod.GET)
+                .path("/restored")
+                .build();
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(null, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        collector.restoreApplication(discoverableApplicationMock,
+                SwaggerParseResultGenerator.createForEndpoints(restoredEndpoint));
+        then(eventPublisherMock).should(timeout(5_000).times(1)).publishEvent(any(DocumentedApplicationFoundEvent.class));
+
+        collector.evictUnconfirmedApplications();
+        collector.evictUnconfirmedApplications();
+
+        ArgumentCaptor<DocumentedEndpointsEvictedEvent> eventCaptor =
+                ArgumentCaptor.forClass(DocumentedEndpointsEvictedEvent.class);
+        then(eventPublisherMock).should(timeout(5_000).times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAppName()).isEqualTo("stale-app");
+        assertThat(collector.getCollectedEndpoints()).isEmpty();
+    }
+
+    @Test
+    void onDiscoverableApplicationUpdatedEvent_ifDocUnchanged_doesntReplaceOrPublishAnything() {
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-app");
+
+        SwaggerEndpoint collectedEndpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.GET)
+                .path("/test-path")
+                .build();
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findChangedApplicationDoc(discoverableApplicationMock)).willReturn(Mono.empty());
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        addEndpoint(collectedEndpoint);
+
+        collector.onDiscoverableApplicationUpdatedEvent(
+                new DiscoverableApplicationUpdatedEvent(discoverableApplicationMock, this));
+
+        assertThat(collector.getCollectedEndpoints()).containsExactly(collectedEndpoint);
+        then(eventPublisherMock).should(after(200).never()).publishEvent(any());
+    }
+
+    @Test
+    void revalidateApplication_ofApplicationWithoutEndpoints_collectsAndPublishesThem() {
+        DiscoverableApplication<?> discoverableApplicationMock = mock(DiscoverableApplication.class);
+        given(discoverableApplicationMock.getName()).willReturn("test-app");
+
+        SwaggerEndpoint endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.GET)
+                .path("/test-path")
+                .build();
+
+        ApplicationDocClient<SwaggerParseResult> docClientMock = mock(SwaggerClient.class);
+        given(docClientMock.findChangedApplicationDoc(discoverableApplicationMock))
+                .willReturn(Mono.just(SwaggerParseResultGenerator.createForEndpoints(endpoint)));
+
+        ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+        collector = new SwaggerEndpointCollector(docClientMock, Collections.emptyList(), eventPublisherMock, discoveryPipeline);
+        assumeThat(collector.getCollectedEndpoints()).isEmpty();
+
+        StepVerifier.create(collector.revalidateApplication(discoverableApplicationMock))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(collector.getCollectedEndpoints())
+                .extracting(collectedEndpoint -> collectedEndpoint.getDetails().getPath())
+                .containsExactly("/test-path");
+        then(eventPublisherMock).should(times(1)).publishEvent(any(DocumentedApplicationUpdatedEvent.class));
+    }
+}
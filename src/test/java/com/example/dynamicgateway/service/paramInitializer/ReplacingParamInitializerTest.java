@@ -1,11 +1,10 @@
 package com.example.dynamicgateway.service.paramInitializer;
 
-import com.example.dynamicgateway.testUtil.RouteBuilderUtil;
+import com.example.dynamicgateway.service.routeProcessor.RequestRewritingGatewayFilter;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.route.Route;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
@@ -16,7 +15,6 @@ import reactor.test.StepVerifier;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assumptions.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.BDDMockito.then;
@@ -24,7 +22,6 @@ import static org.mockito.BDDMockito.given;
 
 class ReplacingParamInitializerTest {
     private final List<Integer> paramValues = List.of(1, 2, 3);
-    private final Route.AsyncBuilder routeBuilder = Route.async();
     private final ParamInitializer paramInitializer = new ReplacingParamInitializer() {
         @Override
         public String getParamName() {
@@ -38,25 +35,13 @@ class ReplacingParamInitializerTest {
     };
 
     @Test
-    void whenInitializeInvoked_filterAdded() {
-        assumeThat(RouteBuilderUtil.getFilters(routeBuilder)).isEmpty();
-
-        paramInitializer.addInitializingFilter(routeBuilder);
-
-        List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
-        assertThat(filters).hasSize(1);
+    void getParamStrategy_returnsReplaceParamsAlways() {
+        assertThat(paramInitializer.getParamStrategy()).isEqualTo(ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS);
     }
 
     @Test
-    void whenInitializeInvoked_filterCorrect() {
-        assumeThat(RouteBuilderUtil.getFilters(routeBuilder)).asList().isEmpty();
-
-        paramInitializer.addInitializingFilter(routeBuilder);
-
-        List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
-        assumeThat(filters).asList().hasSize(1);
-
-        assertFilterReplacesOldParamsOfName(filters.get(0));
+    void whenAppliedByRequestRewritingFilter_replacesOldParamsOfName() {
+        assertFilterReplacesOldParamsOfName(new RequestRewritingGatewayFilter("", "", List.of(paramInitializer)));
     }
 
     private void assertFilterReplacesOldParamsOfName(GatewayFilter filter) {
@@ -0,0 +1,136 @@
+package com.example.dynamicgateway.service.routeLocator;
+
+import com.example.dynamicgateway.service.routeProcessor.RequestRewritingGatewayFilter;
+import com.example.dynamicgateway.util.GatewayFilterUtil;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+
+class ApplicationRouteAggregatorTest {
+    private final ApplicationRouteAggregator aggregator = new ApplicationRouteAggregator();
+
+    @Test
+    void aggregate_returnsSingleRoute_identifiedByAppName() {
+        Route applicationRoute = aggregator.aggregate("test-app", List.of(
+                buildEndpointRoute(HttpMethod.GET, "/api/v1/one", ""),
+                buildEndpointRoute(HttpMethod.POST, "/api/v1/two", "")
+        ));
+
+        assertThat(applicationRoute.getId()).isEqualTo("test-app");
+        assertThat(applicationRoute.getUri().toString()).isEqualTo("lb://test-app");
+        assertThat(applicationRoute.getMetadata())
+                .containsEntry(DynamicRouteLocator.APP_NAME_METADATA_KEY, "test-app");
+        assertThat(applicationRoute.getFilters()).hasSize(1);
+    }
+
+    private static Route buildEndpointRoute(HttpMethod method, String pathTemplate, String ignoredPrefix) {
+        GatewayFilter requestRewritingFilter = GatewayFilterUtil.wrapInOrderedGatewayFilter(
+                new RequestRewritingGatewayFilter("/api/v1", ignoredPrefix, Collections.emptyList()));
+        String routeId = "test-app:" + method.name() + ":" + pathTemplate;
+        return Route.async()
+                .id(routeId)
+                .uri("lb://test-app")
+                .metadata(ApplicationRouteAggregator.DISPATCH_METHOD_METADATA_KEY, method.name())
+                .metadata(ApplicationRouteAggregator.DISPATCH_PATH_METADATA_KEY, pathTemplate)
+                .asyncPredicate(ApplicationRouteAggregator.dispatchedRoutePredicate(routeId))
+                .filter(requestRewritingFilter)
+                .build();
+    }
+
+    @Test
+    void aggregate_withEmptyCollection_throws() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> aggregator.aggregate("test-app", Collections.emptyList()));
+    }
+
+    @Test
+    void applicationRoutePredicate_matchesOnlyRequestsFoundInDispatchTable() {
+        Route applicationRoute = aggregator.aggregate("test-app", List.of(
+                buildEndpointRoute(HttpMethod.GET, "/api/v1/test-path/{id}", ""),
+                buildEndpointRoute(HttpMethod.POST, "/api/v1/test-path", "")
+        ));
+
+        MockServerWebExchange matchingExchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.GET, "/api/v1/test-path/42"));
+        StepVerifier.create(applicationRoute.getPredicate().apply(matchingExchange))
+                .expectNext(true)
+                .verifyComplete();
+        assertThat(ServerWebExchangeUtils.getUriTemplateVariables(matchingExchange))
+                .isEqualTo(Map.of("id", "42"));
+
+        MockServerWebExchange nonMatchingExchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.POST, "/api/v1/test-path/42"));
+        StepVerifier.create(applicationRoute.getPredicate().apply(nonMatchingExchange))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void applicationRouteFilter_appliesFiltersOfDispatchedEndpointRoute() {
+        Route authRoute = buildEndpointRoute(HttpMethod.GET, "/api/v1/login", "/auth");
+        Route plainRoute = buildEndpointRoute(HttpMethod.GET, "/api/v1/greeting", "");
+        Route applicationRoute = aggregator.aggregate("test-app", List.of(authRoute, plainRoute));
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.GET, "/api/v1/login?some-param=some-value"));
+        StepVerifier.create(applicationRoute.getPredicate().apply(exchange))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(authRoute.getPredicate().apply(exchange))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(plainRoute.getPredicate().apply(exchange))
+                .expectNext(false)
+                .verifyComplete();
+
+        GatewayFilterChain chainMock = mock(GatewayFilterChain.class);
+        given(chainMock.filter(any())).willReturn(Mono.empty());
+
+        StepVerifier.create(applicationRoute.getFilters().get(0).filter(exchange, chainMock))
+                .verifyComplete();
+
+        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        then(chainMock).should().filter(exchangeCaptor.capture());
+        assertThat(exchangeCaptor.getValue().getRequest().getURI().toString())
+                .isEqualTo("/auth/login?some-param=some-value");
+    }
+
+    @Test
+    void aggregate_ignoresEndpointRoutesWithoutDispatchMetadata() {
+        Route routeWithoutMetadata = Route.async()
+                .id("no-metadata")
+                .uri("lb://test-app")
+                .asyncPredicate(ApplicationRouteAggregator.dispatchedRoutePredicate("no-metadata"))
+                .build();
+        Route applicationRoute = aggregator.aggregate("test-app", List.of(routeWithoutMetadata));
+        assumeThat(applicationRoute.getId()).isEqualTo("test-app");
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.GET, "/"));
+        StepVerifier.create(applicationRoute.getPredicate().apply(exchange))
+                .expectNext(false)
+                .verifyComplete();
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.dynamicgateway.service.routeLocator;
 
 import com.example.dynamicgateway.config.RouteAssemblerConfig;
-import com.example.dynamicgateway.events.DocumentedEndpointFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.paramInitializer.ParamInitializers;
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -30,16 +31,19 @@ import static org.mockito.Mockito.mock;
 public class DynamicRouteLocatorComponentTest {
     @Autowired
     List<EndpointRouteAssembler> routeAssemblers;
+    @Autowired
+    GatewayMeta gatewayMeta;
 
     @Test
     void whenBuildingRoute_orderOfInjectedRouteProcessorsDoesntMatter() {
         int reasonableNumberOfReshuffleAndCheckCycles = 10;
-        DynamicRouteLocator routeLocator = new DynamicRouteLocator(routeAssemblers);
+        DynamicRouteLocator routeLocator = new DynamicRouteLocator(routeAssemblers, mock(ApplicationEventPublisher.class), gatewayMeta);
         for (int i = 0; i < reasonableNumberOfReshuffleAndCheckCycles; i++) {
             Collections.shuffle(routeAssemblers);
             DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder().path("/" + UUID.randomUUID()).build();
-            DocumentedEndpointFoundEvent event = new DocumentedEndpointFoundEvent(endpoint, this);
-            assertThatCode(() -> routeLocator.onDocumentedEndpointFoundEvent(event)).doesNotThrowAnyException();
+            DocumentedApplicationFoundEvent event =
+                    new DocumentedApplicationFoundEvent(endpoint.getDeclaringApp(), List.of(endpoint), this);
+            assertThatCode(() -> routeLocator.onDocumentedApplicationFoundEvent(event)).doesNotThrowAnyException();
         }
     }
 
@@ -1,34 +1,46 @@
 package com.example.dynamicgateway.service.routeLocator;
 
-import com.example.dynamicgateway.events.DiscoverableApplicationLostEvent;
-import com.example.dynamicgateway.events.DocumentedEndpointFoundEvent;
-import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.routeLocator.util.PathOnlyAsyncPredicate;
 import com.example.dynamicgateway.service.routeProcessor.EndpointRouteAssembler;
-import lombok.SneakyThrows;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
-import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assumptions.assumeThat;
 import static org.assertj.core.api.Assumptions.assumeThatCode;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 
 class DynamicRouteLocatorTest {
+    private final ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+    private final GatewayMeta gatewayMeta = new GatewayMeta();
     private DynamicRouteLocator dynamicRouteLocator;
 
     @Test
     void ifNoEventsFired_hasNoEndpoints() {
-        dynamicRouteLocator = new DynamicRouteLocator(Collections.emptyList());
+        dynamicRouteLocator = new DynamicRouteLocator(Collections.emptyList(), eventPublisherMock, gatewayMeta);
 
         assertNoRoutes();
     }
@@ -44,23 +56,17 @@ class DynamicRouteLocatorTest {
                 .verifyComplete();
     }
 
-    @SneakyThrows
-    @SuppressWarnings("unchecked")
-    private Set<Route> getRouteSet() {
-        Field routesField = dynamicRouteLocator.getClass()
-                .getDeclaredField("routes");
-        assumeThat(routesField).isNotNull();
-        routesField.setAccessible(true);
-        return (Set<Route>) routesField.get(dynamicRouteLocator);
+    private List<Route> getRouteSet() {
+        return dynamicRouteLocator.getRouteTable().getRoutes();
     }
 
     @Test
-    void onNullDocumentedEndpointFoundEvent_stillHasNoEndpoints() {
-        dynamicRouteLocator = new DynamicRouteLocator(Collections.emptyList());
+    void onDocumentedApplicationFoundEvent_withoutEndpoints_stillHasNoRoutes() {
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
 
         assumeNoRoutes();
 
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(null);
+        addEndpoints();
 
         assertNoRoutes();
     }
@@ -69,32 +75,20 @@ class DynamicRouteLocatorTest {
         assumeThatCode(this::assertNoRoutes).doesNotThrowAnyException();
     }
 
-    @Test
-    void onNonNullDocumentedEndpointFoundEvent_whichHasNullEndpoint_locatorStillHasNoEndpoints() {
-        dynamicRouteLocator = new DynamicRouteLocator(Collections.emptyList());
-
-        DocumentedEndpointFoundEvent eventMock = mock(DocumentedEndpointFoundEvent.class);
-        given(eventMock.getFoundEndpoint()).willReturn(null);
-
-        assumeNoRoutes();
-
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(eventMock);
-
-        assertNoRoutes();
+    private void addEndpoints(DocumentedEndpoint<?>... endpoints) {
+        dynamicRouteLocator.onDocumentedApplicationFoundEvent(new DocumentedApplicationFoundEvent(
+                mock(DocumentedApplication.class), List.of(endpoints), this));
     }
 
     @Test
-    void onNonNullDocumentedEndpointFoundEvent_withNonNullEndpoint_buildsRoute() {
-        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub());
+    void onDocumentedApplicationFoundEvent_withEndpoint_buildsRoute() {
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
 
         DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class);
 
-        DocumentedEndpointFoundEvent eventMock = mock(DocumentedEndpointFoundEvent.class);
-        given(eventMock.getFoundEndpoint()).willAnswer(i -> endpointMock);
-
         assumeNoRoutes();
 
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(eventMock);
+        addEndpoints(endpointMock);
 
         assertOneRoute();
     }
@@ -122,36 +116,27 @@ class DynamicRouteLocatorTest {
 
     @Test
     void ifSameEndpointFoundTwice_buildsOnlyOneRoute() {
-        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub());
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
 
         DocumentedEndpoint<?> documentedEndpointMock = mock(DocumentedEndpoint.class);
 
-        DocumentedEndpointFoundEvent eventMock = mock(DocumentedEndpointFoundEvent.class);
-        DocumentedEndpointFoundEvent eventMockCopy = mock(DocumentedEndpointFoundEvent.class);
-
-        given(eventMock.getFoundEndpoint()).willAnswer(i -> documentedEndpointMock);
-        given(eventMockCopy.getFoundEndpoint()).willAnswer(i -> documentedEndpointMock);
-
         assumeNoRoutes();
 
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(eventMock);
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(eventMockCopy);
+        addEndpoints(documentedEndpointMock);
+        addEndpoints(documentedEndpointMock);
 
         assertOneRoute();
     }
 
     @Test
-    void onDocumentedEndpointFoundEvent_buildsRouteMatchingExpectedParameters() {
-        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub());
+    void onDocumentedApplicationFoundEvent_buildsRouteMatchingExpectedParameters() {
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
 
         DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class);
 
-        DocumentedEndpointFoundEvent eventMock = mock(DocumentedEndpointFoundEvent.class);
-        given(eventMock.getFoundEndpoint()).willAnswer(i -> endpointMock);
-
         assumeNoRoutes();
 
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(eventMock);
+        addEndpoints(endpointMock);
 
         assumeOneRoute();
 
@@ -174,12 +159,12 @@ class DynamicRouteLocatorTest {
     }
 
     @Test
-    void onDiscoverableApplicationLostEvent_removesAssociatedRoutes() {
+    void onDocumentedEndpointsEvictedEvent_removesAssociatedRoutes() {
         String scheme = "scheme://";
 
         dynamicRouteLocator = new DynamicRouteLocator(List.of(
                 (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(scheme + endpoint.getDeclaringApp().getName())
-        ));
+        ), eventPublisherMock, gatewayMeta);
 
         String appName = "some-app";
         String anotherAppName = "some-other-app";
@@ -190,29 +175,18 @@ class DynamicRouteLocatorTest {
         DocumentedEndpoint<?> anotherEndpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
         given(anotherEndpointMock.getDeclaringApp().getName()).willReturn(anotherAppName);
 
-        DocumentedEndpointFoundEvent endpointFoundEventMock = mock(DocumentedEndpointFoundEvent.class);
-        given(endpointFoundEventMock.getFoundEndpoint()).willAnswer(i -> endpointMock);
-
-        DocumentedEndpointFoundEvent anotherEndpointFoundEventMock = mock(DocumentedEndpointFoundEvent.class);
-        given(anotherEndpointFoundEventMock.getFoundEndpoint()).willAnswer(i -> anotherEndpointMock);
-
         assumeNoRoutes();
 
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(endpointFoundEventMock);
-        dynamicRouteLocator.onDocumentedEndpointFoundEvent(anotherEndpointFoundEventMock);
+        addEndpoints(endpointMock);
+        addEndpoints(anotherEndpointMock);
 
         assumeOnlyRoutes(
                 getLegalRouteBuilderWithUri(scheme + appName).build(),
                 getLegalRouteBuilderWithUri(scheme + anotherAppName).build()
         );
 
-        DiscoverableApplication<?> appMock = mock(DiscoverableApplication.class);
-        given(appMock.getName()).willReturn(appName);
-
-        DiscoverableApplicationLostEvent eventMock = mock(DiscoverableApplicationLostEvent.class);
-        given(eventMock.getLostApp()).willAnswer(i -> appMock);
-
-        dynamicRouteLocator.onDiscoverableApplicationLostEvent(eventMock);
+        dynamicRouteLocator.onDocumentedEndpointsEvictedEvent(
+                new DocumentedEndpointsEvictedEvent(appName, List.of(), this));
 
         assertOnlyRoute(getLegalRouteBuilderWithUri(scheme + anotherAppName).build());
     }
@@ -220,4 +194,264 @@ class DynamicRouteLocatorTest {
     private void assumeOnlyRoutes(Route... expectedRoutes) {
         assumeThatCode(() -> assertOnlyRoutes(expectedRoutes)).doesNotThrowAnyException();
     }
-}
\ No newline at end of file
+
+    @Test
+    void onDocumentedEndpointsEvictedEvent_ofAppWithoutRoutes_doesntPublishNewRouteTable() {
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
+
+        addEndpoints(mock(DocumentedEndpoint.class));
+        RouteTable routeTableBeforeEviction = dynamicRouteLocator.getRouteTable();
+        assumeThat(routeTableBeforeEviction.getRoutes()).hasSize(1);
+
+        dynamicRouteLocator.onDocumentedEndpointsEvictedEvent(
+                new DocumentedEndpointsEvictedEvent("unknown-app", List.of(), this));
+
+        assertThat(dynamicRouteLocator.getRouteTable()).isSameAs(routeTableBeforeEviction);
+    }
+
+    @Test
+    void eachRouteTableChange_isPublishedAsNewVersion() {
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(scheme + endpoint.getDeclaringApp().getName())
+        ), eventPublisherMock, gatewayMeta);
+        RouteTable initialRouteTable = dynamicRouteLocator.getRouteTable();
+        assumeThat(initialRouteTable.getVersion()).isZero();
+
+        String appName = "some-app";
+        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
+        given(endpointMock.getDeclaringApp().getName()).willReturn(appName);
+
+        addEndpoints(endpointMock);
+        RouteTable routeTableAfterAddition = dynamicRouteLocator.getRouteTable();
+        assertThat(routeTableAfterAddition.getVersion()).isEqualTo(initialRouteTable.getVersion() + 1);
+
+        addEndpoints(endpointMock);
+        assertThat(dynamicRouteLocator.getRouteTable()).isSameAs(routeTableAfterAddition);
+
+        dynamicRouteLocator.onDocumentedEndpointsEvictedEvent(
+                new DocumentedEndpointsEvictedEvent(appName, List.of(), this));
+
+        RouteTable routeTableAfterEviction = dynamicRouteLocator.getRouteTable();
+        assertThat(routeTableAfterEviction.getVersion()).isEqualTo(routeTableAfterAddition.getVersion() + 1);
+        assertThat(routeTableAfterEviction.getRoutes()).isEmpty();
+        assertThat(routeTableAfterAddition.getRoutes()).hasSize(1);
+    }
+
+    @Test
+    void getRoutes_returnsFluxBoundToSnapshotCurrentAtInvocation() {
+        dynamicRouteLocator = new DynamicRouteLocator(getEndpointRouteProcessorStub(), eventPublisherMock, gatewayMeta);
+
+        Flux<Route> routesBeforeAddition = dynamicRouteLocator.getRoutes();
+
+        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class);
+        addEndpoints(endpointMock);
+
+        assumeOneRoute();
+
+        StepVerifier.create(routesBeforeAddition)
+                .verifyComplete();
+    }
+
+    @Test
+    void routeChanges_arePublishedAsCoalescedRefreshEventsScopedToAffectedApps() {
+        String scheme = "scheme://";
+        gatewayMeta.setRefreshDelay(Duration.ofMillis(200));
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(scheme + endpoint.getDeclaringApp().getName())
+        ), eventPublisherMock, gatewayMeta);
+
+        String appName = "some-app";
+        String anotherAppName = "some-other-app";
+        Stream.of(appName, appName, anotherAppName).forEach(name -> {
+            DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
+            given(endpointMock.getDeclaringApp().getName()).willReturn(name);
+            addEndpoints(endpointMock);
+        });
+
+        ArgumentCaptor<RefreshRoutesEvent> eventCaptor = ArgumentCaptor.forClass(RefreshRoutesEvent.class);
+        then(eventPublisherMock).should(timeout(5_000).times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues())
+                .allMatch(RefreshRoutesEvent::isScoped)
+                .extracting(event -> event.getMetadata().get(DynamicRouteLocator.APP_NAME_METADATA_KEY))
+                .containsExactlyInAnyOrder(appName, anotherAppName);
+    }
+
+    @Test
+    void getRoutesByMetadata_withAppName_returnsOnlyAppsRoutes() {
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(scheme + endpoint.getDeclaringApp().getName())
+        ), eventPublisherMock, gatewayMeta);
+
+        String appName = "some-app";
+        Stream.of(appName, "some-other-app").forEach(name -> {
+            DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
+            given(endpointMock.getDeclaringApp().getName()).willReturn(name);
+            addEndpoints(endpointMock);
+        });
+        assumeThat(getRouteSet()).hasSize(2);
+
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName)))
+                .expectNext(getLegalRouteBuilderWithUri(scheme + appName).build())
+                .verifyComplete();
+
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, "unknown-app")))
+                .verifyComplete();
+
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, 42)))
+                .verifyComplete();
+
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName, "some-key", "some-value")))
+                .verifyComplete();
+    }
+
+    @Test
+    void onDocumentedApplicationFoundEvent_addsAllAppsRoutes_inSingleRouteTableVersion() {
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(
+                        scheme + endpoint.getDeclaringApp().getName() + endpoint.getDetails().getPath())
+        ), eventPublisherMock, gatewayMeta);
+        RouteTable initialRouteTable = dynamicRouteLocator.getRouteTable();
+
+        String appName = "some-app";
+        List<SwaggerEndpointStub> endpoints = Stream.of("/path-one", "/path-two", "/path-three")
+                .map(path -> SwaggerEndpointStub.builder().declaringAppName(appName).path(path).build())
+                .toList();
+        DocumentedApplication<?> app = endpoints.get(0).getDeclaringApp();
+
+        dynamicRouteLocator.onDocumentedApplicationFoundEvent(
+                new DocumentedApplicationFoundEvent(app, endpoints, this));
+
+        RouteTable routeTable = dynamicRouteLocator.getRouteTable();
+        assertThat(routeTable.getVersion()).isEqualTo(initialRouteTable.getVersion() + 1);
+        assertThat(routeTable.getRoutes())
+                .extracting(route -> route.getUri().toString())
+                .containsExactlyInAnyOrder(
+                        scheme + appName + "/path-one",
+                        scheme + appName + "/path-two",
+                        scheme + appName + "/path-three");
+    }
+
+    @Test
+    void inApplicationRouteLookup_publishesSingleRoutePerApp() {
+        gatewayMeta.setRouteLookup(GatewayMeta.RouteLookup.APPLICATION);
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(
+                        scheme + endpoint.getDeclaringApp().getName())
+                        .id(endpoint.getDetails().getPath())
+                        .metadata(ApplicationRouteAggregator.DISPATCH_METHOD_METADATA_KEY,
+                                endpoint.getDetails().getMethod().name())
+                        .metadata(ApplicationRouteAggregator.DISPATCH_PATH_METADATA_KEY,
+                                endpoint.getDetails().getPath())
+        ), eventPublisherMock, gatewayMeta);
+
+        String appName = "some-app";
+        List<SwaggerEndpointStub> endpoints = Stream.of("/path-one", "/path-two", "/path-three")
+                .map(path -> SwaggerEndpointStub.builder().declaringAppName(appName).path(path).build())
+                .toList();
+        dynamicRouteLocator.onDocumentedApplicationFoundEvent(
+                new DocumentedApplicationFoundEvent(endpoints.get(0).getDeclaringApp(), endpoints, this));
+
+        String anotherAppName = "some-other-app";
+        SwaggerEndpointStub anotherEndpoint = SwaggerEndpointStub.builder().declaringAppName(anotherAppName).build();
+        addEndpoints(anotherEndpoint);
+
+        assertThat(getRouteSet())
+                .extracting(Route::getId)
+                .containsExactlyInAnyOrder(appName, anotherAppName);
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName)))
+                .assertNext(route -> assertThat(route.getId()).isEqualTo(appName))
+                .verifyComplete();
+        StepVerifier.create(dynamicRouteLocator.getRoutesByMetadata(
+                        Map.of(DynamicRouteLocator.APP_NAME_METADATA_KEY, "unknown-app")))
+                .verifyComplete();
+
+        dynamicRouteLocator.onDocumentedEndpointsEvictedEvent(
+                new DocumentedEndpointsEvictedEvent(appName, List.of(), this));
+
+        assertThat(getRouteSet())
+                .extracting(Route::getId)
+                .containsExactly(anotherAppName);
+    }
+
+    @Test
+    void onDocumentedApplicationUpdatedEvent_diffsAppsRoutesById() {
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(
+                        scheme + endpoint.getDeclaringApp().getName())
+                        .id(endpoint.getDetails().getPath())
+        ), eventPublisherMock, gatewayMeta);
+
+        String appName = "some-app";
+        List<SwaggerEndpointStub> endpoints = Stream.of("/retained", "/removed")
+                .map(path -> SwaggerEndpointStub.builder().declaringAppName(appName).path(path).build())
+                .toList();
+        DocumentedApplication<?> app = endpoints.get(0).getDeclaringApp();
+        dynamicRouteLocator.onDocumentedApplicationFoundEvent(new DocumentedApplicationFoundEvent(app, endpoints, this));
+        Route retainedRoute = getRouteSet().stream()
+                .filter(route -> route.getId().equals("/retained"))
+                .findAny()
+                .orElseThrow();
+        RouteTable routeTableBeforeUpdate = dynamicRouteLocator.getRouteTable();
+
+        List<SwaggerEndpointStub> updatedEndpoints = Stream.of("/retained", "/added")
+                .map(path -> SwaggerEndpointStub.builder().declaringAppName(appName).path(path).build())
+                .toList();
+        DocumentedApplicationUpdatedEvent updatedEvent = new DocumentedApplicationUpdatedEvent(app, updatedEndpoints, this);
+        dynamicRouteLocator.onDocumentedApplicationUpdatedEvent(updatedEvent);
+
+        RouteTable routeTableAfterUpdate = dynamicRouteLocator.getRouteTable();
+        assertThat(routeTableAfterUpdate.getVersion()).isEqualTo(routeTableBeforeUpdate.getVersion() + 1);
+        assertThat(routeTableAfterUpdate.getRoutes())
+                .extracting(Route::getId)
+                .containsExactlyInAnyOrder("/retained", "/added");
+        assertThat(routeTableAfterUpdate.getRoutes()).anyMatch(route -> route == retainedRoute);
+
+        dynamicRouteLocator.onDocumentedApplicationUpdatedEvent(updatedEvent);
+
+        assertThat(dynamicRouteLocator.getRouteTable()).isSameAs(routeTableAfterUpdate);
+    }
+
+    @Test
+    void onDocumentedApplicationUpdatedEvent_rebuildsRoutesWhoseEndpointDetailsChanged() {
+        String scheme = "scheme://";
+        dynamicRouteLocator = new DynamicRouteLocator(List.of(
+                (routeInConstruction, endpoint) -> getLegalRouteBuilderWithUri(
+                        scheme + endpoint.getDeclaringApp().getName())
+                        .id(endpoint.getDetails().getPath())
+        ), eventPublisherMock, gatewayMeta);
+
+        SwaggerEndpointStub endpoint = SwaggerEndpointStub.builder().declaringAppName("some-app").path("/some-path").build();
+        DocumentedApplication<?> app = endpoint.getDeclaringApp();
+        dynamicRouteLocator.onDocumentedApplicationFoundEvent(new DocumentedApplicationFoundEvent(app, List.of(endpoint), this));
+        Route originalRoute = getRouteSet().iterator().next();
+
+        SwaggerEndpointStub.Builder changedEndpointBuilder = SwaggerEndpointStub.builder()
+                .declaringAppName("some-app")
+                .path("/some-path");
+        changedEndpointBuilder.getDetailsBuilder().parameters(List.of(new Parameter().name("some-param")));
+        SwaggerEndpointStub changedEndpoint = changedEndpointBuilder.build();
+        dynamicRouteLocator.onDocumentedApplicationUpdatedEvent(
+                new DocumentedApplicationUpdatedEvent(app, List.of(changedEndpoint), this));
+
+        assertThat(dynamicRouteLocator.getRouteTable().getRoutes())
+                .singleElement()
+                .satisfies(route -> assertThat(route.getId()).isEqualTo("/some-path"))
+                .isNotSameAs(originalRoute);
+        RouteTable routeTableAfterUpdate = dynamicRouteLocator.getRouteTable();
+
+        dynamicRouteLocator.onDocumentedApplicationUpdatedEvent(
+                new DocumentedApplicationUpdatedEvent(app, List.of(changedEndpoint), this));
+
+        assertThat(dynamicRouteLocator.getRouteTable()).isSameAs(routeTableAfterUpdate);
+    }
+}
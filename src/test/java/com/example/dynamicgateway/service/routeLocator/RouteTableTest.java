@@ -0,0 +1,67 @@
+package com.example.dynamicgateway.service.routeLocator;
+
+import com.example.dynamicgateway.service.routeLocator.util.PathOnlyAsyncPredicate;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteTableTest {
+    @Test
+    void empty_hasNoRoutesAndVersionZero() {
+        RouteTable routeTable = RouteTable.empty();
+
+        assertThat(routeTable.getVersion()).isZero();
+        assertThat(routeTable.size()).isZero();
+        assertThat(routeTable.getRoutes()).isEmpty();
+    }
+
+    @Test
+    void next_incrementsVersion_andSortsRoutesByOrder() {
+        Route lateRoute = buildRoute("late-route", 10);
+        Route earlyRoute = buildRoute("early-route", -10);
+        Route defaultRoute = buildRoute("default-route", 0);
+
+        RouteTable routeTable = RouteTable.empty().next(List.of(lateRoute, earlyRoute, defaultRoute));
+
+        assertThat(routeTable.getVersion()).isOne();
+        assertThat(routeTable.getRoutes()).containsExactly(earlyRoute, defaultRoute, lateRoute);
+        StepVerifier.create(routeTable.toFlux())
+                .expectNext(earlyRoute, defaultRoute, lateRoute)
+                .verifyComplete();
+    }
+
+    @Test
+    void next_isNotAffectedByLaterChangesToPassedCollection() {
+        List<Route> routes = new ArrayList<>(List.of(buildRoute("some-route", 0)));
+
+        RouteTable routeTable = RouteTable.empty().next(routes);
+        routes.add(buildRoute("another-route", 0));
+
+        assertThat(routeTable.getRoutes()).hasSize(1);
+    }
+
+    @Test
+    void getRoutes_returnsUnmodifiableList() {
+        RouteTable routeTable = RouteTable.empty().next(List.of(buildRoute("some-route", 0)));
+
+        List<Route> routes = routeTable.getRoutes();
+
+        assertThatThrownBy(() -> routes.set(0, buildRoute("another-route", 0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static Route buildRoute(String id, int order) {
+        return Route.async()
+                .id(id)
+                .uri("https://example.com")
+                .order(order)
+                .asyncPredicate(PathOnlyAsyncPredicate.fromPath("/"))
+                .build();
+    }
+}
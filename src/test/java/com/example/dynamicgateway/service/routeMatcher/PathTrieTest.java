@@ -0,0 +1,270 @@
+package com.example.dynamicgateway.service.routeMatcher;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathTrieTest {
+    @Test
+    void find_onEmptyTrie_returnsEmptyOptional() {
+        assertThat(PathTrie.empty().find(HttpMethod.GET, "/some-path")).isEmpty();
+    }
+
+    @Test
+    void find_matchesLiteralTemplate_onlyForSameMethod() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/api/v1/users", "get-users");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/api/v1/users")).hasValue("get-users");
+        assertThat(findValue(trie, HttpMethod.POST, "/api/v1/users")).isEmpty();
+        assertThat(findValue(trie, HttpMethod.GET, "/api/v1")).isEmpty();
+        assertThat(findValue(trie, HttpMethod.GET, "/api/v1/users/42")).isEmpty();
+    }
+
+    @Test
+    void find_prefersLiteralSegments_overTemplateSegments() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id}", "user-by-id")
+                .with(HttpMethod.GET, "/users/me", "current-user");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users/me")).hasValue("current-user");
+        assertThat(findValue(trie, HttpMethod.GET, "/users/42")).hasValue("user-by-id");
+    }
+
+    @Test
+    void find_backtracksToTemplateSegment_ifLiteralBranchDoesntMatch() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/me/settings", "my-settings")
+                .with(HttpMethod.GET, "/users/{id}/orders", "user-orders");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users/me/orders")).hasValue("user-orders");
+    }
+
+    @Test
+    void find_doesntMatchTemplateSegment_withEmptyPathSegment() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id}/orders", "user-orders");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users//orders")).isEmpty();
+    }
+
+    @Test
+    void find_ignoresTrailingSlash() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users", "get-users");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users/")).hasValue("get-users");
+    }
+
+    @Test
+    void find_returnsDecodedUriVariables() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{userId}/files/{fileName}", "user-file");
+
+        Optional<PathTrie.Match<String>> match = trie.find(HttpMethod.GET, "/users/42/files/my%20file");
+
+        assertThat(match).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("userId", "42", "fileName", "my file"));
+    }
+
+    @Test
+    void with_replacesValueOfExistingTemplate_andLeavesOriginalTrieIntact() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users", "old-value");
+
+        PathTrie<String> newTrie = trie.with(HttpMethod.GET, "/users", "new-value");
+
+        assertThat(findValue(newTrie, HttpMethod.GET, "/users")).hasValue("new-value");
+        assertThat(findValue(trie, HttpMethod.GET, "/users")).hasValue("old-value");
+    }
+
+    @Test
+    void without_removesOnlyPassedTemplate_andLeavesOriginalTrieIntact() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users", "get-users")
+                .with(HttpMethod.GET, "/users/{id}", "user-by-id");
+
+        PathTrie<String> newTrie = trie.without(HttpMethod.GET, "/users/{id}");
+
+        assertThat(findValue(newTrie, HttpMethod.GET, "/users/42")).isEmpty();
+        assertThat(findValue(newTrie, HttpMethod.GET, "/users")).hasValue("get-users");
+        assertThat(findValue(trie, HttpMethod.GET, "/users/42")).hasValue("user-by-id");
+    }
+
+    @Test
+    void without_ifTemplateNotMapped_returnsSameTrie() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users", "get-users");
+
+        assertThat(trie.without(HttpMethod.GET, "/orders")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.DELETE, "/users")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.GET, "/users/me")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.GET, "/users/{id}")).isSameAs(trie);
+    }
+
+    @Test
+    void without_ifOnlyLongerTemplateIsMapped_returnsSameTrie() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id}", "user-by-id");
+
+        assertThat(trie.without(HttpMethod.GET, "/users")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.GET, "/users/{id}/orders")).isSameAs(trie);
+    }
+
+    @Test
+    void find_returnsUriVariablesOfRegexTemplateSegments_withoutRegex() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id:\\d+}", "user-by-id");
+
+        assertThat(trie.find(HttpMethod.GET, "/users/42")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("id", "42"));
+    }
+
+    @Test
+    void splitIntoSegments_handlesRootAndRelativePaths() {
+        assertThat(PathTrie.splitIntoSegments("/")).isEmpty();
+        assertThat(PathTrie.splitIntoSegments("users/42")).containsExactly("users", "42");
+        assertThat(PathTrie.splitIntoSegments("/users//")).containsExactly("users", "");
+    }
+
+    @Test
+    void without_lastTemplate_leavesEmptyTrie() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id}/orders", "user-orders");
+
+        assertThat(trie.without(HttpMethod.GET, "/users/{id}/orders").isEmpty()).isTrue();
+    }
+
+    @Test
+    void with_nullArguments_throwsNullPointerException() {
+        PathTrie<String> trie = PathTrie.empty();
+
+        assertThatThrownBy(() -> trie.with(null, "/users", "value")).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> trie.with(HttpMethod.GET, null, "value")).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> trie.with(HttpMethod.GET, "/users", null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void templatesDifferingOnlyInVariableNames_areStoredSeparately() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id}", "user-by-id")
+                .with(HttpMethod.GET, "/users/{userId}", "user-by-user-id");
+
+        assertThat(trie.find(HttpMethod.GET, "/users/42"))
+                .hasValueSatisfying(match -> {
+                    assertThat(match.getValue()).isEqualTo("user-by-id");
+                    assertThat(match.getUriVariables()).isEqualTo(Map.of("id", "42"));
+                });
+
+        PathTrie<String> newTrie = trie.without(HttpMethod.GET, "/users/{id}");
+
+        assertThat(newTrie.find(HttpMethod.GET, "/users/42"))
+                .hasValueSatisfying(match -> {
+                    assertThat(match.getValue()).isEqualTo("user-by-user-id");
+                    assertThat(match.getUriVariables()).isEqualTo(Map.of("userId", "42"));
+                });
+        assertThat(newTrie.without(HttpMethod.GET, "/users/{id}")).isSameAs(newTrie);
+    }
+
+    @Test
+    void find_matchesPartialTemplateSegments() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/files/{name}.json", "json-file")
+                .with(HttpMethod.GET, "/files/file-{id}", "file-by-id")
+                .with(HttpMethod.GET, "/files/{fileName}", "any-file");
+
+        assertThat(trie.find(HttpMethod.GET, "/files/my%20report.json")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("name", "my report"));
+        assertThat(trie.find(HttpMethod.GET, "/files/file-7")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("id", "7"));
+        assertThat(findValue(trie, HttpMethod.GET, "/files/report.xml")).hasValue("any-file");
+        assertThat(findValue(trie.without(HttpMethod.GET, "/files/{fileName}"), HttpMethod.GET, "/files/report.xml"))
+                .isEmpty();
+    }
+
+    @Test
+    void find_prefersRegexTemplateSegments_overVariableSegments_onlyIfRegexMatches() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{name}", "user-by-name")
+                .with(HttpMethod.GET, "/users/{id:\\d{1,9}}", "user-by-id");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users/42")).hasValue("user-by-id");
+        assertThat(findValue(trie, HttpMethod.GET, "/users/bob")).hasValue("user-by-name");
+        assertThat(findValue(trie, HttpMethod.GET, "/users/1234567890")).hasValue("user-by-name");
+    }
+
+    @Test
+    void find_backtracksToVariableSegment_ifPatternBranchDoesntMatch() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/users/{id:\\d+}/settings", "user-settings")
+                .with(HttpMethod.GET, "/users/{name}/orders", "user-orders");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/users/42/orders")).hasValue("user-orders");
+        assertThat(findValue(trie, HttpMethod.GET, "/users/42/payments")).isEmpty();
+    }
+
+    @Test
+    void find_matchesWildcardSegments() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/files/*.json", "json-file")
+                .with(HttpMethod.GET, "/files/report-?", "report");
+
+        assertThat(findValue(trie, HttpMethod.GET, "/files/data.json")).hasValue("json-file");
+        assertThat(findValue(trie, HttpMethod.GET, "/files/report-1")).hasValue("report");
+        assertThat(findValue(trie, HttpMethod.GET, "/files/report-12")).isEmpty();
+        assertThat(trie.find(HttpMethod.GET, "/files/data.json")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of());
+    }
+
+    @Test
+    void find_matchesCaptureTheRestSegments_withAnyNumberOfRemainingSegments() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/static/{*path}", "static-resource")
+                .with(HttpMethod.GET, "/static/index.html", "index")
+                .with(HttpMethod.GET, "/docs/**", "doc");
+
+        assertThat(trie.find(HttpMethod.GET, "/static/css/my%20style.css")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("path", "/css/my style.css"));
+        assertThat(trie.find(HttpMethod.GET, "/static")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of("path", ""));
+        assertThat(findValue(trie, HttpMethod.GET, "/static/index.html")).hasValue("index");
+        assertThat(trie.find(HttpMethod.GET, "/docs/api/v1")).map(PathTrie.Match::getUriVariables)
+                .hasValue(Map.of());
+
+        PathTrie<String> newTrie = trie.without(HttpMethod.GET, "/static/{*path}");
+        assertThat(findValue(newTrie, HttpMethod.GET, "/static/css/style.css")).isEmpty();
+        assertThat(newTrie.without(HttpMethod.GET, "/static/{*path}")).isSameAs(newTrie);
+    }
+
+    @Test
+    void without_ifPatternTemplateNotMapped_returnsSameTrie() {
+        PathTrie<String> trie = PathTrie.<String>empty()
+                .with(HttpMethod.GET, "/files/{name}.json", "json-file");
+
+        assertThat(trie.without(HttpMethod.GET, "/files/{name}.xml")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.GET, "/files/{name}.json/meta")).isSameAs(trie);
+        assertThat(trie.without(HttpMethod.GET, "/files/{name}.json").isEmpty()).isTrue();
+    }
+
+    @Test
+    void with_malformedTemplate_throwsIllegalArgumentException() {
+        PathTrie<String> trie = PathTrie.empty();
+
+        Stream.of("/users/{id:(\\d+)}", "/users/{id:[}", "/users/{}", "/users/{id", "/users/id}",
+                        "/files/{*path}/meta", "/files/**/meta", "/files/{*path}.json")
+                .forEach(template -> assertThatIllegalArgumentException()
+                        .as(template)
+                        .isThrownBy(() -> trie.with(HttpMethod.GET, template, "value")));
+    }
+
+    private static Optional<String> findValue(PathTrie<String> trie, HttpMethod method, String path) {
+        return trie.find(method, path).map(PathTrie.Match::getValue);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.dynamicgateway.service.routeMatcher;
+
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import lombok.SneakyThrows;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TrieRouteMatcherTest {
+    private final TrieRouteMatcher matcher = new TrieRouteMatcher(new GatewayMeta());
+
+    @Test
+    void registeredPredicate_matchesOnlyBestMatchingRequests() {
+        AsyncPredicate<ServerWebExchange> userByIdPredicate =
+                matcher.register("user-app", HttpMethod.GET, "/api/v1/users/{id}");
+        AsyncPredicate<ServerWebExchange> currentUserPredicate =
+                matcher.register("user-app", HttpMethod.GET, "/api/v1/users/me");
+
+        MockServerWebExchange currentUserExchange = exchange(HttpMethod.GET, "/api/v1/users/me");
+        assertMatches(currentUserPredicate, currentUserExchange, true);
+        assertMatches(userByIdPredicate, currentUserExchange, false);
+
+        MockServerWebExchange userByIdExchange = exchange(HttpMethod.GET, "/api/v1/users/42");
+        assertMatches(currentUserPredicate, userByIdExchange, false);
+        assertMatches(userByIdPredicate, userByIdExchange, true);
+        assertThat(ServerWebExchangeUtils.getUriTemplateVariables(userByIdExchange))
+                .isEqualTo(Map.of("id", "42"));
+
+        assertMatches(userByIdPredicate, exchange(HttpMethod.DELETE, "/api/v1/users/42"), false);
+    }
+
+    @Test
+    void lookupResult_isCachedInExchangeAttributes() {
+        AsyncPredicate<ServerWebExchange> predicate = matcher.register("some-app", HttpMethod.GET, "/some-path");
+        MockServerWebExchange exchange = exchange(HttpMethod.GET, "/some-path");
+
+        assertMatches(predicate, exchange, true);
+
+        assertThat(exchange.getAttributes()).containsKey(TrieRouteMatcher.MATCHED_ROUTE_KEY_ATTR);
+    }
+
+    @Test
+    void onDocumentedEndpointsEvictedEvent_releasesTemplatesNotRegisteredByOtherApps() {
+        AsyncPredicate<ServerWebExchange> sharedPredicate = matcher.register("fragile-app", HttpMethod.GET, "/shared");
+        matcher.register("resilient-app", HttpMethod.GET, "/shared");
+        AsyncPredicate<ServerWebExchange> fragilePredicate = matcher.register("fragile-app", HttpMethod.GET, "/fragile");
+
+        matcher.onDocumentedEndpointsEvictedEvent(evictedEvent("fragile-app"));
+
+        assertMatches(sharedPredicate, exchange(HttpMethod.GET, "/shared"), true);
+        assertMatches(fragilePredicate, exchange(HttpMethod.GET, "/fragile"), false);
+    }
+
+    @Test
+    void onDocumentedEndpointsEvictedEvent_ofUnknownApp_doesNothing() {
+        AsyncPredicate<ServerWebExchange> predicate = matcher.register("some-app", HttpMethod.GET, "/some-path");
+
+        matcher.onDocumentedEndpointsEvictedEvent(evictedEvent("unknown-app"));
+
+        assertMatches(predicate, exchange(HttpMethod.GET, "/some-path"), true);
+    }
+
+    @Test
+    void onDocumentedEndpointsEvictedEvent_keepsSameShapedTemplatesOfOtherApps() {
+        AsyncPredicate<ServerWebExchange> userByIdPredicate =
+                matcher.register("user-app", HttpMethod.GET, "/users/{id}");
+        AsyncPredicate<ServerWebExchange> userByUserIdPredicate =
+                matcher.register("legacy-user-app", HttpMethod.GET, "/users/{userId}");
+
+        matcher.onDocumentedEndpointsEvictedEvent(evictedEvent("user-app"));
+
+        MockServerWebExchange exchange = exchange(HttpMethod.GET, "/users/42");
+        assertMatches(userByIdPredicate, exchange, false);
+        assertMatches(userByUserIdPredicate, exchange, true);
+        assertThat(ServerWebExchangeUtils.getUriTemplateVariables(exchange)).isEqualTo(Map.of("userId", "42"));
+    }
+
+    @Test
+    void register_malformedTemplate_throwsIllegalArgumentException_andRegistersNothing() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> matcher.register("some-app", HttpMethod.GET, "/users/{id:(\\d+)}"));
+
+        matcher.onDocumentedEndpointsEvictedEvent(evictedEvent("some-app"));
+        assertThat(matcher.findMatchingRouteKey(exchange(HttpMethod.GET, "/users/42"))).isEmpty();
+    }
+
+    @Test
+    void onDocumentedApplicationUpdatedEvent_releasesTemplatesNoLongerDeclaredByApp() {
+        AsyncPredicate<ServerWebExchange> userByIdPredicate = matcher.register("user-app", HttpMethod.GET, "/users/{id}");
+        AsyncPredicate<ServerWebExchange> currentUserPredicate = matcher.register("user-app", HttpMethod.GET, "/users/me");
+        matcher.register("admin-app", HttpMethod.GET, "/admins/me");
+        SwaggerEndpointStub userByIdEndpoint = SwaggerEndpointStub.builder()
+                .declaringAppName("user-app")
+                .method(HttpMethod.GET)
+                .path("/users/{id}")
+                .build();
+
+        DocumentedApplicationUpdatedEvent updatedEvent = new DocumentedApplicationUpdatedEvent(
+                userByIdEndpoint.getDeclaringApp(), List.of(userByIdEndpoint), this);
+        matcher.onDocumentedApplicationUpdatedEvent(updatedEvent);
+        matcher.onDocumentedApplicationUpdatedEvent(updatedEvent);
+
+        MockServerWebExchange exchange = exchange(HttpMethod.GET, "/users/me");
+        assertMatches(currentUserPredicate, exchange, false);
+        assertMatches(userByIdPredicate, exchange, true);
+
+        matcher.onDocumentedApplicationUpdatedEvent(new DocumentedApplicationUpdatedEvent(
+                userByIdEndpoint.getDeclaringApp(), List.of(), this));
+        assertMatches(userByIdPredicate, exchange(HttpMethod.GET, "/users/42"), false);
+        matcher.onDocumentedApplicationUpdatedEvent(updatedEvent);
+    }
+
+    @Test
+    void register_sameEndpointTwice_isReleasedByOneEviction() {
+        AsyncPredicate<ServerWebExchange> predicate = matcher.register("some-app", HttpMethod.GET, "/some-path");
+        matcher.register("some-app", HttpMethod.GET, "/some-path");
+
+        matcher.onDocumentedEndpointsEvictedEvent(evictedEvent("some-app"));
+
+        assertMatches(predicate, exchange(HttpMethod.GET, "/some-path"), false);
+    }
+
+    @Test
+    @SneakyThrows
+    void routeKey_equalsHashCodeContract() {
+        EqualsVerifier.forClass(Class.forName(TrieRouteMatcher.class.getName() + "$RouteKey"))
+                .withNonnullFields("method", "pathTemplate")
+                .withPrefabValues(HttpMethod.class, HttpMethod.GET, HttpMethod.POST)
+                .verify();
+    }
+
+    private DocumentedEndpointsEvictedEvent evictedEvent(String appName) {
+        return new DocumentedEndpointsEvictedEvent(appName, List.of(), this);
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+    }
+
+    private static void assertMatches(AsyncPredicate<ServerWebExchange> predicate,
+                                      ServerWebExchange exchange, boolean expectedResult) {
+        StepVerifier.create(predicate.apply(exchange))
+                .expectNext(expectedResult)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.dynamicgateway.service.routeProcessor;
+
+import com.example.dynamicgateway.service.paramInitializer.ParamInitializer;
+import com.example.dynamicgateway.service.paramInitializer.ParamInitializingStrategy;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+
+class RequestRewritingGatewayFilterTest {
+    @Test
+    void filter_removesVersionPrefix_prependsIgnoredPrefix_andKeepsRawQuery() {
+        RequestRewritingGatewayFilter filter =
+                new RequestRewritingGatewayFilter("/api/v1", "/auth", Collections.emptyList());
+
+        ServerWebExchange filteredExchange = filter(filter, "/api/v1/some%20path?name=some%20value&flag");
+
+        assertThat(filteredExchange.getRequest().getURI().getRawPath()).isEqualTo("/auth/some%20path");
+        assertThat(filteredExchange.getRequest().getURI().getRawQuery()).isEqualTo("name=some%20value&flag");
+    }
+
+    @Test
+    void filter_ifRequestPathDoesntStartWithVersionPrefix_onlyPrependsIgnoredPrefix() {
+        RequestRewritingGatewayFilter filter =
+                new RequestRewritingGatewayFilter("/api/v1", "/auth", Collections.emptyList());
+
+        ServerWebExchange filteredExchange = filter(filter, "/some-path");
+
+        assertThat(filteredExchange.getRequest().getURI().getRawPath()).isEqualTo("/auth/some-path");
+    }
+
+    @Test
+    void filter_ifNothingLeftOfPath_rewritesToRootPath() {
+        RequestRewritingGatewayFilter filter =
+                new RequestRewritingGatewayFilter("/api/v1", "", Collections.emptyList());
+
+        ServerWebExchange filteredExchange = filter(filter, "/api/v1");
+
+        assertThat(filteredExchange.getRequest().getURI().getRawPath()).isEqualTo("/");
+    }
+
+    @Test
+    void filter_recordsOriginalRequestUrl() {
+        RequestRewritingGatewayFilter filter =
+                new RequestRewritingGatewayFilter("/api/v1", "", Collections.emptyList());
+
+        ServerWebExchange filteredExchange = filter(filter, "/api/v1/some-path");
+
+        Set<URI> originalRequestUrls = filteredExchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        assertThat(originalRequestUrls).extracting(URI::getRawPath).containsExactly("/api/v1/some-path");
+    }
+
+    @Test
+    void filter_appliesParamInitializersInOrder_inSingleRewrite() {
+        ParamInitializer rolesInitializer = paramInitializerStub("roles",
+                ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS, "admin", "user");
+        ParamInitializer principalInitializer = paramInitializerStub("principal",
+                ParamInitializingStrategy.REPLACE_PARAMS_IF_ABSENT, "some user");
+        RequestRewritingGatewayFilter filter = new RequestRewritingGatewayFilter(
+                "/api/v1", "", List.of(rolesInitializer, principalInitializer));
+
+        ServerWebExchange filteredExchange = filter(filter, "/api/v1/some-path?roles=hacker&page=2");
+
+        URI filteredUri = filteredExchange.getRequest().getURI();
+        assertThat(filteredUri.getRawPath()).isEqualTo("/some-path");
+        assertThat(filteredUri.getRawQuery()).isEqualTo("roles=admin&roles=user&page=2&principal=some%20user");
+    }
+
+    @Test
+    void filter_withParamInitializerPublishingNoValues_removesParam() {
+        ParamInitializer rolesInitializer = paramInitializerStub("roles",
+                ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS);
+        RequestRewritingGatewayFilter filter = new RequestRewritingGatewayFilter(
+                "", "", List.of(rolesInitializer));
+
+        ServerWebExchange filteredExchange = filter(filter, "/some-path?roles=hacker");
+
+        assertThat(filteredExchange.getRequest().getURI().getRawQuery()).isNull();
+    }
+
+    @Test
+    void filter_withParamInitializers_keepsParamsWithoutValues() {
+        ParamInitializer rolesInitializer = paramInitializerStub("roles",
+                ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS, "admin");
+        RequestRewritingGatewayFilter filter = new RequestRewritingGatewayFilter(
+                "", "", List.of(rolesInitializer));
+
+        ServerWebExchange filteredExchange = filter(filter, "/some-path?verbose");
+
+        assertThat(filteredExchange.getRequest().getURI().getRawQuery()).isEqualTo("verbose&roles=admin");
+    }
+
+    @Test
+    void equalsHashCodeContract() {
+        EqualsVerifier.forClass(RequestRewritingGatewayFilter.class)
+                .withPrefabValues(ParamInitializer.class,
+                        paramInitializerStub("roles", ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS),
+                        paramInitializerStub("principal", ParamInitializingStrategy.REPLACE_PARAMS_IF_ABSENT))
+                .withNonnullFields("versionPrefix", "ignoredPrefix", "paramInitializers")
+                .suppress(Warning.STRICT_INHERITANCE)
+                .verify();
+    }
+
+    @Test
+    void constructor_withNullArguments_throwsNullPointerException() {
+        assertThatThrownBy(() -> new RequestRewritingGatewayFilter(null, "", Collections.emptyList()))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new RequestRewritingGatewayFilter("", null, Collections.emptyList()))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new RequestRewritingGatewayFilter("", "", null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    private static ParamInitializer paramInitializerStub(String paramName, ParamInitializingStrategy strategy,
+                                                         String... paramValues) {
+        return new ParamInitializer() {
+            @Override
+            public String getParamName() {
+                return paramName;
+            }
+
+            @Override
+            public Flux<?> getParamValues(ServerWebExchange exchange) {
+                return Flux.just(paramValues);
+            }
+
+            @Override
+            public ParamInitializingStrategy getParamStrategy() {
+                return strategy;
+            }
+        };
+    }
+
+    private static ServerWebExchange filter(RequestRewritingGatewayFilter filter, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.GET, URI.create("http://localhost" + uri)));
+
+        GatewayFilterChain chainMock = mock(GatewayFilterChain.class);
+        given(chainMock.filter(any())).willReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(exchange, chainMock))
+                .verifyComplete();
+
+        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        then(chainMock).should().filter(exchangeCaptor.capture());
+        return exchangeCaptor.getValue();
+    }
+}
@@ -9,8 +9,13 @@ import com.example.dynamicgateway.model.endpointParameter.SwaggerParameter;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.service.paramInitializer.ParamInitializer;
 import com.example.dynamicgateway.service.paramInitializer.ParamInitializers;
+import com.example.dynamicgateway.service.paramInitializer.ParamInitializingStrategy;
+import com.example.dynamicgateway.service.routeLocator.ApplicationRouteAggregator;
+import com.example.dynamicgateway.service.routeLocator.DynamicRouteLocator;
+import com.example.dynamicgateway.service.routeMatcher.TrieRouteMatcher;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
 import com.example.dynamicgateway.testUtil.RouteBuilderUtil;
+import com.example.dynamicgateway.util.EndpointUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,19 +27,18 @@ import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.handler.AsyncPredicate;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assumptions.assumeThat;
@@ -106,44 +110,70 @@ class RouteAssemblerTest {
     }
 
     @Test
-    void versionPrefixRemovingRouteAssembler_addsFilter_thatRemovesVersionPrefix() {
-        String prefix = "/api/v1";
-        given(gatewayMetaMock.getVersionPrefix()).willReturn(prefix);
+    void trieRoutePredicateRouteAssembler_addsPredicate_thatMatchesOnlyMatchingRequests() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of("/auth"));
 
-        EndpointRouteAssembler versionPrefixRemovingRouteAssembler =
-                routeAssemblerConfig.versionPrefixRemovingRouteAssembler();
-        versionPrefixRemovingRouteAssembler.process(routeBuilder, null);
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.GET)
+                .path("/auth/test-path/{id}")
+                .build();
 
-        List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
+        EndpointRouteAssembler triePredicateRouteAssembler =
+                routeAssemblerConfig.trieRoutePredicateRouteAssembler(new TrieRouteMatcher(new GatewayMeta()));
+        triePredicateRouteAssembler.process(routeBuilder, endpoint);
 
-        assumeThat(filters.size()).isEqualTo(1);
+        MockServerWebExchange matchingExchangeMock = MockServerWebExchange.builder(
+                MockServerHttpRequest.method(HttpMethod.GET, "/api/v1/test-path/42")
+        ).build();
 
-        ServerWebExchange exchangeMock = MockServerWebExchange.from(
-                MockServerHttpRequest.method(HttpMethod.POST, "/api/v1/some-path")
-        );
+        StepVerifier.create(routeBuilder.getPredicate().apply(matchingExchangeMock))
+                .expectNext(true)
+                .verifyComplete();
 
-        assumeThat(exchangeMock).extracting(ServerWebExchange::getRequest)
-                .extracting(ServerHttpRequest::getPath)
-                .extracting(PathContainer::value)
-                .asString()
-                .startsWith(prefix);
+        MockServerWebExchange nonMatchingExchangeMock = MockServerWebExchange.builder(
+                MockServerHttpRequest.method(HttpMethod.POST, "/api/v1/test-path/42")
+        ).build();
 
-        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        StepVerifier.create(routeBuilder.getPredicate().apply(nonMatchingExchangeMock))
+                .expectNext(false)
+                .verifyComplete();
+    }
 
-        GatewayFilterChain chainMock = mock(GatewayFilterChain.class);
-        given(chainMock.filter(any())).willReturn(Mono.empty());
+    @Test
+    void dispatchEntryRouteAssembler_addsDispatchMetadata_andPredicateMatchingDispatchedExchanges() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of("/auth"));
 
-        GatewayFilter versionPrefixRemovingFilter = filters.get(0);
-        StepVerifier.create(versionPrefixRemovingFilter.filter(exchangeMock, chainMock))
-                .verifyComplete();
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.POST)
+                .path("/auth/test-path/{id}")
+                .build();
 
-        then(chainMock).should().filter(exchangeCaptor.capture());
+        routeAssemblerConfig.dispatchEntryRouteAssembler().process(routeBuilder, endpoint);
+        Route endpointRoute = routeBuilder
+                .id(EndpointUtil.routeId(endpoint))
+                .uri("lb://test-app")
+                .build();
+
+        assertThat(endpointRoute.getMetadata())
+                .containsEntry(ApplicationRouteAggregator.DISPATCH_METHOD_METADATA_KEY, "POST")
+                .containsEntry(ApplicationRouteAggregator.DISPATCH_PATH_METADATA_KEY, "/api/v1/test-path/{id}");
+
+        Route applicationRoute = new ApplicationRouteAggregator().aggregate("test-app", List.of(endpointRoute));
+        MockServerWebExchange dispatchedExchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.POST, "/api/v1/test-path/42"));
+        StepVerifier.create(Flux.concat(
+                        applicationRoute.getPredicate().apply(dispatchedExchange),
+                        endpointRoute.getPredicate().apply(dispatchedExchange)))
+                .expectNext(true, true)
+                .verifyComplete();
 
-        String requestPath = exchangeCaptor.getValue()
-                .getRequest()
-                .getPath()
-                .value();
-        assertThat(requestPath).asString().doesNotStartWith(prefix);
+        MockServerWebExchange notDispatchedExchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.POST, "/api/v1/test-path/42"));
+        StepVerifier.create(endpointRoute.getPredicate().apply(notDispatchedExchange))
+                .expectNext(false)
+                .verifyComplete();
     }
 
     @Test
@@ -165,58 +195,55 @@ class RouteAssemblerTest {
     }
 
     @Test
-    void ignoredPrefixAppendingRouteAssembler_addsFilter_thatAppendsIgnoredPrefix() {
-        String prefix = "/some-prefix";
-        String path = "/some-path";
-        String prefixedPath = prefix + path;
-
-        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
-        given(endpointMock.getDetails().getPath()).willReturn(prefixedPath);
-
-        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of(prefix));
-
-        EndpointRouteAssembler appendEndpointPrefixRouteProcessor =
-                routeAssemblerConfig.ignoredPrefixAppendingRouteAssembler();
-        appendEndpointPrefixRouteProcessor.process(routeBuilder, endpointMock);
-
-        List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
-        assumeThat(filters.size()).isEqualTo(1);
+    void appNameMetadataRouteAssembler_addsAppNameToMetadata() {
+        String appName = "test-app";
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .declaringAppName(appName)
+                .build();
 
-        ServerWebExchange exchangeMock = MockServerWebExchange.from(
-                MockServerHttpRequest.method(HttpMethod.DELETE, path)
-        );
-        assumeThat(exchangeMock).extracting(ServerWebExchange::getRequest)
-                .extracting(ServerHttpRequest::getPath)
-                .extracting(PathContainer::value)
-                .asString()
-                .doesNotStartWith(prefix);
+        EndpointRouteAssembler metadataRouteAssembler = routeAssemblerConfig.appNameMetadataRouteAssembler();
+        Route route = metadataRouteAssembler.process(routeBuilder, endpoint)
+                .id("test-id")
+                .uri("lb://" + appName)
+                .predicate(exchange -> true)
+                .build();
 
-        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        assertThat(route.getMetadata()).containsEntry(DynamicRouteLocator.APP_NAME_METADATA_KEY, appName);
+    }
 
-        GatewayFilterChain chainMock = mock(GatewayFilterChain.class);
-        given(chainMock.filter(any())).willReturn(Mono.empty());
+    @Test
+    void idRouteAssembler_setsId() {
+        assumeThat(routeBuilder.getId()).isNull();
 
-        GatewayFilter ignoredPrefixAppendingFilter = filters.get(0);
-        StepVerifier.create(ignoredPrefixAppendingFilter.filter(exchangeMock, chainMock))
-                .verifyComplete();
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .declaringAppName("test-app")
+                .method(HttpMethod.GET)
+                .path("/test-path/{id}")
+                .build();
 
-        then(chainMock).should().filter(exchangeCaptor.capture());
+        EndpointRouteAssembler idRouteProcessor = routeAssemblerConfig.idRouteAssembler();
+        idRouteProcessor.process(routeBuilder, endpoint);
 
-        String requestPath = exchangeCaptor.getValue()
-                .getRequest()
-                .getPath()
-                .value();
-        assertThat(requestPath).asString().startsWith(prefix);
+        assertThat(routeBuilder.getId()).isEqualTo("test-app:GET:/test-path/{id}");
     }
 
     @Test
-    void idRouteAssembler_setsId() {
-        assumeThat(routeBuilder.getId()).isNull();
+    void idRouteAssembler_setsSameId_toRoutesBuiltAfterEqualEndpoints() {
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.POST)
+                .path("/test-path")
+                .build();
+        DocumentedEndpoint<?> endpointCopy = SwaggerEndpointStub.builder()
+                .method(HttpMethod.POST)
+                .path("/test-path")
+                .build();
 
         EndpointRouteAssembler idRouteProcessor = routeAssemblerConfig.idRouteAssembler();
-        idRouteProcessor.process(routeBuilder, null);
+        Route.AsyncBuilder anotherRouteBuilder = Route.async();
+        idRouteProcessor.process(routeBuilder, endpoint);
+        idRouteProcessor.process(anotherRouteBuilder, endpointCopy);
 
-        assertThat(routeBuilder.getId()).isNotNull();
+        assertThat(routeBuilder.getId()).isEqualTo(anotherRouteBuilder.getId());
     }
 
     @Test
@@ -248,74 +275,130 @@ class RouteAssemblerTest {
     }
 
     @Test
-    void paramInitializingRouteAssembler_doesntDoAnything_ifNoParams() {
-        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
-        given(endpointMock.getDetails().getParameters()).willReturn(Collections.emptyList());
-
-        ParamInitializer paramInitializerMock = mock(ParamInitializer.class);
-        given(paramInitializerMock.getParamName()).willReturn("someParam");
+    void requestRewritingRouteAssembler_addsSingleFilter_thatRemovesVersionPrefixAndAppendsIgnoredPrefix() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of("/auth"));
 
-        assumeThat(RouteBuilderUtil.getFilters(routeBuilder)).isEmpty();
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .method(HttpMethod.GET)
+                .path("/auth/test-path")
+                .build();
 
-        EndpointRouteAssembler paramInitializingRouteProcessor =
-                routeAssemblerConfig.paramInitializingRouteAssembler(
-                        new ParamInitializers(List.of(paramInitializerMock)));
-        paramInitializingRouteProcessor.process(routeBuilder, endpointMock);
+        EndpointRouteAssembler requestRewritingRouteAssembler =
+                routeAssemblerConfig.requestRewritingRouteAssembler(new ParamInitializers(Collections.emptyList()));
+        requestRewritingRouteAssembler.process(routeBuilder, endpoint);
 
-        assertThat(RouteBuilderUtil.getFilters(routeBuilder)).isEmpty();
-    }
+        List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
+        assertThat(filters).hasSize(1);
 
-    @Test
-    void paramInitializingRouteAssembler_doesntDoAnything_ifNoParamInitializersPassed() {
-        List<SwaggerParameter> params = Stream.of("paramOne", "paramTwo")
-                .map(SwaggerParameter::new)
-                .toList();
+        ServerHttpRequest filteredRequest = filterRequest(filters.get(0), "/api/v1/test-path?some-param=some-value");
 
-        EndpointDetails detailsMock = mock(EndpointDetails.class);
-        willReturn(params).given(detailsMock).getParameters();
+        assertThat(filteredRequest.getPath().value()).isEqualTo("/auth/test-path");
+        assertThat(filteredRequest.getURI().getRawQuery()).isEqualTo("some-param=some-value");
+    }
 
-        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class);
-        given(endpointMock.getDetails()).willReturn(detailsMock);
+    private static ServerHttpRequest filterRequest(GatewayFilter filter, String uri) {
+        ServerWebExchange exchangeMock = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.GET, uri)
+        );
 
-        assumeThat(RouteBuilderUtil.getFilters(routeBuilder)).isEmpty();
+        GatewayFilterChain chainMock = mock(GatewayFilterChain.class);
+        given(chainMock.filter(any())).willReturn(Mono.empty());
 
-        EndpointRouteAssembler paramInitializingRouteAssembler =
-                routeAssemblerConfig.paramInitializingRouteAssembler(new ParamInitializers(Collections.emptyList()));
-        paramInitializingRouteAssembler.process(routeBuilder, endpointMock);
+        StepVerifier.create(filter.filter(exchangeMock, chainMock))
+                .verifyComplete();
 
-        assertThat(RouteBuilderUtil.getFilters(routeBuilder)).isEmpty();
+        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        then(chainMock).should().filter(exchangeCaptor.capture());
+        return exchangeCaptor.getValue().getRequest();
     }
 
     @Test
-    void paramInitializingRouteProcessor_withParamInitializerPassed_withMatchingParam_hasParamInitializerPassFilter() {
-        EndpointParameter param = mock(EndpointParameter.class);
+    void requestRewritingRouteAssembler_withMatchingParamInitializer_initializesParam() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(Collections.emptyList());
+
+        EndpointParameter param = new SwaggerParameter("roles");
+        EndpointParameter anotherParam = new SwaggerParameter("page");
 
         EndpointDetails detailsMock = mock(EndpointDetails.class);
-        willReturn(List.of(param)).given(detailsMock).getParameters();
+        given(detailsMock.getPath()).willReturn("/test-path");
+        willReturn(List.of(param, anotherParam)).given(detailsMock).getParameters();
 
         DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class);
         given(endpointMock.getDetails()).willReturn(detailsMock);
 
-        GatewayFilter filterMock = mock(GatewayFilter.class);
-
         ParamInitializer paramInitializerMock = mock(ParamInitializer.class);
-        will(
-                invocation -> invocation.getArgument(0, Route.AsyncBuilder.class).filter(filterMock)
-        ).given(paramInitializerMock).addInitializingFilter(routeBuilder);
-
-        ParamInitializers paramInitializersMock = mock(ParamInitializers.class);
-        given(paramInitializersMock.findInitializerForParam(param))
-                .willReturn(Optional.of(paramInitializerMock));
+        given(paramInitializerMock.getParamName()).willReturn("roles");
+        willReturn(Flux.just("admin")).given(paramInitializerMock).getParamValues(any());
+        given(paramInitializerMock.getParamStrategy()).willReturn(ParamInitializingStrategy.REPLACE_PARAMS_ALWAYS);
 
-        EndpointRouteAssembler paramInitializingRouteAssembler =
-                routeAssemblerConfig.paramInitializingRouteAssembler(paramInitializersMock);
+        EndpointRouteAssembler requestRewritingRouteAssembler =
+                routeAssemblerConfig.requestRewritingRouteAssembler(new ParamInitializers(List.of(paramInitializerMock)));
+        requestRewritingRouteAssembler.process(routeBuilder, endpointMock);
 
         List<GatewayFilter> filters = RouteBuilderUtil.getFilters(routeBuilder);
-        assumeThat(filters).isEmpty();
+        assertThat(filters).hasSize(1);
 
-        paramInitializingRouteAssembler.process(routeBuilder, endpointMock);
+        ServerHttpRequest filteredRequest = filterRequest(filters.get(0), "/api/v1/test-path?page=2");
 
-        assertThat(filters).hasSize(1);
-        assertThat(filters.get(0)).isEqualTo(filterMock);
+        assertThat(filteredRequest.getPath().value()).isEqualTo("/test-path");
+        assertThat(filteredRequest.getQueryParams().toSingleValueMap())
+                .isEqualTo(Map.of("page", "2", "roles", "admin"));
+    }
+
+    @Test
+    void requestRewritingRouteAssembler_sharesFilterAmongRoutesWithEqualRewrites() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of("/auth"));
+
+        EndpointRouteAssembler requestRewritingRouteAssembler =
+                routeAssemblerConfig.requestRewritingRouteAssembler(new ParamInitializers(Collections.emptyList()));
+
+        Route.AsyncBuilder anotherRouteBuilder = Route.async();
+        Route.AsyncBuilder yetAnotherRouteBuilder = Route.async();
+        requestRewritingRouteAssembler.process(routeBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.GET).path("/auth/path-one").build());
+        requestRewritingRouteAssembler.process(anotherRouteBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.POST).path("/auth/path-two").build());
+        requestRewritingRouteAssembler.process(yetAnotherRouteBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.POST).path("/path-three").build());
+
+        GatewayFilter filter = RouteBuilderUtil.getFilters(routeBuilder).get(0);
+        assertThat(RouteBuilderUtil.getFilters(anotherRouteBuilder).get(0)).isSameAs(filter);
+        assertThat(RouteBuilderUtil.getFilters(yetAnotherRouteBuilder).get(0)).isNotSameAs(filter);
+    }
+
+    @Test
+    void methodRouteAssembler_sharesPredicateAmongRoutesWithSameMethod() {
+        EndpointRouteAssembler methodRouteAssembler = routeAssemblerConfig.methodRouteAssembler();
+
+        Route.AsyncBuilder anotherRouteBuilder = Route.async();
+        Route.AsyncBuilder yetAnotherRouteBuilder = Route.async();
+        methodRouteAssembler.process(routeBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.GET).path("/path-one").build());
+        methodRouteAssembler.process(anotherRouteBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.GET).path("/path-two").build());
+        methodRouteAssembler.process(yetAnotherRouteBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.PUT).path("/path-one").build());
+
+        assertThat(anotherRouteBuilder.getPredicate()).isSameAs(routeBuilder.getPredicate());
+        assertThat(yetAnotherRouteBuilder.getPredicate()).isNotSameAs(routeBuilder.getPredicate());
+    }
+
+    @Test
+    void pathPredicateRouteAssembler_sharesPredicateAmongRoutesWithSamePath() {
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(Collections.emptyList());
+
+        EndpointRouteAssembler pathPredicateRouteAssembler = routeAssemblerConfig.pathPredicateRouteAssembler();
+
+        Route.AsyncBuilder anotherRouteBuilder = Route.async();
+        pathPredicateRouteAssembler.process(routeBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.GET).path("/test-path").build());
+        pathPredicateRouteAssembler.process(anotherRouteBuilder,
+                SwaggerEndpointStub.builder().method(HttpMethod.DELETE).path("/test-path").build());
+
+        assertThat(anotherRouteBuilder.getPredicate()).isSameAs(routeBuilder.getPredicate());
     }
-}
\ No newline at end of file
+}
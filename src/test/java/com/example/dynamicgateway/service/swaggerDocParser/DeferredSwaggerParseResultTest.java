@@ -0,0 +1,59 @@
+package com.example.dynamicgateway.service.swaggerDocParser;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeferredSwaggerParseResultTest {
+    private final OpenAPI endpointSkeleton = new OpenAPI().openapi("3.0.1");
+
+    @Test
+    void getOpenAPI_ifFullParserReturnsNoOpenApi_returnsSkeleton_withoutChangingMessages() {
+        SwaggerParseResult fullParseResult = new SwaggerParseResult();
+        fullParseResult.setMessages(List.of("attribute paths is missing"));
+        DeferredSwaggerParseResult parseResult =
+                new DeferredSwaggerParseResult("openapi: 3.0.1", endpointSkeleton, doc -> fullParseResult);
+        List<String> messages = parseResult.getMessages();
+
+        assertThat(parseResult.getOpenAPI()).isSameAs(endpointSkeleton);
+        assertThat(parseResult.getMessages()).isSameAs(messages);
+    }
+
+    @Test
+    void getOpenAPI_ifFullParserReturnsNull_returnsSkeleton() {
+        DeferredSwaggerParseResult parseResult =
+                new DeferredSwaggerParseResult("openapi: 3.0.1", endpointSkeleton, doc -> null);
+
+        assertThat(parseResult.getOpenAPI()).isSameAs(endpointSkeleton);
+    }
+
+    @Test
+    void getOpenAPI_parsesFullDocOnEachCall_withoutRetainingIt() {
+        List<OpenAPI> fullOpenApis = new ArrayList<>();
+        DeferredSwaggerParseResult parseResult = new DeferredSwaggerParseResult("openapi: 3.0.1", endpointSkeleton, doc -> {
+            SwaggerParseResult fullParseResult = new SwaggerParseResult();
+            fullParseResult.setOpenAPI(new OpenAPI().openapi("3.0.1"));
+            fullOpenApis.add(fullParseResult.getOpenAPI());
+            return fullParseResult;
+        });
+
+        OpenAPI firstOpenApi = parseResult.getOpenAPI();
+        OpenAPI secondOpenApi = parseResult.getOpenAPI();
+
+        assertThat(fullOpenApis).hasSize(2);
+        assertThat(firstOpenApi).isSameAs(fullOpenApis.get(0)).isNotSameAs(secondOpenApi);
+        assertThat(secondOpenApi).isSameAs(fullOpenApis.get(1));
+    }
+
+    @Test
+    void constructor_throwsNullPointerException_onNullArguments() {
+        assertThatThrownBy(() -> new DeferredSwaggerParseResult(null, endpointSkeleton, doc -> null))
+                .isInstanceOf(NullPointerException.class);
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.dynamicgateway.service.swaggerDocParser;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+
+class StreamingOpenApiParserTest {
+    private final SwaggerOpenApiParser fullParser = new SwaggerOpenApiParser();
+
+    @Test
+    void parse_jsonDoc_extractsSameEndpointsAsFullParser() {
+        String docString = getJsonDocString();
+
+        SwaggerParseResult parseResult = new StreamingOpenApiParser().parse(docString);
+
+        assertThat(parseResult).isInstanceOf(DeferredSwaggerParseResult.class);
+        OpenAPI endpointSkeleton = ((DeferredSwaggerParseResult) parseResult).getEndpointSkeleton();
+        assertThat(describeEndpoints(endpointSkeleton))
+                .isEqualTo(describeEndpoints(fullParser.parse(docString).getOpenAPI()))
+                .hasSize(3);
+        assertThat(endpointSkeleton.getInfo().getDescription()).isEqualTo("Sends messages");
+    }
+
+    @Test
+    void parse_ymlDoc_extractsSameEndpointsAsFullParser() {
+        String docString = getYmlDocString();
+
+        SwaggerParseResult parseResult = new StreamingOpenApiParser().parse(docString);
+
+        assertThat(parseResult).isInstanceOf(DeferredSwaggerParseResult.class);
+        assertThat(describeEndpoints(((DeferredSwaggerParseResult) parseResult).getEndpointSkeleton()))
+                .isEqualTo(describeEndpoints(fullParser.parse(docString).getOpenAPI()))
+                .hasSize(3);
+    }
+
+    @Test
+    void parse_defersFullParsingUntilOpenApiIsRequested() {
+        OpenApiParser<SwaggerParseResult> fullParserSpy = spy(fullParser);
+        String docString = getJsonDocString();
+
+        DeferredSwaggerParseResult parseResult =
+                (DeferredSwaggerParseResult) new StreamingOpenApiParser(fullParserSpy).parse(docString);
+
+        then(fullParserSpy).should(never()).parse(any());
+
+        OpenAPI openAPI = parseResult.getOpenAPI();
+
+        assertThat(openAPI.getComponents().getSchemas()).containsKey("Message");
+        then(fullParserSpy).should().parse(docString);
+    }
+
+    @Test
+    void parse_ifDocIsNotOpenApi3_fallsBackToFullParser() {
+        String swagger2DocString = """
+                {
+                  "swagger": "2.0",
+                  "info": { "title": "Legacy API", "version": "1.0" },
+                  "paths": {}
+                }
+                """;
+
+        SwaggerParseResult parseResult = new StreamingOpenApiParser().parse(swagger2DocString);
+
+        assertThat(parseResult).isNotInstanceOf(DeferredSwaggerParseResult.class);
+        assertThat(parseResult.getOpenAPI()).isEqualTo(fullParser.parse(swagger2DocString).getOpenAPI());
+    }
+
+    @Test
+    void parse_ifDocIsTruncated_fallsBackToFullParser() {
+        String docString = getJsonDocString();
+        String truncatedDocString = docString.substring(0, docString.length() / 2);
+
+        SwaggerParseResult parseResult = new StreamingOpenApiParser().parse(truncatedDocString);
+
+        assertThat(parseResult).isNotInstanceOf(DeferredSwaggerParseResult.class);
+    }
+
+    @Test
+    void parse_skipsUnexpectedlyShapedNodes() {
+        String docString = """
+                {
+                  "openapi": "3.0.1",
+                  "info": "Message API",
+                  "paths": {
+                    "/api/v1/messages": {
+                      "parameters": [ { "name": "trace", "in": "header" } ],
+                      "summary": "Messages",
+                      "get": {
+                        "parameters": { "name": "principal" },
+                        "requestBody": "none",
+                        "tags": "Message Controller"
+                      },
+                      "post": {
+                        "parameters": [ "principal", { "$ref": "#/components/schemas/Message" } ],
+                        "tags": [ "Message Controller", { "name": "Writes" } ]
+                      },
+                      "put": "not an operation"
+                    },
+                    "/api/v1/legacy": "not a path item"
+                  },
+                  "components": {
+                    "parameters": {
+                      "Page": "not a parameter"
+                    },
+                    "schemas": {
+                      "Message": { "type": "object" }
+                    },
+                    "securitySchemes": "none"
+                  }
+                }
+                """;
+
+        SwaggerParseResult parseResult = new StreamingOpenApiParser().parse(docString);
+
+        assertThat(parseResult).isInstanceOf(DeferredSwaggerParseResult.class);
+        OpenAPI endpointSkeleton = ((DeferredSwaggerParseResult) parseResult).getEndpointSkeleton();
+        assertThat(endpointSkeleton.getInfo()).isNull();
+        assertThat(endpointSkeleton.getPaths()).containsOnlyKeys("/api/v1/messages");
+        PathItem pathItem = endpointSkeleton.getPaths().get("/api/v1/messages");
+        assertThat(pathItem.readOperationsMap()).containsOnlyKeys(PathItem.HttpMethod.GET, PathItem.HttpMethod.POST);
+        assertThat(pathItem.getGet().getParameters()).isNull();
+        assertThat(pathItem.getGet().getRequestBody()).isNull();
+        assertThat(pathItem.getGet().getTags()).isNull();
+        assertThat(pathItem.getPost().getParameters())
+                .extracting(Parameter::get$ref)
+                .containsExactly("#/components/schemas/Message");
+        assertThat(pathItem.getPost().getTags()).containsExactly("Message Controller");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void parse_ifDocHasNoPathsOrIsNotObject_handlesItWithoutStreamingPaths() {
+        SwaggerParseResult pathlessParseResult = new StreamingOpenApiParser().parse("""
+                { "openapi": "3.0.1", "info": { "title": "Empty API" }, "paths": [], "components": [] }
+                """);
+        assertThat(pathlessParseResult).isInstanceOf(DeferredSwaggerParseResult.class);
+        assertThat(((DeferredSwaggerParseResult) pathlessParseResult).getEndpointSkeleton().getPaths()).isNull();
+
+        OpenApiParser<SwaggerParseResult> fullParserMock = mock(OpenApiParser.class);
+        given(fullParserMock.parse(any())).willReturn(new SwaggerParseResult());
+        StreamingOpenApiParser parser = new StreamingOpenApiParser(fullParserMock);
+        Stream.of(null, " ", "[ \"openapi\" ]", "{ \"info\": {} }").forEach(serializedDoc -> {
+            assertThat(parser.parse(serializedDoc)).isNotInstanceOf(DeferredSwaggerParseResult.class);
+            then(fullParserMock).should().parse(serializedDoc);
+        });
+    }
+
+    private static Map<String, String> describeEndpoints(OpenAPI openAPI) {
+        return openAPI.getPaths().entrySet().stream()
+                .flatMap(pathEntry -> pathEntry.getValue().readOperationsMap().entrySet().stream()
+                        .map(operationEntry -> Map.entry(
+                                operationEntry.getKey() + " " + pathEntry.getKey(),
+                                describeOperation(operationEntry))))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static String describeOperation(Map.Entry<PathItem.HttpMethod, Operation> operationEntry) {
+        Operation operation = operationEntry.getValue();
+        List<String> parameters = (operation.getParameters() == null) ? List.of() : operation.getParameters().stream()
+                .map(StreamingOpenApiParserTest::describeParameter)
+                .toList();
+        String requestBody = (operation.getRequestBody() == null) ? "none" :
+                operation.getRequestBody().get$ref() + "/" + operation.getRequestBody().getRequired();
+        return "parameters=" + parameters + ", requestBody=" + requestBody + ", tags=" + operation.getTags();
+    }
+
+    private static String describeParameter(Parameter parameter) {
+        return parameter.getName() + "/" + parameter.getIn() + "/" + Boolean.TRUE.equals(parameter.getRequired()) +
+                "/" + parameter.get$ref();
+    }
+
+    private static String getJsonDocString() {
+        return """
+                {
+                  "openapi": "3.0.1",
+                  "info": {
+                    "title": "Message API",
+                    "description": "Sends messages",
+                    "version": "1.0"
+                  },
+                  "servers": [ { "url": "http://localhost:8080" } ],
+                  "paths": {
+                    "x-internal": { "owner": "messaging" },
+                    "/api/v1/messages": {
+                      "summary": "Messages",
+                      "get": {
+                        "tags": [ "Message Controller" ],
+                        "parameters": [
+                          { "name": "principal", "in": "query", "required": false, "schema": { "type": "string" } },
+                          { "$ref": "#/components/parameters/Page" }
+                        ],
+                        "responses": {
+                          "200": {
+                            "description": "OK",
+                            "content": {
+                              "*/*": { "schema": { "$ref": "#/components/schemas/Message" } }
+                            }
+                          }
+                        }
+                      },
+                      "post": {
+                        "tags": [ "Message Controller", "Writes" ],
+                        "requestBody": {
+                          "required": true,
+                          "content": {
+                            "application/json": { "schema": { "$ref": "#/components/schemas/Message" } }
+                          }
+                        },
+                        "responses": { "201": { "description": "Created" } }
+                      }
+                    },
+                    "/api/v1/messages/{id}": {
+                      "delete": {
+                        "parameters": [
+                          { "name": "id", "in": "path", "required": true, "schema": { "type": "integer" } }
+                        ],
+                        "requestBody": { "$ref": "#/components/requestBodies/Reason" },
+                        "responses": { "204": { "description": "No Content" } }
+                      }
+                    }
+                  },
+                  "components": {
+                    "schemas": {
+                      "Message": {
+                        "type": "object",
+                        "properties": { "text": { "type": "string", "enum": [ "hi", "bye" ] } }
+                      }
+                    },
+                    "parameters": {
+                      "Page": { "name": "page", "in": "query", "schema": { "type": "integer" } }
+                    },
+                    "requestBodies": {
+                      "Reason": { "content": { "text/plain": { "schema": { "type": "string" } } } }
+                    }
+                  }
+                }
+                """;
+    }
+
+    private static String getYmlDocString() {
+        return """
+                openapi: 3.0.1
+                info:
+                  title: Message API
+                  description: Sends messages
+                  version: '1.0'
+                paths:
+                  /api/v1/messages:
+                    get:
+                      tags:
+                        - Message Controller
+                      parameters:
+                        - name: principal
+                          in: query
+                          required: false
+                          schema:
+                            type: string
+                        - $ref: '#/components/parameters/Page'
+                      responses:
+                        '200':
+                          description: OK
+                    post:
+                      tags: [ Message Controller, Writes ]
+                      requestBody:
+                        required: true
+                        content:
+                          application/json:
+                            schema:
+                              $ref: '#/components/schemas/Message'
+                      responses:
+                        201:
+                          description: Created
+                  /api/v1/messages/{id}:
+                    delete:
+                      parameters:
+                        - name: id
+                          in: path
+                          required: true
+                      responses:
+                        204:
+                          description: No Content
+                components:
+                  schemas:
+                    Message:
+                      type: object
+                  parameters:
+                    Page:
+                      name: page
+                      in: query
+                """;
+    }
+}
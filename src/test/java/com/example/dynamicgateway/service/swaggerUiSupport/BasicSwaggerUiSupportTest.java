@@ -2,11 +2,9 @@ package com.example.dynamicgateway.service.swaggerUiSupport;
 
 import com.example.dynamicgateway.model.discoverableApplication.DiscoverableApplication;
 import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
-import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
 import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
 import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
-import com.example.dynamicgateway.model.uiConfig.SwaggerUiConfig;
 import com.example.dynamicgateway.service.endpointCollector.EndpointCollector;
 import com.example.dynamicgateway.service.endpointCollector.SwaggerEndpointCollector;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
@@ -27,52 +25,12 @@ import reactor.test.StepVerifier;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.spy;
 import static org.mockito.BDDMockito.given;
 
 class BasicSwaggerUiSupportTest {
-    private final List<String> appNames = List.of("test-app", "another-test-app", "this-is-app-too");
-
-    @SuppressWarnings("unchecked")
-    @Test
-    void getSwaggerUiConfig_returnsExpectedConfig() {
-        Set<SwaggerEndpoint> endpoints = appNames.stream()
-                .map(this::appNameToEndpointStub).collect(Collectors.toSet());
-
-        EndpointCollector<SwaggerEndpoint> endpointCollectorMock = spy(EndpointCollector.class);
-        given(endpointCollectorMock.getCollectedEndpoints()).willReturn(endpoints);
-
-        BasicSwaggerUiSupport uiSupport = new BasicSwaggerUiSupport(
-                endpointCollectorMock, null);
-
-        StepVerifier.create(uiSupport.getSwaggerUiConfig())
-                .expectNextMatches(this::isExpectedCollectionOfApps)
-                .verifyComplete();
-    }
-
-    private SwaggerEndpointStub appNameToEndpointStub(String name) {
-        return SwaggerEndpointStub.builder().declaringAppName(name).build();
-    }
-
-    private boolean isExpectedCollectionOfApps(SwaggerUiConfig swaggerUiConfig) {
-        return hasExpectedSize(swaggerUiConfig) && hasExpectedContent(swaggerUiConfig);
-    }
-
-    private boolean hasExpectedSize(SwaggerUiConfig swaggerUiConfig) {
-        return swaggerUiConfig.getSwaggerApplications().size() == appNames.size();
-    }
-
-    private boolean hasExpectedContent(SwaggerUiConfig swaggerUiConfig) {
-        return swaggerUiConfig.getSwaggerApplications()
-                .stream()
-                .map(DocumentedApplication::getName)
-                .allMatch(appNames::contains);
-    }
-
     @SneakyThrows
     @Test
     void getSwaggerAppDoc_returnsExpectedDoc() {
@@ -97,8 +55,9 @@ class BasicSwaggerUiSupportTest {
                 .toList();
 
         EndpointCollector<SwaggerEndpoint> endpointCollector =
-                new SwaggerEndpointCollector(null, null, null);
-        ReflectionTestUtils.setField(endpointCollector, "documentedEndpoints", Set.copyOf(subsetOfEndpoints));
+                new SwaggerEndpointCollector(null, null, null, null);
+        ReflectionTestUtils.setField(endpointCollector, "endpointsByAppName",
+                Map.of(swaggerApplication.getName(), Set.copyOf(subsetOfEndpoints)));
 
         GatewayMeta gatewayMetaMock = mock(GatewayMeta.class);
         given(gatewayMetaMock.getVersionPrefix()).willReturn("/test-api/v0");
@@ -0,0 +1,46 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncodedContentTest {
+    @Test
+    void of_compressesContent() {
+        byte[] bytes = "{\"urls\":[]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        EncodedContent content = EncodedContent.of(bytes);
+
+        assertThat(content.getBytes()).isSameAs(bytes);
+        assertThat(content.getGzippedBytes()).hasSizeLessThan(bytes.length);
+        assertThat(gunzip(content.getGzippedBytes())).isEqualTo(bytes);
+    }
+
+    @Test
+    void of_computesDistinctStrongETagsOfBothForms() {
+        EncodedContent content = EncodedContent.of("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(content.getETag()).matches("\"[0-9a-f]{64}\"");
+        assertThat(content.getGzippedETag()).matches("\"[0-9a-f]{64}-gzip\"");
+        assertThat(EncodedContent.of("{}".getBytes(StandardCharsets.UTF_8)).getETag()).isEqualTo(content.getETag());
+        assertThat(EncodedContent.of("[]".getBytes(StandardCharsets.UTF_8)).getETag()).isNotEqualTo(content.getETag());
+    }
+
+    @Test
+    void of_throwsNullPointerException_onNull() {
+        assertThatThrownBy(() -> EncodedContent.of(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @SneakyThrows
+    private static byte[] gunzip(byte[] gzippedBytes) {
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(gzippedBytes))) {
+            return gzipInputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
+import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.shared.Application;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+class SwaggerAppDocCacheTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SwaggerUiSupport uiSupportMock = mock(SwaggerUiSupport.class);
+    private final SwaggerAppDocCache docCache = new SwaggerAppDocCache(uiSupportMock, objectMapper);
+
+    @Test
+    void getEncodedSwaggerAppDoc_encodesDocOnce() {
+        OpenAPI openAPI = SwaggerParseResultGenerator.empty().getOpenAPI();
+        given(uiSupportMock.getSwaggerAppDoc("test-app")).willReturn(Mono.just(openAPI));
+
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("test-app"))
+                .assertNext(encodedDoc -> assertThat(encodedDoc.getBytes()).isEqualTo(encode(openAPI)))
+                .verifyComplete();
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("test-app"))
+                .assertNext(encodedDoc -> assertThat(encodedDoc.getBytes()).isEqualTo(encode(openAPI)))
+                .verifyComplete();
+
+        then(uiSupportMock).should(times(1)).getSwaggerAppDoc("test-app");
+    }
+
+    @Test
+    void getEncodedSwaggerAppDoc_afterAppIsUpdatedOrEvicted_encodesDocAnew() {
+        OpenAPI oldOpenAPI = SwaggerParseResultGenerator.createForEndpoints(new Info().description("Old")).getOpenAPI();
+        OpenAPI newOpenAPI = SwaggerParseResultGenerator.createForEndpoints(new Info().description("New")).getOpenAPI();
+        given(uiSupportMock.getSwaggerAppDoc("test-app")).willReturn(Mono.just(oldOpenAPI), Mono.just(newOpenAPI));
+
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("test-app"))
+                .assertNext(encodedDoc -> assertThat(encodedDoc.getBytes()).isEqualTo(encode(oldOpenAPI)))
+                .verifyComplete();
+
+        docCache.onDocumentedApplicationUpdatedEvent(buildUpdatedEvent("test-app"));
+
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("test-app"))
+                .assertNext(encodedDoc -> assertThat(encodedDoc.getBytes()).isEqualTo(encode(newOpenAPI)))
+                .verifyComplete();
+
+        docCache.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("test-app", List.of(), this));
+        docCache.getEncodedSwaggerAppDoc("test-app").block();
+
+        then(uiSupportMock).should(times(3)).getSwaggerAppDoc("test-app");
+    }
+
+    @Test
+    void getEncodedSwaggerAppDoc_afterEnvironmentChanges_encodesAllDocsAnew() {
+        given(uiSupportMock.getSwaggerAppDoc("test-app"))
+                .willReturn(Mono.just(SwaggerParseResultGenerator.empty().getOpenAPI()));
+
+        docCache.getEncodedSwaggerAppDoc("test-app").block();
+        docCache.onEnvironmentChangeEvent();
+        docCache.getEncodedSwaggerAppDoc("test-app").block();
+
+        then(uiSupportMock).should(times(2)).getSwaggerAppDoc("test-app");
+    }
+
+    @Test
+    void getEncodedSwaggerAppDoc_doesntCacheFailures() {
+        OpenAPI openAPI = SwaggerParseResultGenerator.empty().getOpenAPI();
+        given(uiSupportMock.getSwaggerAppDoc("late-app")).willReturn(
+                Mono.error(new IllegalArgumentException("No service with name late-app is known to this Gateway")),
+                Mono.just(openAPI));
+
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("late-app"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(docCache.getEncodedSwaggerAppDoc("late-app"))
+                .assertNext(encodedDoc -> assertThat(encodedDoc.getBytes()).isEqualTo(encode(openAPI)))
+                .verifyComplete();
+    }
+
+    private static DocumentedApplicationUpdatedEvent buildUpdatedEvent(String appName) {
+        SwaggerApplication application = new SwaggerApplication(
+                EurekaDiscoverableApplication.from(new Application(appName)),
+                SwaggerParseResultGenerator.empty());
+        return new DocumentedApplicationUpdatedEvent(application, List.of(), application);
+    }
+
+    @SneakyThrows
+    private byte[] encode(OpenAPI openAPI) {
+        return objectMapper.writeValueAsBytes(openAPI);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.dynamicgateway.service.swaggerUiSupport;
+
+import com.example.dynamicgateway.events.DocumentedApplicationFoundEvent;
+import com.example.dynamicgateway.events.DocumentedApplicationUpdatedEvent;
+import com.example.dynamicgateway.events.DocumentedEndpointsEvictedEvent;
+import com.example.dynamicgateway.model.discoverableApplication.EurekaDiscoverableApplication;
+import com.example.dynamicgateway.model.documentedApplication.DocumentedApplication;
+import com.example.dynamicgateway.model.documentedApplication.SwaggerApplication;
+import com.example.dynamicgateway.model.documentedEndpoint.SwaggerEndpoint;
+import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import com.example.dynamicgateway.testUtil.SwaggerParseResultGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.shared.Application;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SwaggerUiConfigCacheTest {
+    private final SwaggerUiConfigCache configCache = new SwaggerUiConfigCache(new ObjectMapper());
+
+    @Test
+    void getEncodedSwaggerUiConfig_initially_returnsEmptyConfig() {
+        assertThat(decode(configCache.getEncodedSwaggerUiConfig())).isEqualTo("{\"urls\":[]}");
+        assertThat(configCache.getEncodedSwaggerUiConfig().getETag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void getEncodedSwaggerUiConfig_afterAppsAreFound_returnsConfigReferencingApps() {
+        configCache.onDocumentedApplicationFoundEvent(buildFoundEvent("b-app"));
+        configCache.onDocumentedApplicationFoundEvent(buildFoundEvent("a-app"));
+
+        assertThat(decode(configCache.getEncodedSwaggerUiConfig())).isEqualTo("""
+                {"urls":[{"url":"/doc/a-app","name":"a-app"},{"url":"/doc/b-app","name":"b-app"}]}\
+                """);
+    }
+
+    @Test
+    void getEncodedSwaggerUiConfig_isReencodedOnlyWhenAppIsFoundOrLost() {
+        EncodedContent emptyConfig = configCache.getEncodedSwaggerUiConfig();
+
+        configCache.onDocumentedApplicationFoundEvent(buildFoundEvent("test-app"));
+        EncodedContent config = configCache.getEncodedSwaggerUiConfig();
+        assertThat(config.getETag()).isNotEqualTo(emptyConfig.getETag());
+
+        configCache.onDocumentedApplicationUpdatedEvent(buildUpdatedEvent("test-app", List.of(buildEndpoint())));
+        configCache.onDocumentedApplicationFoundEvent(buildFoundEvent("test-app"));
+        configCache.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("unknown-app", List.of(), this));
+        assertThat(configCache.getEncodedSwaggerUiConfig()).isSameAs(config);
+
+        configCache.onDocumentedEndpointsEvictedEvent(new DocumentedEndpointsEvictedEvent("test-app", List.of(), this));
+        assertThat(configCache.getEncodedSwaggerUiConfig().getBytes()).isEqualTo(emptyConfig.getBytes());
+        assertThat(configCache.getEncodedSwaggerUiConfig().getETag()).isEqualTo(emptyConfig.getETag());
+    }
+
+    @Test
+    void getEncodedSwaggerUiConfig_afterAppIsUpdatedToNoEndpoints_returnsConfigWithoutApp() {
+        configCache.onDocumentedApplicationUpdatedEvent(buildUpdatedEvent("test-app", List.of(buildEndpoint())));
+        assertThat(decode(configCache.getEncodedSwaggerUiConfig())).contains("test-app");
+
+        configCache.onDocumentedApplicationUpdatedEvent(buildUpdatedEvent("test-app", List.of()));
+
+        assertThat(decode(configCache.getEncodedSwaggerUiConfig())).isEqualTo("{\"urls\":[]}");
+    }
+
+    @Test
+    void getEncodedSwaggerUiConfig_ignoresNonSwaggerApps() {
+        DocumentedApplication<?> nonSwaggerApp = mock(DocumentedApplication.class);
+
+        configCache.onDocumentedApplicationFoundEvent(
+                new DocumentedApplicationFoundEvent(nonSwaggerApp, List.of(buildEndpoint()), this));
+
+        assertThat(decode(configCache.getEncodedSwaggerUiConfig())).isEqualTo("{\"urls\":[]}");
+    }
+
+    private static DocumentedApplicationFoundEvent buildFoundEvent(String appName) {
+        SwaggerApplication application = buildApplication(appName);
+        return new DocumentedApplicationFoundEvent(application, List.of(buildEndpoint()), application);
+    }
+
+    private static DocumentedApplicationUpdatedEvent buildUpdatedEvent(String appName, List<SwaggerEndpoint> endpoints) {
+        SwaggerApplication application = buildApplication(appName);
+        return new DocumentedApplicationUpdatedEvent(application, endpoints, application);
+    }
+
+    private static SwaggerApplication buildApplication(String appName) {
+        return new SwaggerApplication(
+                EurekaDiscoverableApplication.from(new Application(appName)),
+                SwaggerParseResultGenerator.empty());
+    }
+
+    private static SwaggerEndpoint buildEndpoint() {
+        return SwaggerEndpointStub.builder().build();
+    }
+
+    private static String decode(EncodedContent config) {
+        return new String(config.getBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.dynamicgateway.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConcurrencyLimiterTest {
+    @Test
+    void limit_subscribesToNoMoreThanMaxConcurrencySources() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        AtomicInteger subscriptionCount = new AtomicInteger();
+        Sinks.One<String> firstResult = Sinks.one();
+
+        StepVerifier.create(limiter.limit(firstResult.asMono()
+                        .doOnSubscribe(subscription -> subscriptionCount.incrementAndGet())))
+                .then(() -> limiter.limit(Mono.never().doOnSubscribe(s -> subscriptionCount.incrementAndGet())).subscribe())
+                .then(() -> limiter.limit(Mono.just("third").doOnSubscribe(s -> subscriptionCount.incrementAndGet())).subscribe())
+                .then(() -> {
+                    assertThat(subscriptionCount).hasValue(2);
+                    assertThat(limiter.getWaitingCount()).isEqualTo(1);
+                })
+                .then(() -> firstResult.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(subscriptionCount).hasValue(3);
+        assertThat(limiter.getWaitingCount()).isZero();
+    }
+
+    @Test
+    void limit_ifWaitingMonoIsCancelled_skipsIt() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        Sinks.Empty<Void> firstWork = Sinks.empty();
+        AtomicInteger cancelledSubscriptionCount = new AtomicInteger();
+
+        limiter.limit(firstWork.asMono()).subscribe();
+        Disposable cancelled = limiter.limit(Mono.fromRunnable(cancelledSubscriptionCount::incrementAndGet)).subscribe();
+        cancelled.dispose();
+
+        StepVerifier.create(limiter.limit(Mono.just("next")))
+                .then(firstWork::tryEmitEmpty)
+                .expectNext("next")
+                .verifyComplete();
+        assertThat(cancelledSubscriptionCount).hasValue(0);
+    }
+
+    @Test
+    void limit_withManyCancelledOrSynchronousWaitingMonos_handsPermitsOverWithoutOverflowingStack() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        Sinks.Empty<Void> firstWork = Sinks.empty();
+        AtomicInteger completedCount = new AtomicInteger();
+        int waitingCount = 100_000;
+
+        limiter.limit(firstWork.asMono()).subscribe();
+        for (int i = 0; i < waitingCount; i++) {
+            limiter.limit(Mono.never()).subscribe().dispose();
+            limiter.limit(Mono.fromRunnable(completedCount::incrementAndGet)).subscribe();
+        }
+
+        StepVerifier.create(limiter.limit(Mono.just("last")))
+                .then(firstWork::tryEmitEmpty)
+                .expectNext("last")
+                .verifyComplete();
+        assertThat(completedCount).hasValue(waitingCount);
+        assertThat(limiter.getWaitingCount()).isZero();
+    }
+
+    @Test
+    void limit_ifRunningMonoFails_releasesPermit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+
+        StepVerifier.create(limiter.limit(Mono.error(new IllegalStateException())))
+                .verifyError(IllegalStateException.class);
+        StepVerifier.create(limiter.limit(Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    void constructor_withNonPositiveConcurrency_throws() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrencyLimiter(0));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.dynamicgateway.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class DebouncerTest {
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final List<String> consumedValues = new ArrayList<>();
+    private final Debouncer<String> debouncer = new Debouncer<>(
+            consumedValues::add, Duration.ofSeconds(1), Duration.ofSeconds(5), scheduler);
+
+    @Test
+    void burstOfSignals_isCollapsedIntoSingleInvocation_withMostRecentValue() {
+        debouncer.signal("first");
+        scheduler.advanceTimeBy(Duration.ofMillis(500));
+        debouncer.signal("second");
+        scheduler.advanceTimeBy(Duration.ofMillis(500));
+        debouncer.signal("third");
+
+        scheduler.advanceTimeBy(Duration.ofMillis(999));
+        assertThat(consumedValues).isEmpty();
+
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertThat(consumedValues).containsExactly("third");
+    }
+
+    @Test
+    void steadyStreamOfSignals_doesntPostponeInvocationBeyondMaxDelay() {
+        for (int i = 0; i < 10; i++) {
+            debouncer.signal("signal-" + i);
+            scheduler.advanceTimeBy(Duration.ofMillis(499));
+        }
+        assertThat(consumedValues).isEmpty();
+
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        assertThat(consumedValues).containsExactly("signal-9");
+    }
+
+    @Test
+    void signalsSeparatedByQuietWindow_resultInSeparateInvocations() {
+        debouncer.signal("first");
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        debouncer.signal("second");
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        assertThat(consumedValues).containsExactly("first", "second");
+    }
+
+    @Test
+    void ifDurationIsNegative_throws() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Debouncer<>(
+                value -> {}, Duration.ofSeconds(-1), Duration.ZERO, scheduler));
+        assertThatIllegalArgumentException().isThrownBy(() -> new Debouncer<>(
+                value -> {}, Duration.ZERO, Duration.ofSeconds(-1), scheduler));
+    }
+}
@@ -3,16 +3,22 @@ package com.example.dynamicgateway.util;
 import com.example.dynamicgateway.model.documentedEndpoint.DocumentedEndpoint;
 import com.example.dynamicgateway.model.gatewayMeta.GatewayMeta;
 import com.example.dynamicgateway.testModel.SwaggerEndpointStub;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
 
 @ExtendWith(MockitoExtension.class)
 class EndpointUtilTest {
@@ -125,4 +131,67 @@ class EndpointUtilTest {
         String returnedPath = EndpointUtil.pathPrefix(endpoint, gatewayMetaMock);
         assertThat(returnedPath).isEqualTo("");
     }
-}
\ No newline at end of file
+
+    @Test
+    void routeId_differsForEndpointsOfDifferentAppsOrMethods() {
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder()
+                .declaringAppName("app-one").method(HttpMethod.GET).path("/test-path").build();
+        DocumentedEndpoint<?> endpointOfAnotherApp = SwaggerEndpointStub.builder()
+                .declaringAppName("app-two").method(HttpMethod.GET).path("/test-path").build();
+        DocumentedEndpoint<?> endpointWithAnotherMethod = SwaggerEndpointStub.builder()
+                .declaringAppName("app-one").method(HttpMethod.PUT).path("/test-path").build();
+
+        assertThat(EndpointUtil.routeId(endpoint)).isEqualTo("app-one:GET:/test-path");
+        assertThat(EndpointUtil.routeId(endpointOfAnotherApp)).isEqualTo("app-two:GET:/test-path");
+        assertThat(EndpointUtil.routeId(endpointWithAnotherMethod)).isEqualTo("app-one:PUT:/test-path");
+    }
+
+    @Test
+    void matchingPath_prependsVersionPrefixToPathWithoutIgnoredPrefix() {
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder().path("/auth/test-path").build();
+
+        given(gatewayMetaMock.getIgnoredPrefixes()).willReturn(List.of("/auth"));
+        given(gatewayMetaMock.getVersionPrefix()).willReturn("/api/v1");
+
+        assertThat(EndpointUtil.matchingPath(endpoint, gatewayMetaMock)).isEqualTo("/api/v1/test-path");
+    }
+
+    @Test
+    void detailsFingerprint_differsOnlyForEndpointsWithDifferentRoutingDetails() {
+        SwaggerEndpointStub.Builder endpointBuilder = SwaggerEndpointStub.builder().path("/test-path");
+        endpointBuilder.getDetailsBuilder().parameters(List.of(new Parameter().name("param").required(true)));
+        SwaggerEndpointStub.Builder equalEndpointBuilder = SwaggerEndpointStub.builder().path("/test-path");
+        equalEndpointBuilder.getDetailsBuilder().parameters(List.of(new Parameter().name("param").required(true)));
+        SwaggerEndpointStub.Builder optionalParamEndpointBuilder = SwaggerEndpointStub.builder().path("/test-path");
+        optionalParamEndpointBuilder.getDetailsBuilder().parameters(List.of(new Parameter().name("param")));
+        SwaggerEndpointStub.Builder taggedEndpointBuilder = SwaggerEndpointStub.builder().path("/test-path");
+        taggedEndpointBuilder.getDetailsBuilder()
+                .parameters(List.of(new Parameter().name("param").required(true)))
+                .tags(List.of("tag"));
+        SwaggerEndpointStub.Builder bodyEndpointBuilder = SwaggerEndpointStub.builder().path("/test-path");
+        bodyEndpointBuilder.getDetailsBuilder()
+                .parameters(List.of(new Parameter().name("param").required(true)))
+                .requestBody(new RequestBody().required(true));
+
+        String fingerprint = EndpointUtil.detailsFingerprint(endpointBuilder.build());
+
+        assertThat(EndpointUtil.detailsFingerprint(equalEndpointBuilder.build())).isEqualTo(fingerprint);
+        Stream.of(optionalParamEndpointBuilder, taggedEndpointBuilder, bodyEndpointBuilder)
+                .map(builder -> EndpointUtil.detailsFingerprint(builder.build()))
+                .forEach(otherFingerprint -> assertThat(otherFingerprint).isNotEqualTo(fingerprint));
+    }
+
+    @Test
+    void detailsFingerprint_withoutRequestBody_treatsBodyAsOptional() {
+        DocumentedEndpoint<?> endpoint = SwaggerEndpointStub.builder().path("/test-path").build();
+        DocumentedEndpoint<?> endpointMock = mock(DocumentedEndpoint.class, RETURNS_DEEP_STUBS);
+        given(endpointMock.getDeclaringApp()).willAnswer(invocation -> endpoint.getDeclaringApp());
+        given(endpointMock.getDetails().getMethod()).willReturn(HttpMethod.GET);
+        given(endpointMock.getDetails().getPath()).willReturn("/test-path");
+        given(endpointMock.getDetails().getTags()).willReturn(List.of());
+        given(endpointMock.getDetails().getParameters()).willReturn(List.of());
+        given(endpointMock.getDetails().getRequestBody()).willReturn(null);
+
+        assertThat(EndpointUtil.detailsFingerprint(endpointMock)).isEqualTo(EndpointUtil.detailsFingerprint(endpoint));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.dynamicgateway.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InternerTest {
+    private final Interner<String, Object> interner = new Interner<>();
+
+    @Test
+    void intern_withEqualKeys_returnsSameInstance_andInvokesFactoryOnce() {
+        AtomicInteger factoryInvocations = new AtomicInteger();
+
+        Object instance = interner.intern("key", key -> {
+            factoryInvocations.incrementAndGet();
+            return new Object();
+        });
+        Object anotherInstance = interner.intern(new String("key"), key -> {
+            factoryInvocations.incrementAndGet();
+            return new Object();
+        });
+
+        assertThat(anotherInstance).isSameAs(instance);
+        assertThat(factoryInvocations).hasValue(1);
+        assertThat(interner.size()).isOne();
+    }
+
+    @Test
+    void intern_withDifferentKeys_returnsDifferentInstances() {
+        Object instance = interner.intern("key", key -> new Object());
+        Object anotherInstance = interner.intern("another-key", key -> new Object());
+
+        assertThat(anotherInstance).isNotSameAs(instance);
+        assertThat(interner.size()).isEqualTo(2);
+    }
+
+    @Test
+    @SneakyThrows
+    void intern_afterCanonicalInstanceIsCollected_releasesKey_andCreatesNewInstance() {
+        AtomicInteger factoryInvocations = new AtomicInteger();
+        interner.intern("key", key -> {
+            factoryInvocations.incrementAndGet();
+            return new Object();
+        });
+
+        for (int attempt = 0; attempt < 100 && interner.size() > 0; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(interner.size()).isZero();
+
+        Object instance = interner.intern("key", key -> {
+            factoryInvocations.incrementAndGet();
+            return new Object();
+        });
+        assertThat(interner.intern("key", key -> new Object())).isSameAs(instance);
+        assertThat(factoryInvocations).hasValue(2);
+    }
+
+    @Test
+    void intern_withNullArguments_throwsNullPointerException() {
+        assertThatThrownBy(() -> interner.intern(null, key -> new Object()))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> interner.intern("key", null))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> interner.intern("key", key -> null))
+                .isInstanceOf(NullPointerException.class);
+    }
+}
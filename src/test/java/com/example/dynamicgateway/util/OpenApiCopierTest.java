@@ -0,0 +1,81 @@
+package com.example.dynamicgateway.util;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.servers.Server;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenApiCopierTest {
+    @Test
+    void copyPathsAndServers_returnsEqualCopy() {
+        OpenAPI openAPI = createOpenApi();
+
+        OpenAPI copy = OpenApiCopier.copyPathsAndServers(openAPI);
+
+        assertThat(copy).isEqualTo(openAPI).isNotSameAs(openAPI);
+    }
+
+    @Test
+    void copyPathsAndServers_copiesPathsPathItemsAndServers() {
+        OpenAPI openAPI = createOpenApi();
+
+        OpenAPI copy = OpenApiCopier.copyPathsAndServers(openAPI);
+        copy.getPaths().get("/messages").operation(PathItem.HttpMethod.GET, null);
+        copy.getPaths().remove("/messages/{id}");
+        copy.getServers().add(new Server().url("https://localhost:4321"));
+
+        assertThat(openAPI).isEqualTo(createOpenApi());
+    }
+
+    @Test
+    void copyPathsAndServers_sharesEverythingElse() {
+        OpenAPI openAPI = createOpenApi();
+
+        OpenAPI copy = OpenApiCopier.copyPathsAndServers(openAPI);
+
+        assertThat(copy.getInfo()).isSameAs(openAPI.getInfo());
+        assertThat(copy.getComponents()).isSameAs(openAPI.getComponents());
+        assertThat(copy.getPaths().get("/messages").getGet()).isSameAs(openAPI.getPaths().get("/messages").getGet());
+    }
+
+    @Test
+    void copyPathsAndServers_handlesMissingPathsAndServers() {
+        OpenAPI openAPI = new OpenAPI().info(new Info().title("Empty API"));
+        openAPI.setPaths(new Paths());
+        openAPI.getPaths().put("/nothing", null);
+
+        OpenAPI copy = OpenApiCopier.copyPathsAndServers(openAPI);
+
+        assertThat(copy).isEqualTo(openAPI);
+        assertThat(OpenApiCopier.copyPathsAndServers(new OpenAPI())).isEqualTo(new OpenAPI());
+    }
+
+    @Test
+    void copyPathsAndServers_throwsNullPointerException_onNull() {
+        assertThatThrownBy(() -> OpenApiCopier.copyPathsAndServers(null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    private static OpenAPI createOpenApi() {
+        return new OpenAPI()
+                .info(new Info().title("Message API").version("1.0"))
+                .servers(new ArrayList<>(List.of(new Server().url("https://localhost:1234"))))
+                .components(new Components())
+                .paths(new Paths()
+                        .addPathItem("/messages", new PathItem()
+                                .get(new Operation().operationId("getMessages"))
+                                .post(new Operation().operationId("postMessage")))
+                        .addPathItem("/messages/{id}", new PathItem()
+                                .delete(new Operation().operationId("deleteMessage"))));
+    }
+}
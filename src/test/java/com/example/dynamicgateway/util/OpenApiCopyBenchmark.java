@@ -0,0 +1,107 @@
+package com.example.dynamicgateway.util;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copying {@link OpenAPI} objects with {@link Cloner} and with {@link OpenApiCopier}
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=com.example.dynamicgateway.util.OpenApiCopyBenchmark
+ * -Dexec.classpathScope=test} or from an IDE. Allocation rates are reported as {@code gc.alloc.rate.norm}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenApiCopyBenchmark {
+    @Param({"10", "500"})
+    private int pathCount;
+    private OpenAPI openAPI;
+
+    @Setup
+    public void setUp() {
+        openAPI = createOpenApi(pathCount);
+    }
+
+    @Benchmark
+    public OpenAPI cloner() {
+        return Cloner.deepCopy(openAPI, OpenAPI.class);
+    }
+
+    @Benchmark
+    public OpenAPI openApiCopier() {
+        return OpenApiCopier.copyPathsAndServers(openAPI);
+    }
+
+    private static OpenAPI createOpenApi(int pathCount) {
+        Paths paths = new Paths();
+        Components components = new Components();
+        for (int i = 0; i < pathCount; i++) {
+            String schemaName = "Resource" + i;
+            components.addSchemas(schemaName, new ObjectSchema()
+                    .addProperty("id", new StringSchema())
+                    .addProperty("name", new StringSchema().description("Name of resource " + i)));
+            Schema<?> schemaRef = new Schema<>().$ref("#/components/schemas/" + schemaName);
+            Content content = new Content().addMediaType("application/json", new MediaType().schema(schemaRef));
+            paths.addPathItem("/api/v1/resources-" + i + "/{id}", new PathItem()
+                    .get(new Operation()
+                            .operationId("getResource" + i)
+                            .addTagsItem("Resource " + i)
+                            .addParametersItem(new Parameter().name("id").in("path").required(true)
+                                    .schema(new StringSchema()))
+                            .responses(new ApiResponses()
+                                    .addApiResponse("200", new ApiResponse().description("OK").content(content))))
+                    .put(new Operation()
+                            .operationId("putResource" + i)
+                            .requestBody(new RequestBody().required(true).content(content))
+                            .responses(new ApiResponses()
+                                    .addApiResponse("204", new ApiResponse().description("No Content")))));
+        }
+        return new OpenAPI()
+                .info(new Info().title("Benchmark API").version("1.0"))
+                .servers(List.of(new Server().url("http://localhost:8080")))
+                .paths(paths)
+                .components(components);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OpenApiCopyBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()
+        ).run();
+    }
+}